@@ -1,12 +1,17 @@
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.layout.StackPane;
+import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import javafx.scene.input.KeyCode;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.effect.GaussianBlur;
 
 /**
@@ -23,6 +28,9 @@ public class App extends Application {
     /** Fixed viewport height in pixels. */
     private static final int H = 720;
 
+    /** Print the startup and input latency summaries; enabled with {@code -Dcyborg.stats=true}. */
+    private static final boolean PRINT_STATS = Boolean.getBoolean("cyborg.stats");
+
     /** Main animation timer driving the game loop. */
     private AnimationTimer timer;
 
@@ -38,6 +46,50 @@ public class App extends Application {
     /** Controls game state and updates. */
     private GameController controller;
 
+    /** Runs the game simulation on its own thread. */
+    private SimulationLoop simulation;
+
+    /** Replays leaderboard submissions before they are saved. */
+    private ScoreVerifier verifier;
+
+    /** Leaderboard shared by every session, created by the first; its files are never touched on the FX thread. */
+    private LeaderboardService leaderboard;
+
+    /** Font borrowed from the {@link AssetRegistry} for the main menu. */
+    private Font menuFont;
+
+    /** True while {@link #menuFont} is borrowed. */
+    private boolean menuFontHeld;
+
+    /** Loads assets into the shared {@link AssetRegistry} on background threads. */
+    private final AssetLoader assetLoader = new AssetLoader(AssetRegistry.shared(),
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    /** Completes once the assets the main menu needs are cached; null until loading starts. */
+    private CompletableFuture<Void> menuAssetsReady;
+
+    /** Completes once the gameplay assets are cached; null until loading starts. */
+    private CompletableFuture<Void> gameAssetsReady;
+
+    /** Loading screen shown while waiting for {@link #gameAssetsReady}, or null. */
+    private LoadingView levelLoadingView;
+
+    /** Time from a key event to the first frame drawn from a snapshot reflecting it. */
+    private final LatencyHistogram inputLatency = new LatencyHistogram();
+
+    /** File the input latency histogram is written to when a session ends. */
+    private final Path latencyPath =
+            Path.of(System.getProperty("user.home"), ".cyborg-platform", "input-latency.csv");
+
+    /** Times the phases from JVM start to the first frame of the main menu. */
+    private final StartupTimer startup = new StartupTimer();
+
+    /** File the startup phase timings are written to. */
+    private final Path startupPath =
+            Path.of(System.getProperty("user.home"), ".cyborg-platform", "startup.csv");
+
+    /** True once the first menu frame has been shown and the startup timings exported. */
+    private boolean startupReported;
 
     /**
      * Initialises application-wide resources.
@@ -49,55 +101,159 @@ public class App extends Application {
      */
     @Override
     public void init() {
+        startup.mark("jvm_to_init");
         settings = new GameSettings();
         audio = new AudioManager("/Audio/Menumusic.mp3");
         audio.setVolume(0.6);
+        startLoadingAssets();
+    }
+
+    /**
+     * Starts loading assets in the background, unless already started: first
+     * the small set the main menu needs, then everything gameplay needs. The
+     * gameplay assets are queued behind the menu's, so the menu can be shown
+     * as soon as its own assets are ready.
+     */
+    private void startLoadingAssets() {
+        if (menuAssetsReady != null) return;
+        menuAssetsReady = assetLoader.load(Game.menuAssets(), null);
+        gameAssetsReady = assetLoader.load(Game.gameAssets(), (done, total, key) -> Platform.runLater(() -> {
+            if (levelLoadingView != null) levelLoadingView.setProgress(done, total);
+        }));
     }
 
     /**
      * Called by JavaFX when the application starts.
      *
+     * <p>Shows a loading screen until the main menu's assets are ready.</p>
+     *
      * @param stage primary window provided by JavaFX
      */
     @Override
     public void start(Stage stage) {
+        // Only recorded if init() was skipped
+        startup.mark("jvm_to_init");
         if (settings == null) settings = new GameSettings();
         if (audio == null) {
             audio = new AudioManager("/Audio/Menumusic.mp3");
             audio.setVolume(0.6);
         }
+        startLoadingAssets();
 
         this.stage = stage;
         stage.setTitle("Cyborg Platform");
         stage.setResizable(false);
 
-        // Apply current setting whenever menu is shown
-        if (settings.isMusicEnabled()) audio.play();
-        else audio.pause();
+        if (menuAssetsReady.isDone()) {
+            showMenu();
+            return;
+        }
 
-        Game game = new Game();
-        game.loadImages();
-        game.init();
+        stage.setScene(new Scene(new LoadingView("Loading..."), W, H));
+        stage.show();
+        // If the background load failed, showMenu loads the font again on the FX thread and reports the error there
+        menuAssetsReady.whenComplete((v, ex) -> Platform.runLater(this::showMenu));
+    }
 
-        MainMenu menu = new MainMenu(game.getFont(), settings, audio);
+    /**
+     * Shows the main menu. Its assets are normally cached by then.
+     *
+     * <p>On first launch the music and background video are only started
+     * after the menu's first frame, so decoding them does not delay it.</p>
+     */
+    private void showMenu() {
+        startup.mark("asset_load");
+
+        // The menu only needs the font; it stays cached in the registry for the game
+        if (!menuFontHeld) {
+            menuFont = Game.acquireFont();
+            menuFontHeld = true;
+        }
+
+        MainMenu menu = new MainMenu(menuFont, settings, audio);
         Scene scene = new Scene(menu, W, H);
 
         menu.setOnStartGame(this::startGame);
 
         stage.setScene(scene);
-        menu.playBackground();
+        startup.mark("menu_construction");
         stage.show();
+
+        if (startupReported) {
+            startMedia(menu);
+            return;
+        }
+
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                startup.mark("first_pulse");
+                startupReported = true;
+                saveStartupTimings();
+                // Let this pulse finish drawing the menu before opening any media
+                Platform.runLater(() -> startMedia(menu));
+            }
+        }.start();
+    }
+
+    /**
+     * Starts the menu's background video and, if enabled, its music.
+     *
+     * @param menu menu being shown
+     */
+    private void startMedia(MainMenu menu) {
+        // Apply current setting whenever menu is shown
+        if (settings.isMusicEnabled()) audio.play();
+        else audio.pause();
+
+        if (stage.getScene() != null && stage.getScene().getRoot() == menu) {
+            menu.playBackground();
+        }
+    }
+
+    /**
+     * Writes the startup phase timings to {@link #startupPath}, and prints them
+     * if {@link #PRINT_STATS} is set.
+     */
+    private void saveStartupTimings() {
+        if (PRINT_STATS) System.out.println("Startup: " + startup.summary());
+        try {
+            startup.writeCsv(startupPath);
+        } catch (IOException e) {
+            System.err.println("Failed to save startup timings: " + e.getMessage());
+        }
     }
 
     /**
      * Starts a new gameplay session and replaces the main menu.
+     *
+     * <p>If the gameplay assets are still loading, a loading screen with
+     * their progress is shown first and the session starts once they are
+     * ready.</p>
      */
     private void startGame() {
-        if (timer != null) timer.stop();
+        if (!gameAssetsReady.isDone()) {
+            if (levelLoadingView != null) return;
+            if (stage.getScene() != null && stage.getScene().getRoot() instanceof MainMenu menu) {
+                menu.stopBackground();
+            }
+            levelLoadingView = new LoadingView("Loading level...");
+            stage.setScene(new Scene(levelLoadingView, W, H));
+            gameAssetsReady.whenComplete((v, ex) -> Platform.runLater(this::startGame));
+            return;
+        }
+        levelLoadingView = null;
+
+        stopGameLoop();
 
         if (stage.getScene() != null && stage.getScene().getRoot() instanceof MainMenu menu) {
             menu.stopBackground();
         }
+        if (menuFontHeld) {
+            Game.releaseFont();
+            menuFontHeld = false;
+        }
 
         Game game = new Game();
         game.loadImages();
@@ -113,11 +269,23 @@ public class App extends Application {
                         + File.separator
                         + "leaderboard.dat";
 
-        LeaderboardService leaderboard = new LeaderboardService(leaderboardPath);
-        leaderboard.load();
+        Path replayPath = Path.of(System.getProperty("user.home"), ".cyborg-platform", "last.replay");
+
+        if (leaderboard == null) {
+            leaderboard = new LeaderboardService(leaderboardPath);
+        }
+        // Picks up scores saved since the last session; the end screen redraws when the version changes
+        leaderboard.loadAsync().exceptionally(e -> {
+            System.err.println("Failed to load leaderboard: " + e.getMessage());
+            return null;
+        });
+
+        verifier = new ScoreVerifier(leaderboard, 1, 8, settings.getTickRate() * 3600);
 
         controller = new GameController(game, scoreManager, leaderboard);
         controller.startNewGame();
+        simulation = new SimulationLoop(controller, scoreManager, settings.getTickRate());
+        TripleBuffer<RenderSnapshot> snapshots = simulation.getSnapshots();
 
         Canvas canvas = new Canvas(W, H);
         GraphicsContext gc = canvas.getGraphicsContext2D();
@@ -135,8 +303,27 @@ public class App extends Application {
         endView.getLeaderboardView().setScale(settings.getTextScale() * 0.65);
 
         final boolean[] savedThisRun = { false };
+        final boolean[] replaySaved = { false };
+        final long[] lastInputNanos = { 0 };
+
+        // Rebuilds the leaderboard rows only when the entries or the highlighted score change
+        final long[] shownVersion = { -1 };
+        final ScoreEntry[] shownHighlight = { null };
+        Runnable showLeaderboard = () -> {
+            long version = leaderboard.getVersion();
+            if (version == shownVersion[0] && shownHighlight[0] == lastSaved[0]) return;
+            shownVersion[0] = version;
+            shownHighlight[0] = lastSaved[0];
+            endView.getLeaderboardView().setEntries(leaderboard.getTop(10), 10, lastSaved[0]);
+            if (lastSaved[0] != null) {
+                int score = lastSaved[0].score();
+                endView.setPlacement(leaderboard.getRank(score), leaderboard.size(), leaderboard.getTopPercent(score));
+            } else {
+                endView.clearPlacement();
+            }
+        };
 
-        // Save score button
+        // Save score button: the entry is only added once its replay has been verified
         endView.getSaveButton().setOnAction(e -> {
             if (savedThisRun[0]) {
                 endView.setStatus("Already saved for this run");
@@ -144,19 +331,22 @@ public class App extends Application {
             }
 
             String name = endView.getEnteredName();
-            int score = scoreManager.getScore();
-
-            ScoreEntry entry = new ScoreEntry(name, score);
-            leaderboard.addEntry(name, score);
-            boolean ok = leaderboard.save();
-            lastSaved[0] = entry;
-
-            endView.getLeaderboardView()
-                    .setEntries(leaderboard.getEntries(), 10, null);
-            endView.setStatus(ok ? "Saved!" : "Save failed");
-
             savedThisRun[0] = true;
             endView.getSaveButton().setDisable(true);
+
+            CompletableFuture<ScoreVerifier.Verdict> verdict = new CompletableFuture<>();
+            endView.setStatus("Verifying...", verdict.thenApply(ScoreVerifier.Verdict::message));
+            verdict.thenAccept(v -> Platform.runLater(() -> {
+                if (v.accepted()) lastSaved[0] = new ScoreEntry(name, v.result().score());
+                showLeaderboard.run();
+            }));
+
+            ScoreVerifier runVerifier = verifier;
+            simulation.post(() -> {
+                ScoreVerifier.Submission submission =
+                        ScoreVerifier.Submission.of(name, scoreManager, controller.getRecording());
+                runVerifier.submit(submission).thenAccept(verdict::complete);
+            });
         });
 
         // Root layout containing game and overlays
@@ -165,16 +355,19 @@ public class App extends Application {
         stage.setScene(scene);
         stage.show();
 
-        // Pause menu actions
-        pauseView.resumeButton().setOnAction(e -> controller.resume());
+        // Pause menu actions (game state is owned by the simulation thread)
+        pauseView.resumeButton().setOnAction(e -> simulation.post(controller::resume));
         pauseView.restartButton().setOnAction(e -> {
             savedThisRun[0] = false;
             endView.getSaveButton().setDisable(false);
-            controller.startNewGame();
+            simulation.post(controller::startNewGame);
             canvas.requestFocus();
         });
 
-        pauseView.menuButton().setOnAction(e -> start(stage));
+        pauseView.menuButton().setOnAction(e -> {
+            stopGameLoop();
+            start(stage);
+        });
 
         // End screen actions
         endView.setOnRestart(() -> {
@@ -182,50 +375,51 @@ public class App extends Application {
             lastSaved[0] = null;
             endView.resetUi();
             endView.getSaveButton().setDisable(false);
-            controller.startNewGame();
+            simulation.post(controller::startNewGame);
             endView.hide();
             canvas.requestFocus();
         });
 
         endView.setOnBackToMenu(() -> {
-            if (timer != null) timer.stop();
+            stopGameLoop();
             start(stage);
         });
 
         // Keyboard input handling
         scene.setOnKeyPressed(e -> {
             if (e.getCode() == KeyCode.ESCAPE) {
-                controller.togglePause();
+                simulation.post(controller::togglePause);
                 e.consume();
                 return;
             }
 
             // Debug keys (remove for release)
             if (e.getCode() == KeyCode.F8) {
-                leaderboard.clear();
-                endView.getLeaderboardView()
-                        .setEntries(leaderboard.getEntries(), 10, null);
-                endView.setStatus("Leaderboard reset");
+                lastSaved[0] = null;
+                endView.setStatus("Resetting leaderboard...", leaderboard.clearAsync().thenApply(v -> {
+                    Platform.runLater(showLeaderboard);
+                    return "Leaderboard reset";
+                }));
                 e.consume();
                 return;
             }
 
             if (e.getCode() == KeyCode.F9) {
-                controller.forceGameOver();
+                simulation.post(controller::forceGameOver);
                 e.consume();
                 return;
             }
 
             if (controller.getState() == GameState.RUNNING) {
                 controller.getGame().getInputHandler()
-                        .onKeyPressed(e.getCode());
+                        .queueKeyPressed(e.getCode());
             }
         });
 
         scene.setOnKeyReleased(e -> {
             if (controller.getState() == GameState.RUNNING) {
                 controller.getGame().getInputHandler()
-                        .onKeyReleased(e.getCode());
+                        .queueKeyReleased(e.getCode());
             }
         });
 
@@ -234,60 +428,122 @@ public class App extends Application {
 
         timer = new AnimationTimer() {
 
-            /** Fixed update step for 60Hz simulation. */
-            private static final long STEP = 1_000_000_000L / 60;
-
-            /** Timestamp of the previous frame. */
-            private long last = 0;
-
-            /** Accumulated unprocessed time. */
-            private long acc = 0;
-
             /**
              * Called once per frame by JavaFX.
              *
+             * <p>Picks up the newest snapshot published by the simulation
+             * thread, updates the overlays and draws the frame, interpolated
+             * by how far real time has moved past the snapshot's tick. No game
+             * state is advanced here.</p>
+             *
+             * <p>The first time a snapshot carrying a new input timestamp is
+             * drawn, the time since that key event is added to the input
+             * latency histogram.</p>
+             *
              * @param now current time in nanoseconds
              */
             @Override
             public void handle(long now) {
-                if (last == 0) {
-                    last = now;
-                    return;
-                }
-
-                acc += (now - last);
-                last = now;
+                boolean fresh = snapshots.update();
+                RenderSnapshot frame = snapshots.front();
 
-                while (acc >= STEP) {
-                    controller.update(STEP / 1_000_000_000.0);
-                    acc -= STEP;
-                }
-
-                boolean paused = controller.getState() == GameState.PAUSED;
-                boolean gameOver = controller.getState() == GameState.GAME_OVER;
+                boolean paused = frame.state == GameState.PAUSED;
+                boolean gameOver = frame.state == GameState.GAME_OVER;
 
                 pauseView.setVisible(paused);
                 endView.setVisible(gameOver);
                 canvas.setEffect((paused || gameOver) ? blur : null);
 
+                if (!gameOver) {
+                    replaySaved[0] = false;
+                } else if (!replaySaved[0]) {
+                    replaySaved[0] = true;
+                    simulation.post(() -> saveReplay(replayPath));
+                }
+
                 if (gameOver) {
-                    endView.setScore(scoreManager.getScore());
-                    endView.getLeaderboardView()
-                            .setEntries(leaderboard.getEntries(), 10, lastSaved[0]);
-                    endView.runStats(
-                            scoreManager.getElapsedSeconds(),
-                            scoreManager.getKills(),
-                            scoreManager.getDeaths()
-                    );
+                    endView.setScore(frame.score);
+                    showLeaderboard.run();
+                    endView.runStats(frame.runSeconds, frame.kills, frame.deaths);
                 }
 
-                FxRenderer.draw(gc, controller.getGame(), settings, W, H);
+                FxRenderer.draw(gc, frame, game, settings, W, H, frame.alpha(System.nanoTime()));
+
+                if (fresh && frame.inputNanos != 0 && frame.inputNanos != lastInputNanos[0]) {
+                    lastInputNanos[0] = frame.inputNanos;
+                    inputLatency.record(System.nanoTime() - frame.inputNanos);
+                }
             }
         };
 
+        simulation.start();
         timer.start();
     }
 
+    /**
+     * Writes the input of the run that just ended to a replay file.
+     * <p>
+     * Runs on the simulation thread, which owns the recording.
+     *
+     * @param path file to write
+     */
+    private void saveReplay(Path path) {
+        Replay replay = controller.getRecording();
+        if (replay == null) return;
+        try {
+            replay.save(path);
+        } catch (IOException e) {
+            System.err.println("Failed to save replay: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Called by JavaFX when the application exits; ends the running session,
+     * if any, and waits briefly for queued score verifications and leaderboard writes.
+     */
+    @Override
+    public void stop() {
+        stopGameLoop();
+        assetLoader.close();
+        if (leaderboard != null) leaderboard.close();
+    }
+
+    /**
+     * Stops the render timer, the simulation thread and the score verifier of the current session, if any,
+     * returns the session's assets to the {@link AssetRegistry} and exports its input latency histogram.
+     */
+    private void stopGameLoop() {
+        if (timer != null) timer.stop();
+        if (simulation != null) {
+            simulation.stop();
+            simulation = null;
+        }
+        if (verifier != null) {
+            verifier.close();
+            verifier = null;
+        }
+        if (controller != null) {
+            controller.getGame().releaseImages();
+        }
+        saveInputLatency();
+    }
+
+    /**
+     * Writes the input latency histogram recorded since the last call to
+     * {@link #latencyPath}, prints its summary if {@link #PRINT_STATS} is set,
+     * and starts a new one.
+     */
+    private void saveInputLatency() {
+        if (inputLatency.getCount() == 0) return;
+        if (PRINT_STATS) System.out.println("Input latency: " + inputLatency.summary());
+        try {
+            inputLatency.writeCsv(latencyPath);
+        } catch (IOException e) {
+            System.err.println("Failed to save input latency: " + e.getMessage());
+        }
+        inputLatency.reset();
+    }
+
     /**
      * Standard JavaFX entry point.
      *
@@ -0,0 +1,115 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads assets into an {@link AssetRegistry} on a pool of worker threads.
+ * <p>
+ * Each {@link Task} names a registry key and how to load it. {@link #load}
+ * starts every task at once and returns a future that completes when all of
+ * them are cached; a {@link ProgressListener} is told about each one as it
+ * finishes. Nothing stays borrowed afterwards: code that then calls
+ * {@link AssetRegistry#acquire} for the same keys gets the cached assets
+ * without loading anything.
+ *
+ * @author psyjr14
+ */
+public class AssetLoader implements AutoCloseable {
+
+    /**
+     * One asset to load.
+     *
+     * @param key registry key
+     * @param type type of the asset
+     * @param loader loads the asset; may run on any thread
+     * @param <T> asset type
+     */
+    public record Task<T>(String key, Class<T> type, Supplier<? extends T> loader) {}
+
+    /**
+     * Receives progress while a batch loads. Called on the worker that
+     * finished the task, so UI listeners must hand off to the FX thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * @param done tasks of the batch finished so far, including this one
+         * @param total tasks in the batch
+         * @param key key of the task that just finished
+         */
+        void onProgress(int done, int total, String key);
+    }
+
+    /** Registry the assets are loaded into. */
+    private final AssetRegistry registry;
+
+    /** Loading workers. */
+    private final ExecutorService pool;
+
+    /**
+     * Creates a loader.
+     *
+     * @param registry registry the assets are loaded into
+     * @param threads number of assets loaded at once
+     */
+    public AssetLoader(AssetRegistry registry, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive: " + threads);
+        this.registry = registry;
+
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts loading a batch of assets.
+     *
+     * @param tasks assets to load
+     * @param listener told about each finished task; may be {@code null}
+     * @return future completed once every asset is cached, or exceptionally
+     *         with the first loader failure after all tasks have finished
+     */
+    public CompletableFuture<Void> load(List<Task<?>> tasks, ProgressListener listener) {
+        int total = tasks.size();
+        AtomicInteger done = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[total];
+
+        for (int i = 0; i < total; i++) {
+            Task<?> task = tasks.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    preload(task);
+                } finally {
+                    int n = done.incrementAndGet();
+                    if (listener != null) listener.onProgress(n, total, task.key());
+                }
+            }, pool);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Caches one task's asset on the calling thread.
+     *
+     * @param task asset to load
+     * @param <T> asset type
+     */
+    private <T> void preload(Task<T> task) {
+        registry.preload(task.key(), task.type(), task.loader());
+    }
+
+    /**
+     * Stops the workers once queued tasks have finished.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide cache of loaded assets with reference counting.
+ * <p>
+ * Assets are keyed by a string, normally their resource path. The first
+ * {@link #acquire} of a key runs its loader; later ones return the same
+ * object and only bump the reference count. {@link #release(String)} drops a
+ * reference but keeps the asset cached, so a scene that is torn down and
+ * rebuilt (for example going back to the menu and starting a new game) gets
+ * its images and font again without any I/O or decoding.
+ * <p>
+ * Unreferenced assets stay in memory until they are evicted explicitly with
+ * {@link #evict(String)} or {@link #evictUnused()}. Assets still in use are
+ * never evicted.
+ * <p>
+ * Loaders run outside the registry's lock, so different assets can be loaded
+ * on several threads at once (see {@link AssetLoader}). Threads asking for an
+ * asset that is already being loaded wait for that load instead of starting
+ * another one.
+ *
+ * @author psyjr14
+ */
+public class AssetRegistry {
+
+    /** Registry shared by the whole process. */
+    private static final AssetRegistry SHARED = new AssetRegistry();
+
+    /**
+     * A cached asset and the number of holders borrowing it.
+     */
+    private static final class Entry {
+        /** The asset, completed by the thread that loads it. */
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        /** Outstanding {@link #acquire} calls not yet released, including ones still waiting for the load. */
+        int refs;
+    }
+
+    /** Cached assets by key. */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /** Number of times a loader has been run. */
+    private int loads;
+
+    /**
+     * @return the registry shared by the whole process
+     */
+    public static AssetRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Borrows an asset, loading it first if it is not cached.
+     *
+     * @param key cache key, normally the resource path
+     * @param type expected type of the asset
+     * @param loader loads the asset on a cache miss; must not return {@code null}
+     * @param <T> asset type
+     * @return the cached asset
+     * @throws IllegalArgumentException if the key is cached with a different type
+     * @throws RuntimeException whatever the loader threw; nothing is cached in that case
+     */
+    public <T> T acquire(String key, Class<T> type, Supplier<? extends T> loader) {
+        Entry e;
+        boolean load = false;
+        synchronized (this) {
+            e = entries.get(key);
+            if (e == null) {
+                e = new Entry();
+                entries.put(key, e);
+                load = true;
+            }
+            e.refs++;
+        }
+
+        if (load) {
+            try {
+                T value = loader.get();
+                if (value == null) throw new IllegalArgumentException("Loader returned null for " + key);
+                synchronized (this) {
+                    loads++;
+                }
+                e.value.complete(value);
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    entries.remove(key, e);
+                }
+                e.value.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        Object value;
+        try {
+            value = e.value.join();
+        } catch (CompletionException ex) {
+            // Another thread's load failed; its entry is already gone
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+        if (!type.isInstance(value)) {
+            synchronized (this) {
+                e.refs--;
+            }
+            throw new IllegalArgumentException("Asset " + key + " is a " + value.getClass().getSimpleName()
+                    + ", not a " + type.getSimpleName());
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Makes sure an asset is cached without keeping a reference to it.
+     *
+     * @param key cache key, normally the resource path
+     * @param type expected type of the asset
+     * @param loader loads the asset on a cache miss
+     * @param <T> asset type
+     * @throws IllegalArgumentException if the key is cached with a different type
+     */
+    public <T> void preload(String key, Class<T> type, Supplier<? extends T> loader) {
+        acquire(key, type, loader);
+        release(key);
+    }
+
+    /**
+     * Returns a borrowed asset. It stays cached until evicted.
+     *
+     * @param key key passed to {@link #acquire}
+     * @throws IllegalStateException if the key is not currently borrowed
+     */
+    public synchronized void release(String key) {
+        Entry e = entries.get(key);
+        if (e == null || e.refs == 0) throw new IllegalStateException("Asset not borrowed: " + key);
+        e.refs--;
+    }
+
+    /**
+     * Drops an asset from the cache if nobody is borrowing it.
+     *
+     * @param key cache key
+     * @return true if the asset was evicted; false if it is in use or not cached
+     */
+    public synchronized boolean evict(String key) {
+        Entry e = entries.get(key);
+        if (e == null || e.refs > 0) return false;
+        entries.remove(key);
+        return true;
+    }
+
+    /**
+     * Drops every asset nobody is borrowing.
+     *
+     * @return number of assets evicted
+     */
+    public synchronized int evictUnused() {
+        int before = entries.size();
+        entries.values().removeIf(e -> e.refs == 0);
+        return before - entries.size();
+    }
+
+    /**
+     * @param key cache key
+     * @return true if the asset is loaded and cached, whether or not it is borrowed
+     */
+    public synchronized boolean isCached(String key) {
+        Entry e = entries.get(key);
+        return e != null && e.value.isDone();
+    }
+
+    /**
+     * @param key cache key
+     * @return number of outstanding borrows of the asset, or 0 if it is not cached
+     */
+    public synchronized int getRefCount(String key) {
+        Entry e = entries.get(key);
+        return e == null ? 0 : e.refs;
+    }
+
+    /**
+     * @return number of assets cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of cache misses that ran a loader since the registry was created
+     */
+    public synchronized int getLoadCount() {
+        return loads;
+    }
+}
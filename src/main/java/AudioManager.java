@@ -5,11 +5,24 @@ import javafx.scene.media.MediaPlayer;
  * Simple wrapper for JavaFX audio playback.
  *
  * <p>Handles looping background audio and basic playback controls.</p>
+ *
+ * <p>The media is not opened until the first {@link #play()}, so creating an
+ * audio manager during startup costs nothing. Volume and mute settings made
+ * before then are applied when the player is created.</p>
  */
 public class AudioManager {
 
-    /** Media player used for audio playback. */
-    private final MediaPlayer player;
+    /** Classpath path to the audio file. */
+    private final String resourcePath;
+
+    /** Media player used for audio playback; null until first played. */
+    private MediaPlayer player;
+
+    /** Playback volume in range {@code 0.0–1.0}. */
+    private double volume = 1.0;
+
+    /** True if audio is muted. */
+    private boolean muted;
 
     /**
      * Creates a new audio manager for the given resource.
@@ -17,25 +30,41 @@ public class AudioManager {
      * @param resourcePath classpath path to the audio file
      */
     public AudioManager(String resourcePath) {
-        Media media = new Media(
-                getClass().getResource(resourcePath).toExternalForm()
-        );
-        player = new MediaPlayer(media);
-        player.setCycleCount(MediaPlayer.INDEFINITE);
+        this.resourcePath = resourcePath;
     }
 
-    /** Starts or resumes playback. */
+    /** Starts or resumes playback, opening the media the first time. */
     public void play() {
+        if (player == null) {
+            Media media = new Media(
+                    getClass().getResource(resourcePath).toExternalForm()
+            );
+            player = new MediaPlayer(media);
+            player.setCycleCount(MediaPlayer.INDEFINITE);
+            player.setVolume(volume);
+            player.setMute(muted);
+        }
         if (player.getStatus() != MediaPlayer.Status.PLAYING) {
             player.play();
         }
     }
 
     /** Pauses playback. */
-    public void pause() { player.pause(); }
+    public void pause() {
+        if (player != null) player.pause();
+    }
 
     /** Stops playback and resets position. */
-    public void stop() { player.stop(); }
+    public void stop() {
+        if (player != null) player.stop();
+    }
+
+    /**
+     * @return true once the media has been opened by {@link #play()}
+     */
+    public boolean isLoaded() {
+        return player != null;
+    }
 
     /**
      * Sets playback volume.
@@ -43,7 +72,8 @@ public class AudioManager {
      * @param v01 volume in range {@code 0.0–1.0}
      */
     public void setVolume(double v01) {
-        player.setVolume(clamp01(v01));
+        volume = clamp01(v01);
+        if (player != null) player.setVolume(volume);
     }
 
     /**
@@ -52,7 +82,8 @@ public class AudioManager {
      * @param muted {@code true} to mute audio
      */
     public void setMuted(boolean muted) {
-        player.setMute(muted);
+        this.muted = muted;
+        if (player != null) player.setMute(muted);
     }
 
     /**
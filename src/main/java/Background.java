@@ -5,12 +5,20 @@ import javafx.scene.image.Image;
  * Handles rendering of parallax background layers.
  * <p>
  * Each layer scrolls at a different speed based on the camera offset
- * to create a depth effect.
+ * to create a depth effect. Layers repeat every {@link #TILE_WIDTH} pixels
+ * across the map, but only the copies that overlap the viewport are drawn,
+ * so the cost per frame is constant regardless of level width.
  *
  * @author psyjr14
  */
 public class Background {
 
+    /** Horizontal distance between repeated copies of a layer. */
+    private static final int TILE_WIDTH = 1280;
+
+    /** Camera divisor for each scrolling layer (index 1..3); layer 0 is static. */
+    private static final double[] PARALLAX = { 0, 2.0, 4.0, 16.0 };
+
     /** Array of background layer images. */
     private final Image[] background;
 
@@ -31,11 +39,58 @@ public class Background {
      * @param mapWidth total width of the map in pixels
      */
     public void draw(GraphicsContext gc, int cameraOffset, int mapWidth) {
-        for (int mapX = 0; mapX < mapWidth; mapX += 1280) {
-            gc.drawImage(background[0], mapX, 0);
-            gc.drawImage(background[1], mapX - cameraOffset / 2.0, 0);
-            gc.drawImage(background[2], mapX - cameraOffset / 4.0, 0);
-            gc.drawImage(background[3], mapX - cameraOffset / 16.0, 0);
+        draw(gc, cameraOffset, mapWidth, gc.getCanvas().getWidth());
+    }
+
+    /**
+     * Draws the background layers using parallax scrolling, culled to the viewport.
+     * <p>
+     * Layer 0 does not scroll, so it is drawn once at the origin. Every other
+     * layer is drawn only for the repeats visible at its own parallax offset.
+     *
+     * @param gc graphics context used for rendering
+     * @param cameraOffset current camera X offset
+     * @param mapWidth total width of the map in pixels
+     * @param viewWidth width of the visible viewport in pixels
+     */
+    public void draw(GraphicsContext gc, int cameraOffset, int mapWidth, double viewWidth) {
+        gc.drawImage(background[0], 0, 0);
+
+        for (int layer = 1; layer < background.length; layer++) {
+            double offset = cameraOffset / PARALLAX[layer];
+            int first = firstVisibleTile(offset);
+            int last = lastVisibleTile(offset, viewWidth, mapWidth);
+
+            for (int i = first; i <= last; i++) {
+                gc.drawImage(background[layer], i * TILE_WIDTH - offset, 0);
+            }
         }
     }
+
+    /**
+     * Returns the index of the first layer repeat overlapping the viewport.
+     *
+     * @param offset layer scroll offset in pixels
+     * @return first visible repeat index
+     */
+    static int firstVisibleTile(double offset) {
+        return Math.max(0, (int) Math.floor(offset / TILE_WIDTH));
+    }
+
+    /**
+     * Returns the index of the last layer repeat overlapping the viewport.
+     * <p>
+     * Repeats only exist where their left edge lies inside the map, matching
+     * the original full-map loop.
+     *
+     * @param offset layer scroll offset in pixels
+     * @param viewWidth width of the visible viewport in pixels
+     * @param mapWidth total width of the map in pixels
+     * @return last visible repeat index (less than the first if none are visible)
+     */
+    static int lastVisibleTile(double offset, double viewWidth, int mapWidth) {
+        int lastOnScreen = (int) Math.ceil((offset + viewWidth) / TILE_WIDTH) - 1;
+        int lastInMap = (mapWidth - 1) / TILE_WIDTH;
+        return Math.min(lastOnScreen, lastInMap);
+    }
 }
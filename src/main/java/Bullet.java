@@ -1,6 +1,8 @@
 import javafx.geometry.Point2D;
-import javafx.scene.image.Image;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -16,19 +18,16 @@ public class Bullet extends Entity {
     /** World position where the bullet was created, used to compute travel distance. */
     public Point2D startPoint;
 
-    /** Cached bullet sprite used when creating predictive copies. */
-    private final Image bulletImage;
 
     /**
      * Constructs a new bullet at the given position.
      *
      * @param x initial x-position in pixels
      * @param y initial y-position in pixels
-     * @param bulletImage sprite used to render the bullet
+     * @param sprite sprite used to render the bullet
      */
-    public Bullet(int x, int y, Image bulletImage) {
-        super(bulletImage, x, y, 1, 0, (int) bulletImage.getWidth());
-        this.bulletImage = bulletImage;
+    public Bullet(int x, int y, Sprite sprite) {
+        super(sprite, x, y, 1, 0, sprite.width());
     }
 
     /**
@@ -40,13 +39,16 @@ public class Bullet extends Entity {
      *
      * @param enemies list of enemies to test collision against
      * @param blocks list of map blocks used for collision detection
+     * @param dt step length in seconds
      * @return true if the bullet should be removed; false if it remains active
      */
-    public boolean update(List<Enemy> enemies, List<MapBlock> blocks) {
-        Bullet bulletCopy = copy(x + speed, y);
+    public boolean update(List<Enemy> enemies, List<MapBlock> blocks, double dt) {
+        double k = dt / BASE_DT;
+        double dx = speed * k;
+        Bullet bulletCopy = copy(x + pixelsX(dx), y);
 
         if (!bulletCopy.intersect(blocks) && !bulletCopy.collidesEnemy(enemies)) {
-            x += speed;
+            moveX(dx, k);
             return travelledDistance() >= 600;
         }
         return true;
@@ -60,10 +62,9 @@ public class Bullet extends Entity {
      * @return a new {@link Bullet} instance representing the predicted position
      */
     public Bullet copy(int newX, int newY) {
-        Bullet copy = new Bullet(newX, newY, bulletImage);
+        Bullet copy = new Bullet(newX, newY, sprite);
         copy.speed = 0;
         copy.velocity = 0;
-        copy.image = image;
         copy.state = state;
         return copy;
     }
@@ -89,10 +90,10 @@ public class Bullet extends Entity {
         boolean isInside = false;
 
         for (Enemy e : enemies) {
-            double x2 = x + image.getWidth();
-            double y2 = y + image.getHeight();
-            double eX2 = e.x + e.image.getWidth();
-            double eY2 = e.y + e.image.getHeight();
+            int x2 = x + getWidth();
+            int y2 = y + getHeight();
+            int eX2 = e.x + e.getWidth();
+            int eY2 = e.y + e.getHeight();
 
             boolean widthIsPositive = Math.min(x2, eX2) > Math.max(x, e.x);
             boolean heightIsPositive = Math.min(y2, eY2) > Math.max(y, e.y);
@@ -105,4 +106,30 @@ public class Bullet extends Entity {
 
         return isInside;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also writes the start point used for the range limit.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeBoolean(startPoint != null);
+        if (startPoint != null) {
+            out.writeDouble(startPoint.getX());
+            out.writeDouble(startPoint.getY());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also restores the start point used for the range limit.
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        startPoint = in.readBoolean() ? new Point2D(in.readDouble(), in.readDouble()) : null;
+    }
 }
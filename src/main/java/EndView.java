@@ -1,8 +1,11 @@
+import javafx.application.Platform;
 import javafx.scene.layout.*;
 import javafx.scene.control.*;
 import javafx.geometry.Pos;
 import javafx.scene.text.Font;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * View displayed when the game ends.
  *
@@ -15,6 +18,9 @@ public class EndView extends StackPane {
     private final Label scoreLabel = new Label("Score: 0");
     private final TextField nameField = new TextField();
     private final Label statusLabel = new Label("");
+    private final Label placementLabel = new Label("");
+    //bumped on every status change so a late result cannot overwrite a newer status
+    private long statusVersion;
 
     private final Button saveBtn = new Button("Save score");
 
@@ -46,6 +52,9 @@ public class EndView extends StackPane {
         statusLabel.setFont(Font.font(font.getFamily(), font.getSize() * 0.65));
         statusLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: white;");
 
+        placementLabel.setFont(Font.font(font.getFamily(), font.getSize() * 0.4));
+        placementLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: gold;");
+
         Label namePrompt = new Label("Name:");
         namePrompt.setStyle("-fx-font-weight: bold; -fx-text-fill: white;");
         namePrompt.setFont(Font.font(font.getFamily(), font.getSize() * 0.5));
@@ -86,7 +95,7 @@ public class EndView extends StackPane {
         restartBtn.setFont(Font.font(font.getFamily(), 18 * scale));
         menuBtn.setFont(Font.font(font.getFamily(), 18 * scale));
 
-        VBox box = new VBox(12, resultTitle, scoreLabel, statsBox, statusLabel, namePrompt, nameField, lbScroll, buttonBar);
+        VBox box = new VBox(12, resultTitle, scoreLabel, statsBox, statusLabel, placementLabel, namePrompt, nameField, lbScroll, buttonBar);
         box.setAlignment(Pos.CENTER);
         box.setMaxWidth(600);
 
@@ -102,7 +111,40 @@ public class EndView extends StackPane {
 
     public void setScore(int score) { scoreLabel.setText("Score: " + score); }
 
-    public void setStatus(String text) { statusLabel.setText(text == null ? "" : text); }
+    public void setStatus(String text) {
+        statusVersion++;
+        statusLabel.setText(text == null ? "" : text);
+    }
+
+    /**
+     * Shows {@code pending} now and the result's text once it is ready,
+     * without blocking. The result may complete on any thread; it is ignored
+     * if another status has been set in the meantime.
+     *
+     * @param pending status to show while waiting, e.g. "Saving..."
+     * @param result completes with the status to show next
+     */
+    public void setStatus(String pending, CompletableFuture<String> result) {
+        setStatus(pending);
+        long expected = statusVersion;
+        result.whenComplete((text, error) -> Platform.runLater(() -> {
+            if (statusVersion == expected) setStatus(error == null ? text : "Failed");
+        }));
+    }
+
+    /**
+     * Shows where a saved score placed, e.g. "You placed #4,312 of 250,000 (top 2%)".
+     *
+     * @param rank 1-based rank of the score
+     * @param total number of entries on the board
+     * @param topPercent share of the board ranked at or above the score; rounded up for display
+     */
+    public void setPlacement(int rank, int total, double topPercent) {
+        placementLabel.setText(String.format("You placed #%,d of %,d (top %d%%)",
+                rank, total, (int) Math.ceil(topPercent)));
+    }
+
+    public void clearPlacement() { placementLabel.setText(""); }
 
     public String getEnteredName() {
         String n = nameField.getText();
@@ -131,6 +173,7 @@ public class EndView extends StackPane {
     public void resetUi() {
         nameField.clear();
         setStatus("");
+        clearPlacement();
         saveBtn.setDisable(false);
     }
 
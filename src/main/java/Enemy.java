@@ -1,5 +1,6 @@
-import javafx.scene.image.Image;
-
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -20,10 +21,10 @@ public class Enemy extends Entity {
     /** Current facing direction used for rendering/animation. */
     public boolean isFacingForwards;
 
-    private final Image[] idleSprites;
-    private final Image[] walkingSprites;
-    private final Image[] runningSprites;
-    private final Image hurtSprite;
+    private final Sprite[] idleSprites;
+    private final Sprite[] walkingSprites;
+    private final Sprite[] runningSprites;
+    private final Sprite hurtSprite;
 
     /**
      * Constructs a new enemy at the given position.
@@ -43,10 +44,10 @@ public class Enemy extends Entity {
             int x,
             int y,
             int health,
-            Image[] idleSprites,
-            Image[] walkingSprites,
-            Image[] runningSprites,
-            Image hurtSprite
+            Sprite[] idleSprites,
+            Sprite[] walkingSprites,
+            Sprite[] runningSprites,
+            Sprite hurtSprite
     ) {
         super(idleSprites[0], x, y, 2, 0, 30);
         this.idleSprites = idleSprites;
@@ -65,19 +66,22 @@ public class Enemy extends Entity {
      * @param p player to chase and collide with
      * @param enemies list of enemies (available for group behaviour if needed)
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    public void update(Player p, List<Enemy> enemies, List<MapBlock> blocks) {
+    public void update(Player p, List<Enemy> enemies, List<MapBlock> blocks, double dt) {
+        double k = dt / BASE_DT;
         double dist = distanceFromPlayer(p);
 
-        applyGravity(blocks);
+        advanceClock(dt);
+        applyGravity(blocks, dt);
         if (shouldChasePlayer(p, dist)) {
-            updateChaseMovement(p, dist, blocks);
+            updateChaseMovement(p, dist, blocks, k);
             handleJump(p, dist);
             handlePlayerCollision(p);
         } else {
             stopChasing();
         }
-        applyDamageSlowdown();
+        applyDamageSlowdown(k);
         updateDamageTimers();
         updateState();
         animate();
@@ -87,9 +91,10 @@ public class Enemy extends Entity {
      * Applies gravity to the enemy and resets jump tracking when grounded.
      *
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    private void applyGravity(List<MapBlock> blocks) {
-        gravity(blocks);
+    private void applyGravity(List<MapBlock> blocks, double dt) {
+        gravity(blocks, dt);
         if (isGrounded) {
             jumpCounter = 0;
         }
@@ -118,8 +123,9 @@ public class Enemy extends Entity {
      * @param p player instance to chase
      * @param distanceFromPlayer precomputed distance to the player
      * @param blocks map blocks used for collision detection
+     * @param k step length in 60Hz ticks
      */
-    private void updateChaseMovement(Player p, double distanceFromPlayer, List<MapBlock> blocks) {
+    private void updateChaseMovement(Player p, double distanceFromPlayer, List<MapBlock> blocks, double k) {
         double maxSpeed = 1;
         isRunning = false;
 
@@ -128,20 +134,22 @@ public class Enemy extends Entity {
             isRunning = true;
         }
 
-        Entity entityCopy = copy(x + speed, y);
+        double dx = speed * k;
+        Entity entityCopy = copy(x + pixelsX(dx), y);
         if (entityCopy.intersect(blocks)) {
+            subX = 0;
             return;
         }
 
-        x += speed;
+        moveX(dx, k);
 
         if (p.x < x) {
-            if (speed > -maxSpeed) speed -= 1;
+            if (speed > -maxSpeed) speed = Math.max(-maxSpeed, speed - k);
             isFacingForwards = false;
         }
 
         if (p.x > x) {
-            if (speed < maxSpeed) speed += 1;
+            if (speed < maxSpeed) speed = Math.min(maxSpeed, speed + k);
             isFacingForwards = true;
         } else if (Math.abs(x - p.x) < 20) {
             speed = 0;
@@ -187,10 +195,12 @@ public class Enemy extends Entity {
 
     /**
      * Applies a movement slowdown while the enemy is in the damaged state.
+     *
+     * @param k step length in 60Hz ticks
      */
-    private void applyDamageSlowdown() {
+    private void applyDamageSlowdown(double k) {
         if (isDamaged) {
-            speed /= 2;
+            halveSpeed(k);
         }
     }
 
@@ -199,7 +209,7 @@ public class Enemy extends Entity {
      * invincibility/hurt window has expired.
      */
     private void updateDamageTimers() {
-        if ((System.currentTimeMillis() - damagedTime) > 300 && isDamaged) {
+        if ((clock - damagedTime) > 300 && isDamaged) {
             isDamaged = false;
         }
     }
@@ -223,11 +233,11 @@ public class Enemy extends Entity {
      * @return true if the enemy intersects the player
      */
     public boolean collidesPlayer(Player p) {
-        double x2 = x + image.getWidth();
-        double y2 = y + image.getHeight();
+        int x2 = x + getWidth();
+        int y2 = y + getHeight();
 
-        double playerX2 = p.x + p.image.getWidth();
-        double playerY2 = p.y + p.image.getHeight();
+        int playerX2 = p.x + p.getWidth();
+        int playerY2 = p.y + p.getHeight();
 
         boolean widthIsPositive = Math.min(x2, playerX2) > Math.max(x, p.x);
         boolean heightIsPositive = Math.min(y2, playerY2) > Math.max(y, p.y);
@@ -267,32 +277,32 @@ public class Enemy extends Entity {
         switch (state.getState()) {
             case "idle" -> {
                 if (lastAnimation >= idleSprites.length) lastAnimation = 0;
-                if ((System.currentTimeMillis() - lastTime) > 250) {
-                    image = idleSprites[lastAnimation];
+                if ((clock - lastTime) > 250) {
+                    sprite = idleSprites[lastAnimation];
                     lastAnimation++;
-                    lastTime = System.currentTimeMillis();
+                    lastTime = clock;
                 }
             }
             case "walking" -> {
                 if (lastAnimation >= walkingSprites.length) lastAnimation = 0;
-                if ((System.currentTimeMillis() - lastTime) > 180) {
-                    image = walkingSprites[lastAnimation];
+                if ((clock - lastTime) > 180) {
+                    sprite = walkingSprites[lastAnimation];
                     lastAnimation++;
-                    lastTime = System.currentTimeMillis();
+                    lastTime = clock;
                 }
             }
             case "running" -> {
                 if (lastAnimation >= runningSprites.length) lastAnimation = 0;
-                if ((System.currentTimeMillis() - lastTime) > 180) {
-                    image = runningSprites[lastAnimation];
+                if ((clock - lastTime) > 180) {
+                    sprite = runningSprites[lastAnimation];
                     lastAnimation++;
-                    lastTime = System.currentTimeMillis();
+                    lastTime = clock;
                 }
             }
             case "aerial" -> {
-                if (velocity < 0) image = runningSprites[4];
+                if (velocity < 0) sprite = runningSprites[4];
             }
-            case "hurt" -> image = hurtSprite;
+            case "hurt" -> sprite = hurtSprite;
         }
     }
 
@@ -304,7 +314,7 @@ public class Enemy extends Entity {
     public void damage() {
         if (!isDamaged) {
             health--;
-            damagedTime = System.currentTimeMillis();
+            damagedTime = clock;
             isDamaged = true;
             velocity = -6;
         }
@@ -318,4 +328,28 @@ public class Enemy extends Entity {
     public boolean isDead() {
         return health <= 0 || y > 900;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also writes the chase and facing flags.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeBoolean(isRunning);
+        out.writeBoolean(isFacingForwards);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also restores the chase and facing flags.
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        isRunning = in.readBoolean();
+        isFacingForwards = in.readBoolean();
+    }
 }
@@ -1,23 +1,53 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
-import javafx.scene.image.Image;
 
 /**
  * Base class for all in-game entities such as Player, Enemy, and Bullet.
  * <p>
  * Stores shared attributes including position, velocity, health, and
  * physics behaviour such as jumping, gravity, and collision detection.
+ * <p>
+ * Speeds, velocities and accelerations are expressed per {@link #BASE_DT}
+ * (one 60Hz tick), which is what the constants were tuned for. Updates take
+ * the actual step {@code dt} and scale by {@code dt / BASE_DT}, so trajectories
+ * stay within a few pixels of each other at any tick rate. Positions stay whole
+ * pixels; at other rates the fractional part of each move is carried in a
+ * sub-pixel remainder so slow moves are not truncated away, while a 60Hz tick
+ * truncates exactly as the original per-frame update did.
+ * <p>
+ * Entities never hold JavaFX images. The current {@link Sprite} gives the
+ * entity its size for collision checks and tells the renderer what to draw.
+ * <p>
+ * Timers (damage, cooldowns, animation) read the entity's own simulated
+ * {@link #clock} rather than the wall clock, so a world can be stepped faster
+ * than real time and several worlds can run side by side.
  *
  * @author psyjr14
  */
 public class Entity {
 
+    /** Simulation step the physics constants were tuned for, in seconds. */
+    public static final double BASE_DT = 1.0 / 60;
+
+    /** Simulated time this entity has existed for, in milliseconds. */
+    protected double clock;
     protected boolean isDamaged;
     protected double damagedTime;
     protected boolean isGrounded = false;
-    protected int speed = 0;
-    protected Image image;
+    protected double speed = 0;
+    protected Sprite sprite;
     protected int x;
     protected int y;
+    /** X-position at the start of the current tick, used for render interpolation. */
+    protected int prevX;
+    /** Y-position at the start of the current tick, used for render interpolation. */
+    protected int prevY;
+    /** Horizontal movement not yet applied to {@link #x}, always within (-1, 1). */
+    protected double subX;
+    /** Vertical movement not yet applied to {@link #y}, always within (-1, 1). */
+    protected double subY;
     protected double velocity;
     protected double acceleration = 0.5;
     protected int health;
@@ -26,24 +56,26 @@ public class Entity {
     public int jumpCounter = 0;
     protected int jumpX;
     protected int jumpY;
-    protected double lastTime = System.currentTimeMillis();
+    protected double lastTime;
     public int lastAnimation = 0;
     public int hitBox;
 
     /**
      * Constructs a new entity with the given attributes.
      *
-     * @param image entity sprite
+     * @param sprite entity sprite
      * @param x initial x-position
      * @param y initial y-position
      * @param health starting health value
      * @param ammo starting ammo count
      * @param hitBox hitbox width in pixels
      */
-    public Entity(Image image, int x, int y, int health, int ammo, int hitBox) {
-        this.image = image;
+    public Entity(Sprite sprite, int x, int y, int health, int ammo, int hitBox) {
+        this.sprite = sprite;
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.health = health;
         this.ammo = ammo;
         this.hitBox = hitBox;
@@ -57,18 +89,18 @@ public class Entity {
      * @return true if this entity intersects a block
      */
     public boolean intersect(List<MapBlock> blocks) {
-        if (blocks == null || image == null) {
+        if (blocks == null || sprite == null) {
             return false;
         }
 
         int x2 = x + hitBox;
-        double y2 = y + image.getHeight();
+        int y2 = y + sprite.height();
 
         for (MapBlock block : blocks) {
             int blockX = block.x;
             int blockY = block.y;
-            double blockX2 = block.x + block.image.getWidth();
-            double blockY2 = block.y + block.image.getHeight();
+            int blockX2 = block.x + block.sprite.width();
+            int blockY2 = block.y + block.sprite.height();
 
             boolean widthIsPositive = Math.min(x2, blockX2) > Math.max(x, blockX);
             boolean heightIsPositive = Math.min(y2, blockY2) > Math.max(y, blockY);
@@ -80,6 +112,47 @@ public class Entity {
         return false;
     }
 
+    /**
+     * @return current sprite, resolved to an image only by the renderer
+     */
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    /**
+     * @return width of the current sprite in pixels
+     */
+    public int getWidth() {
+        return sprite.width();
+    }
+
+    /**
+     * @return height of the current sprite in pixels
+     */
+    public int getHeight() {
+        return sprite.height();
+    }
+
+    /**
+     * Records the current position as the previous position.
+     * <p>
+     * Called at the start of each tick so the renderer can interpolate
+     * between where the entity was and where it is now.
+     */
+    public void savePosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    /**
+     * Advances this entity's {@link #clock} by one step.
+     *
+     * @param dt step length in seconds
+     */
+    protected void advanceClock(double dt) {
+        clock += dt * 1000;
+    }
+
     /**
      * Applies an upward velocity to simulate jumping.
      * <p>
@@ -104,26 +177,162 @@ public class Entity {
      * @return copied entity
      */
     public Entity copy(int newX, int newY) {
-        Entity copy = new Entity(image, newX, newY, health, ammo, hitBox);
-        copy.image = image;
-        return copy;
+        return new Entity(sprite, newX, newY, health, ammo, hitBox);
+    }
+
+    /**
+     * Writes every field the simulation can change, for a {@link Replay} keyframe.
+     * Subclasses append their own fields after calling this.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(clock);
+        out.writeBoolean(isDamaged);
+        out.writeDouble(damagedTime);
+        out.writeBoolean(isGrounded);
+        out.writeDouble(speed);
+        sprite.writeTo(out);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeInt(prevX);
+        out.writeInt(prevY);
+        out.writeDouble(subX);
+        out.writeDouble(subY);
+        out.writeDouble(velocity);
+        out.writeDouble(acceleration);
+        out.writeInt(health);
+        out.writeInt(ammo);
+        out.writeBoolean(state.isFacingForward());
+        out.writeUTF(state.getState());
+        out.writeInt(jumpCounter);
+        out.writeInt(jumpX);
+        out.writeInt(jumpY);
+        out.writeDouble(lastTime);
+        out.writeInt(lastAnimation);
+        out.writeInt(hitBox);
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        clock = in.readDouble();
+        isDamaged = in.readBoolean();
+        damagedTime = in.readDouble();
+        isGrounded = in.readBoolean();
+        speed = in.readDouble();
+        sprite = Sprite.readFrom(in);
+        x = in.readInt();
+        y = in.readInt();
+        prevX = in.readInt();
+        prevY = in.readInt();
+        subX = in.readDouble();
+        subY = in.readDouble();
+        velocity = in.readDouble();
+        acceleration = in.readDouble();
+        health = in.readInt();
+        ammo = in.readInt();
+        boolean facing = in.readBoolean();
+        state = new EntityState(facing, in.readUTF());
+        jumpCounter = in.readInt();
+        jumpX = in.readInt();
+        jumpY = in.readInt();
+        lastTime = in.readDouble();
+        lastAnimation = in.readInt();
+        hitBox = in.readInt();
+    }
+
+    /**
+     * Returns the number of whole pixels a horizontal move would cover,
+     * including the carried sub-pixel remainder.
+     *
+     * @param dx move in pixels
+     * @return whole-pixel offset that {@link #moveX(double, double)} would apply
+     */
+    protected int pixelsX(double dx) {
+        return (int) (x + subX + dx) - x;
+    }
+
+    /**
+     * Returns the number of whole pixels a vertical move would cover,
+     * including the carried sub-pixel remainder.
+     *
+     * @param dy move in pixels
+     * @return whole-pixel offset that {@link #moveY(double, double)} would apply
+     */
+    protected int pixelsY(double dy) {
+        return (int) (y + subY + dy) - y;
+    }
+
+    /**
+     * Moves horizontally. The fractional part is kept for the next move,
+     * except on a 60Hz tick where it is dropped as it always has been.
+     *
+     * @param dx move in pixels
+     * @param k step length in 60Hz ticks
+     */
+    protected void moveX(double dx, double k) {
+        int px = pixelsX(dx);
+        x += px;
+        subX = k == 1 ? 0 : subX + dx - px;
+    }
+
+    /**
+     * Moves vertically. The fractional part is kept for the next move,
+     * except on a 60Hz tick where it is dropped as it always has been.
+     *
+     * @param dy move in pixels
+     * @param k step length in 60Hz ticks
+     */
+    protected void moveY(double dy, double k) {
+        int py = pixelsY(dy);
+        y += py;
+        subY = k == 1 ? 0 : subY + dy - py;
+    }
+
+    /**
+     * Halves the horizontal speed once per 60Hz tick of the step. A single
+     * 60Hz tick truncates to whole pixels per tick, as it always has.
+     *
+     * @param k step length in 60Hz ticks
+     */
+    protected void halveSpeed(double k) {
+        speed = k == 1 ? (int) (speed / 2) : speed * Math.pow(0.5, k);
     }
 
     /**
      * Applies gravity and resolves vertical collisions with the map.
+     * <p>
+     * The position update integrates constant acceleration exactly over the
+     * step, matching what the same time span of 60Hz ticks would produce.
+     * A downward move too small to cross a pixel is still probed one pixel
+     * ahead, so resting entities stay grounded at high tick rates. A 60Hz
+     * tick moves and probes exactly as the original per-frame update did.
      *
      * @param blocks list of map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    public void gravity(List<MapBlock> blocks) {
-        Entity entityCopy = copy(x, (int) (y + velocity));
+    public void gravity(List<MapBlock> blocks, double dt) {
+        double k = dt / BASE_DT;
+        double dy = k * (velocity + acceleration * (k - 1) / 2);
+
+        int probe = pixelsY(dy);
+        if (probe == 0 && dy > 0 && k != 1) probe = 1;
+        Entity entityCopy = copy(x, y + probe);
 
         if (!entityCopy.intersect(blocks)) {
-            y += velocity;
-            velocity += acceleration;
+            moveY(dy, k);
+            velocity += acceleration * k;
             isGrounded = false;
         } else {
+            subY = 0;
             if (velocity > 1.5) {
-                velocity /= 1.5;
+                velocity /= Math.pow(1.5, k);
             }
             if (velocity < 0) {
                 velocity = -(velocity / 4);
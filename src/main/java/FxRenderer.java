@@ -1,64 +1,90 @@
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import java.time.Duration;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
 
 /**
  * JavaFX renderer for the game.
  *
  * <p>This class is the "View" layer in the MVC refactor. It contains only drawing
- * code and does not modify the game state. Rendering is performed using a
+ * code and does not modify the game state. It reads entity state from a
+ * {@link RenderSnapshot} rather than the live model, because the simulation
+ * runs on its own thread. Rendering is performed using a
  * {@link GraphicsContext} obtained from a JavaFX {@link javafx.scene.canvas.Canvas}.</p>
  *
  * <p>World-space objects (map, player, enemies, bullets) are drawn using the
  * camera offset so that they scroll correctly. Screen-space UI (HUD text/icons)
  * is drawn without camera translation.</p>
  *
+ * <p>The simulation ticks at a fixed rate that is usually lower than the display
+ * refresh rate, so world positions are interpolated between the previous and
+ * current tick using {@code alpha}, the fraction of a tick elapsed since the
+ * snapshot's state. Interpolated positions are rounded to whole pixels.</p>
+ *
  * @author psyjr14
  */
 public class FxRenderer {
 
+    /** Pre-rendered tile chunks, shared across frames. */
+    private static final MapChunkCache mapChunks = new MapChunkCache(720, 8);
+
+    /** Cached HUD layer, redrawn only when its contents change. */
+    private static final HudLayer hud = new HudLayer(1280, 140);
+
     /**
      * Renders one frame of the game.
      *
-     * <p>Clears the canvas and draws either the running-game view (background, map,
-     * HUD, entities) or the end screen if the game has been won.</p>
+     * <p>Clears the canvas and draws the running-game view (background, map,
+     * HUD, entities) from a {@link RenderSnapshot} published by the simulation
+     * thread. Static assets (background, sprites, font) are read from the
+     * {@link Game} they were loaded into.</p>
      *
-     * @param gc   graphics context used for drawing
-     * @param game current game model containing all state to render
-     * @param w    viewport width in pixels
-     * @param h    viewport height in pixels
+     * @param gc    graphics context used for drawing
+     * @param frame snapshot of the state to render
+     * @param game  game providing loaded assets
+     * @param w     viewport width in pixels
+     * @param h     viewport height in pixels
+     * @param alpha interpolation factor between the previous and current tick, in {@code [0, 1]}
      */
-    public static void draw(GraphicsContext gc, Game game, GameSettings settings, int w, int h) {
+    public static void draw(GraphicsContext gc, RenderSnapshot frame, Game game, GameSettings settings, int w, int h, double alpha) {
         double cw = gc.getCanvas().getWidth();
         double ch = gc.getCanvas().getHeight();
         gc.clearRect(0, 0, cw, ch);
-        int camOff = game.getCameraOffset();
-
-        drawBackground(gc, game, camOff);
-        drawMap(gc, game, camOff);
-        drawGUI(gc, game, settings, camOff);
-        drawPlayer(gc, game, camOff);
-        drawEnemies(gc, game, camOff);
-        drawBullets(gc, game, camOff);
+        if (frame.map == null) return;
+        int camOff = lerp(frame.prevCameraOffset, frame.cameraOffset, alpha);
+
+        drawBackground(gc, frame, game, camOff);
+        drawMap(gc, frame, game, camOff);
+        drawGUI(gc, frame, game, settings, camOff);
+        drawPlayer(gc, frame, game, camOff, alpha);
+        drawEnemies(gc, frame, game, camOff, alpha);
+        drawBullets(gc, frame, game, camOff, alpha);
+    }
+
+    /**
+     * Interpolates between two positions and rounds to the nearest pixel.
+     *
+     * @param prev position at the start of the tick
+     * @param cur position at the end of the tick
+     * @param alpha fraction of the tick elapsed
+     * @return interpolated position in whole pixels
+     */
+    static int lerp(int prev, int cur, double alpha) {
+        return (int) Math.round(prev + (cur - prev) * alpha);
     }
 
     /**
      * Draws the tile map.
      *
-     * <p>The map is stored in world coordinates. Each block's x-position is
-     * offset by the camera so it appears to scroll as the player moves.</p>
+     * <p>The map is stored in world coordinates. Tiles are baked into
+     * {@link MapChunkCache} chunk images the first time they are needed, so this
+     * only blits the few chunks that overlap the viewport, offset by the camera.</p>
      *
      * @param gc graphics context used for drawing
-     * @param game game model providing access to the map
+     * @param frame snapshot providing the map
+     * @param game game providing the atlas tile images are resolved from
      * @param x camera offset in pixels
      */
-    public static void drawMap(GraphicsContext gc, Game game, int x) {
-        MapBlocks map = game.getMap();
-        for (MapBlock b : map.getBlocks()){
-            gc.drawImage(b.image, b.x - x, b.y);
-        }
+    public static void drawMap(GraphicsContext gc, RenderSnapshot frame, Game game, int x) {
+        mapChunks.draw(gc, frame.map, game.getAtlas(), x, (int) gc.getCanvas().getWidth());
     }
 
     /**
@@ -68,118 +94,77 @@ public class FxRenderer {
      * to render each background layer using the camera offset for parallax.</p>
      *
      * @param gc graphics context used for drawing
-     * @param game game model providing background and map width
+     * @param frame snapshot providing the map width
+     * @param game game providing the background images
      * @param x camera offset in pixels
      */
-    public static void drawBackground(GraphicsContext gc, Game game, int x){
-        game.getBackground().draw(gc, x, game.getMap().getMapWidth());
+    public static void drawBackground(GraphicsContext gc, RenderSnapshot frame, Game game, int x){
+        game.getBackground().draw(gc, x, frame.map.getMapWidth());
     }
 
     /**
      * Draws the heads-up display (HUD).
      *
-     * <p>Renders health, ammo, timer, control hints, and attempt count. HUD elements
-     * should typically be drawn in screen coordinates (not affected by camera
-     * scrolling). This method uses a transform reset while drawing the control
-     * hints to avoid inheriting any previous transforms.</p>
+     * <p>Renders health, ammo, timer, control hints, and attempt count. The HUD
+     * is cached by {@link HudLayer} and only redrawn when one of those values
+     * (or the text scale) changes; control hints are pre-rendered and placed
+     * relative to the camera so they scroll with the level.</p>
      *
      * @param gc graphics context used for drawing
-     * @param game game model providing player stats and HUD images
+     * @param frame snapshot providing player stats
+     * @param game game providing HUD images and font
      * @param x camera offset in pixels (used where world-aligned text is desired)
      */
-    public static void drawGUI(GraphicsContext gc, Game game, GameSettings settings, int x) {
-        Player p = game.getPlayer();
-        int health = p.health;
-        int ammo = p.ammo;
-        int deathCounter = game.getDeathCounter();
-        double s = settings.getTextScale();
-
-        Image heart = game.getHeart();
-        Image ammoBox = game.getAmmoBox();
-
-        gc.setFill(Color.BLACK);
-        gc.setFont(Font.font(game.getFont().getFamily(), 60 * s));
-
-        if (health > 0) gc.drawImage(heart, 20, 20);
-        if (health > 1) gc.drawImage(heart, 89, 20);
-        if (health > 2) gc.drawImage(heart, 158, 20);
-
-        gc.drawImage(ammoBox, 1040, 20);
-        gc.fillText(String.valueOf(ammo), 1130, 68);
-
-        long gameTimer = (long) (System.currentTimeMillis() - Game.startTime);
-        Duration duration = Duration.ofMillis(gameTimer);
-        long minutes = duration.toMinutes();
-        duration = duration.minusMinutes(minutes);
-        long seconds = duration.getSeconds();
-        String timer = String.format("%02d:%02d", minutes, seconds);
-        gc.fillText(timer, 510, 68);
-
-        gc.setFont(Font.font(game.getFont().getFamily(),20 * s));
-        String[] controls = {
-                "Use WASD to Move",
-                "You can Double Jump",
-                "Use SPACE to Shoot",
-                "Press ESCAPE to Pause"
-        };
-        int y = 250;
-        gc.save();
-        gc.setTransform(1,0,0,1,0,0);
-        for (String c : controls) {
-            gc.fillText(c, 470 - x, y);
-            y += 30;
-        }
-        gc.restore();
-
-        gc.fillText("This is The Winner Tunnel", 6800 - x, 310);
-        gc.fillText("Just Keep Walking!", 6800 - x, 340);
-        gc.fillText("ATTEMPTS: " + deathCounter, 20, 110);
+    public static void drawGUI(GraphicsContext gc, RenderSnapshot frame, Game game, GameSettings settings, int x) {
+        hud.draw(gc, frame, game, settings, x);
     }
 
     /**
      * Draws the player sprite and jump cloud effect.
      *
      * <p>The player is drawn in world coordinates with the camera offset applied.
-     * If the player is facing left, the sprite is flipped horizontally.</p>
+     * If the player is facing left, the pre-flipped sprite is drawn instead.</p>
      *
      * @param gc graphics context used for drawing
-     * @param game game model providing player state and sprites
+     * @param frame snapshot providing player state
+     * @param game game providing the atlas and cloud sprite
      * @param camX camera offset in pixels
+     * @param alpha interpolation factor between the previous and current tick
      */
-    public static void drawPlayer(GraphicsContext gc, Game game, int camX){
-        Player p = game.getPlayer();
-        boolean facingForwards = p.isFacingForwards(game.getKeysPressed(), game.isLastDirectionForwards());
-
-        double px = p.x - camX;
-        double py = p.y;
+    public static void drawPlayer(GraphicsContext gc, RenderSnapshot frame, Game game, int camX, double alpha){
+        Sprite sprite = frame.playerSprite;
+        double px = lerp(frame.prevPlayerX, frame.playerX, alpha) - camX;
+        double py = lerp(frame.prevPlayerY, frame.playerY, alpha);
 
-        if (facingForwards) gc.drawImage(p.image, px, py);
-        else gc.drawImage(p.image, px + 30, py, -p.image.getWidth(), p.image.getHeight());
+        if (frame.playerFacingForwards) drawSprite(gc, game, sprite, px, py);
+        else drawMirrored(gc, game, sprite, px + 30 - sprite.width(), py);
 
-        if (p.jumpCounter == 2 && p.velocity < 0)
-            gc.drawImage(game.getCloud(), p.jumpX - camX, p.jumpY + 42);
+        if (frame.showCloud)
+            game.getAtlas().draw(gc, Game.CLOUD_PATH, frame.cloudX - camX, frame.cloudY + 42);
     }
 
     /**
      * Draws all enemies currently active in the game.
      *
      * <p>Enemies are drawn in world coordinates with camera offset applied.
-     * If an enemy is facing left, the sprite is flipped horizontally.</p>
+     * If an enemy is facing left, the pre-flipped sprite is drawn instead.</p>
      *
      * @param gc graphics context used for drawing
-     * @param game game model providing enemy list
+     * @param frame snapshot providing enemy positions and sprites
+     * @param game game providing the atlas
      * @param x camera offset in pixels
+     * @param alpha interpolation factor between the previous and current tick
      */
-    public static void drawEnemies(GraphicsContext gc, Game game, int x){
-        for (Enemy e : game.getEnemies()) {
-            Image img = e.image;
-            double ex = e.x - x;
-            double y = e.y;
-
-            if (e.isFacingForwards) {
-                gc.drawImage(img, ex, y);
+    public static void drawEnemies(GraphicsContext gc, RenderSnapshot frame, Game game, int x, double alpha){
+        for (int i = 0; i < frame.enemyCount; i++) {
+            Sprite sprite = frame.enemySprite[i];
+            double ex = lerp(frame.enemyPrevX[i], frame.enemyX[i], alpha) - x;
+            double y = lerp(frame.enemyPrevY[i], frame.enemyY[i], alpha);
+
+            if (frame.enemyFacingForwards[i]) {
+                drawSprite(gc, game, sprite, ex, y);
             } else {
-                gc.drawImage(img, ex + 30, y, -img.getWidth(), img.getHeight());
+                drawMirrored(gc, game, sprite, ex + 30 - sprite.width(), y);
             }
         }
     }
@@ -188,26 +173,60 @@ public class FxRenderer {
      * Draws all bullets currently active in the game.
      *
      * <p>Bullets are drawn in world coordinates with camera offset applied.
-     * If a bullet is travelling left, the sprite is flipped horizontally.</p>
+     * If a bullet is travelling left, the pre-flipped sprite is drawn instead.</p>
      *
      * @param gc graphics context used for drawing
-     * @param game game model providing bullet list
+     * @param frame snapshot providing bullet positions and sprites
+     * @param game game providing the atlas
      * @param x camera offset in pixels
+     * @param alpha interpolation factor between the previous and current tick
      */
-    public static void drawBullets(GraphicsContext gc, Game game, int x) {
-        for (Bullet b : game.getActiveBullets()) {
-            Image img = b.image;
-            double ex = b.x - x;
-            double y = b.y;
-
-            if (b.speed > 0) {
-                gc.drawImage(img, ex, y);
+    public static void drawBullets(GraphicsContext gc, RenderSnapshot frame, Game game, int x, double alpha) {
+        for (int i = 0; i < frame.bulletCount; i++) {
+            Sprite sprite = frame.bulletSprite[i];
+            double ex = lerp(frame.bulletPrevX[i], frame.bulletX[i], alpha) - x;
+            double y = lerp(frame.bulletPrevY[i], frame.bulletY[i], alpha);
+
+            if (frame.bulletForwards[i]) {
+                drawSprite(gc, game, sprite, ex, y);
             } else {
-                gc.drawImage(img, ex + img.getWidth(), y, -img.getWidth(), img.getHeight());
+                drawMirrored(gc, game, sprite, ex, y);
             }
         }
     }
 
+    /**
+     * Draws a sprite at its natural size from the game's sprite atlas.
+     *
+     * <p>The sprite handle is resolved to its atlas region by path; entities
+     * themselves never hold images.</p>
+     *
+     * @param gc graphics context used for drawing
+     * @param game game model providing the atlas
+     * @param sprite sprite to draw
+     * @param x destination x in pixels
+     * @param y destination y in pixels
+     */
+    private static void drawSprite(GraphicsContext gc, Game game, Sprite sprite, double x, double y) {
+        game.getAtlas().draw(gc, sprite.path(), x, y);
+    }
+
+    /**
+     * Draws a horizontally mirrored sprite using the atlas' pre-flipped region.
+     *
+     * <p>{@code x} is the left edge of the mirrored sprite, i.e. the same
+     * rectangle an unmirrored draw would cover.</p>
+     *
+     * @param gc graphics context used for drawing
+     * @param game game model providing the atlas
+     * @param sprite sprite to draw
+     * @param x destination x in pixels
+     * @param y destination y in pixels
+     */
+    private static void drawMirrored(GraphicsContext gc, Game game, Sprite sprite, double x, double y) {
+        game.getAtlas().drawMirrored(gc, sprite.path(), x, y);
+    }
+
     /**
      * Draws the end screen shown after the player wins.
      *
@@ -218,8 +237,7 @@ public class FxRenderer {
      */
     public static void drawEnd(GraphicsContext gc, Game game, GameSettings settings) {
         gc.setFill(Color.BLACK);
-        double s = settings.getTextScale();
-        gc.setFont(Font.font(game.getFont().getFamily(), 20 * s));
+        gc.setFont(settings.getScaledFont(game.getFont().getFamily(), 20));
 
         String[] ends = {
                 "You Won!",
@@ -2,7 +2,10 @@ import javafx.scene.image.Image;
 import javafx.scene.text.Font;
 import javafx.geometry.Point2D;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,31 +13,142 @@ import java.util.List;
  * Main game model for the platformer.
  * <p>
  * Responsible for holding game state (player, enemies, bullets, map, camera),
- * loading assets, and advancing the simulation each tick via {@link #update()}.
+ * loading assets, and advancing the simulation each tick via {@link #update(double)}.
  * <p>
  * In the MVC refactor this class represents the "Model": it contains no rendering
  * code and exposes getters for the View/Renderer to display the current state.
+ * <p>
+ * The simulation itself only uses {@link Sprite} handles, so a game set up with
+ * {@link #loadSprites()} instead of {@link #loadImages()} runs without the
+ * JavaFX toolkit (see {@link HeadlessRunner}).
+ * <p>
+ * Images and the font are borrowed from the shared {@link AssetRegistry}, so
+ * every {@link Game} created after the first reuses the decoded assets. Call
+ * {@link #releaseImages()} when the game is discarded.
  *
  * @author psyjr14
  */
 public class Game {
 
+    /** Resource path of the UI font. */
+    public static final String FONT_PATH = "/Font/font.TTF";
+
+    /** Point size the UI font is loaded at. */
+    public static final double FONT_SIZE = 60;
+
+    /** Registry key of the UI font. */
+    private static final String FONT_KEY = FONT_PATH + "@" + FONT_SIZE;
+
+    /** Decoded pixels of the background layers, kept on disk between runs. */
+    private static final PixelCache PIXEL_CACHE = new PixelCache(PixelCache.defaultDirectory());
+
+    /** Resource paths of the parallax background layers, back to front. */
+    private static final List<String> BACKGROUND_PATHS = List.of(
+            "/Background/1_Background.png",
+            "/Background/2_Background.png",
+            "/Background/3_Background.png",
+            "/Background/4_Background.png"
+    );
+
+    /** Longest step integrated in one go, in seconds: one 30Hz tick. */
+    static final double MAX_STEP = 2 * Entity.BASE_DT;
+
+    /** Atlas path of the cloud drawn under a double jump. */
+    static final String CLOUD_PATH = "/Sprites/cloud.png";
+
+    /** Atlas path of the HUD heart icon. */
+    static final String HEART_PATH = "/Sprites/heart.png";
+
+    /** Atlas path of the HUD ammo icon. */
+    static final String AMMO_PATH = "/Sprites/ammo.png";
+
+    /**
+     * Classpath paths of every sprite and tile packed into the {@link SpriteAtlas}.
+     * Backgrounds are full-screen images and are loaded separately.
+     */
+    static final List<String> SPRITE_PATHS = List.of(
+            "/Sprites/cloud.png",
+            "/Sprites/Player/idle/Cyborg_idle_1.png",
+            "/Sprites/Player/idle/Cyborg_idle_2.png",
+            "/Sprites/Player/idle/Cyborg_idle_3.png",
+            "/Sprites/Player/idle/Cyborg_idle_4.png",
+            "/Sprites/Player/run/Cyborg_run_1.png",
+            "/Sprites/Player/run/Cyborg_run_2.png",
+            "/Sprites/Player/run/Cyborg_run_3.png",
+            "/Sprites/Player/run/Cyborg_run_4.png",
+            "/Sprites/Player/run/Cyborg_run_5.png",
+            "/Sprites/Player/run/Cyborg_run_6.png",
+            "/Sprites/Player/hurt/Cyborg_hurt_1.png",
+            "/Sprites/Player/hurt/Cyborg_hurt_2.png",
+            "/Sprites/heart.png",
+            "/Sprites/box.png",
+            "/Sprites/ammo.png",
+            "/Sprites/Player/shoot/shootingSprite.png",
+            "/Sprites/Player/shoot/bullet.png",
+            "/Tiles/1_FrameTopLeftCorner.png",
+            "/Tiles/2_FrameTopRightCorner.png",
+            "/Tiles/3_FrameBottomLeftCorner.png",
+            "/Tiles/4_FrameBottomRightCorner.png",
+            "/Tiles/5_FrameTopMid.png",
+            "/Tiles/6_FrameLeftMid.png",
+            "/Tiles/7_FrameRightMid.png",
+            "/Tiles/8_FrameBottomMod.png",
+            "/Tiles/9_FrameMid.png",
+            "/Tiles/A_Box.png",
+            "/Tiles/B_HalfSlab.png",
+            "/Tiles/C_IndustrialTabLeft.png",
+            "/Tiles/D_IndustrialSlabMid.png",
+            "/Tiles/E_IndustrialSlabRight.png",
+            "/Tiles/F_LightPole.png",
+            "/Tiles/G_LightTop.png",
+            "/Tiles/H_TreadLeft.png",
+            "/Tiles/I_TreadMid.png",
+            "/Tiles/J_TreadRight.png",
+            "/Sprites/Enemy/Idle/Idle_1.png",
+            "/Sprites/Enemy/Idle/Idle_2.png",
+            "/Sprites/Enemy/Idle/Idle_3.png",
+            "/Sprites/Enemy/Idle/Idle_4.png",
+            "/Sprites/Enemy/Idle/Idle_5.png",
+            "/Sprites/Enemy/Idle/Idle_6.png",
+            "/Sprites/Enemy/Idle/Idle_7.png",
+            "/Sprites/Enemy/Idle/Idle_8.png",
+            "/Sprites/Enemy/Walking/Walk_1.png",
+            "/Sprites/Enemy/Walking/Walk_2.png",
+            "/Sprites/Enemy/Walking/Walk_3.png",
+            "/Sprites/Enemy/Walking/Walk_4.png",
+            "/Sprites/Enemy/Walking/Walk_5.png",
+            "/Sprites/Enemy/Walking/Walk_6.png",
+            "/Sprites/Enemy/Walking/Walk_7.png",
+            "/Sprites/Enemy/Walking/Walk_8.png",
+            "/Sprites/Enemy/Running/Run_1.png",
+            "/Sprites/Enemy/Running/Run_2.png",
+            "/Sprites/Enemy/Running/Run_3.png",
+            "/Sprites/Enemy/Running/Run_4.png",
+            "/Sprites/Enemy/Running/Run_5.png",
+            "/Sprites/Enemy/Running/Run_6.png",
+            "/Sprites/Enemy/Running/Run_7.png",
+            "/Sprites/Enemy/Hurt.png"
+    );
+
     //default constructor
     public Game(){}
 
     //map and image assets
     private Font font;
-    private Image cloud;
     private int cameraOffset;
+    private int prevCameraOffset;
     private MapBlocks map;
-    private Image[] mapImages;
+    private Sprite[] mapSprites;
     private Background background;
+    private SpriteAtlas atlas;
+    /** Registry keys borrowed by {@link #loadImages()}, released by {@link #releaseImages()}. */
+    private final List<String> borrowed = new ArrayList<>();
 
     //game status
     /** True when the player reaches the win condition. */
     public boolean isWon = false;
-    /** Timestamp (ms since epoch) of when the current run started. */
-    public static double startTime;
+    /** Simulated time since the current run started, in seconds. */
+    private double elapsedSeconds;
     /** Controls whether the game loop should keep running (legacy field). */
     protected boolean isRunning = true;
 
@@ -42,18 +156,20 @@ public class Game {
     private Player player;
     private int deathCounter = 0;
     private int killCounter = 0;
-    private Image ammoBox, heart, playerShootingSprite, box;
-    private Image[] playerIdleSprites, playerRunningSprites, playerHurtSprites;
+    private Sprite playerShootingSprite;
+    private Sprite[] playerIdleSprites, playerRunningSprites, playerHurtSprites;
 
     //bullet assets
     private ArrayList<Bullet> activeBullets = new ArrayList<>();
-    private Image bulletImage;
+    private Sprite bulletSprite;
 
     //enemy assets
-    private Image[] enemyIdleSprites, enemyWalkingSprites, enemyRunningSprites;
-    private Image enemyHurtSprite;
+    private Sprite[] enemyIdleSprites, enemyWalkingSprites, enemyRunningSprites;
+    private Sprite enemyHurtSprite;
     private ArrayList<Enemy> enemies = new ArrayList<>();
     private final InputHandler inputHandler = new InputHandler();
+    /** Events published while stepping, drained by the owner of this world. */
+    private final GameEventBus events = new GameEventBus(GameEventBus.DEFAULT_CAPACITY);
 
     private GameState gameState =  GameState.RUNNING;
     /**
@@ -77,14 +193,9 @@ public class Game {
     public InputHandler getInputHandler() { return inputHandler; }
 
     /**
-     * @return HUD image used to draw an ammo icon.
+     * @return ring the kills, deaths, win, shots and damage of each tick are published into.
      */
-    public Image getAmmoBox() { return ammoBox; }
-
-    /**
-     * @return HUD image used to draw a heart icon.
-     */
-    public Image getHeart() { return heart; }
+    public GameEventBus getEvents() { return events; }
 
     /**
      * Convenience accessor for movement keys recorded by {@link InputHandler}.
@@ -114,11 +225,6 @@ public class Game {
      */
     public Font getFont() { return font; }
 
-    /**
-     * @return the cloud image used for jump effects.
-     */
-    public Image getCloud() { return cloud; }
-
     /**
      * Camera x-offset (in world pixels) used by the renderer to convert world
      * coordinates into screen coordinates.
@@ -127,6 +233,11 @@ public class Game {
      */
     public int getCameraOffset() { return cameraOffset; }
 
+    /**
+     * @return camera offset at the start of the current tick, used for render interpolation.
+     */
+    public int getPrevCameraOffset() { return prevCameraOffset; }
+
     /**
      * @return the current map model containing tile blocks and map width.
      */
@@ -147,23 +258,31 @@ public class Game {
      */
     public void incrementDeaths() { deathCounter++; }
 
+    /**
+     * @return simulated seconds in the current run; only {@link #update(double)} advances it.
+     */
+    public double getElapsedSeconds() { return elapsedSeconds; }
+
     /**
      * @return background model used for parallax rendering.
      */
     public Background getBackground() { return background; }
 
     /**
-     * Loads an image from a file path as a JavaFX {@link Image}.
-     *
-     * @param resourcePath file path to load (relative to project root in this codebase).
-     * @return loaded JavaFX image instance.
+     * @return sprite atlas the renderer draws sprite regions from, or {@code null}
+     *         if images have not been loaded.
      */
-    private static Image fxImage(String resourcePath) {
-        var url = Game.class.getResource(resourcePath);
-        if (url == null) {
-            throw new IllegalArgumentException("Missing resource: " + resourcePath);
-        }
-        return new Image(url.toExternalForm());
+    public SpriteAtlas getAtlas() { return atlas; }
+
+    /**
+     * @return location of the cached sprite atlas in the user's home directory.
+     */
+    private static File atlasCacheFile() {
+        return new File(System.getProperty("user.home")
+                + File.separator
+                + ".cyborg-platform"
+                + File.separator
+                + "sprites.atlas");
     }
 
     private static Font fxFont(String resourcePath, double size) {
@@ -172,101 +291,219 @@ public class Game {
         return Font.loadFont(stream, size);
     }
 
+    /**
+     * @return the assets the main menu needs before it can be shown: the UI font
+     */
+    public static List<AssetLoader.Task<?>> menuAssets() {
+        return List.of(fontTask());
+    }
+
+    /**
+     * @return the assets only gameplay needs: the sprite atlas and background layers
+     */
+    public static List<AssetLoader.Task<?>> gameAssets() {
+        return gameAssets(PIXEL_CACHE, atlasCacheFile());
+    }
+
+    /**
+     * @param pixelCache cache the background layers are loaded through
+     * @param atlasCacheFile location of the sprite atlas cache
+     * @return the assets only gameplay needs, cached in the given places
+     */
+    static List<AssetLoader.Task<?>> gameAssets(PixelCache pixelCache, File atlasCacheFile) {
+        List<AssetLoader.Task<?>> tasks = new ArrayList<>();
+        tasks.add(atlasTask(atlasCacheFile));
+        for (String path : BACKGROUND_PATHS) tasks.add(imageTask(pixelCache, path));
+        return tasks;
+    }
+
+    /**
+     * @return task loading the UI font
+     */
+    private static AssetLoader.Task<Font> fontTask() {
+        return new AssetLoader.Task<>(FONT_KEY, Font.class, () -> fxFont(FONT_PATH, FONT_SIZE));
+    }
+
+    /**
+     * @param cacheFile location of the sprite atlas cache
+     * @return task loading the sprite atlas from its cache file, or building it
+     */
+    private static AssetLoader.Task<SpriteAtlas> atlasTask(File cacheFile) {
+        return new AssetLoader.Task<>("atlas:" + cacheFile, SpriteAtlas.class,
+                () -> SpriteAtlas.loadOrBuild(SPRITE_PATHS, cacheFile));
+    }
+
+    /**
+     * @param cache cache the image is loaded through
+     * @param path classpath resource path
+     * @return task loading a standalone image through the {@link PixelCache}
+     */
+    private static AssetLoader.Task<Image> imageTask(PixelCache cache, String path) {
+        return new AssetLoader.Task<>(path, Image.class, () -> cache.load(path));
+    }
+
+    /**
+     * Borrows the UI font from the shared {@link AssetRegistry} without
+     * loading anything else. Pair with {@link #releaseFont()}.
+     *
+     * @return the UI font
+     */
+    public static Font acquireFont() {
+        AssetLoader.Task<Font> task = fontTask();
+        return AssetRegistry.shared().acquire(task.key(), task.type(), task.loader());
+    }
+
+    /**
+     * Returns a font borrowed with {@link #acquireFont()}.
+     */
+    public static void releaseFont() {
+        AssetRegistry.shared().release(FONT_KEY);
+    }
+
+    /**
+     * Borrows an asset from the shared registry and remembers the key so
+     * {@link #releaseImages()} can return it.
+     *
+     * @param task asset to borrow, loaded on a cache miss
+     * @param <T> asset type
+     * @return the shared asset
+     */
+    private <T> T borrow(AssetLoader.Task<T> task) {
+        T value = AssetRegistry.shared().acquire(task.key(), task.type(), task.loader());
+        borrowed.add(task.key());
+        return value;
+    }
+
+    /**
+     * Loads the sprite handles used by the simulation.
+     * <p>
+     * Only sprite paths and dimensions are read (see {@link Sprite}), so this
+     * needs neither a display nor the JavaFX toolkit. It is all a headless
+     * {@link Game} needs before {@link #init()}.
+     */
+    public void loadSprites() {
+        playerIdleSprites = Sprite.load(
+                "/Sprites/Player/idle/Cyborg_idle_1.png",
+                "/Sprites/Player/idle/Cyborg_idle_2.png",
+                "/Sprites/Player/idle/Cyborg_idle_3.png",
+                "/Sprites/Player/idle/Cyborg_idle_4.png"
+        );
+
+        playerRunningSprites = Sprite.load(
+                "/Sprites/Player/run/Cyborg_run_1.png",
+                "/Sprites/Player/run/Cyborg_run_2.png",
+                "/Sprites/Player/run/Cyborg_run_3.png",
+                "/Sprites/Player/run/Cyborg_run_4.png",
+                "/Sprites/Player/run/Cyborg_run_5.png",
+                "/Sprites/Player/run/Cyborg_run_6.png"
+        );
+
+        playerHurtSprites = Sprite.load(
+                "/Sprites/Player/hurt/Cyborg_hurt_1.png",
+                "/Sprites/Player/hurt/Cyborg_hurt_2.png"
+        );
+
+        playerShootingSprite = Sprite.load("/Sprites/Player/shoot/shootingSprite.png");
+        bulletSprite = Sprite.load("/Sprites/Player/shoot/bullet.png");
+
+        mapSprites = Sprite.load(
+                "/Tiles/1_FrameTopLeftCorner.png",
+                "/Tiles/2_FrameTopRightCorner.png",
+                "/Tiles/3_FrameBottomLeftCorner.png",
+                "/Tiles/4_FrameBottomRightCorner.png",
+                "/Tiles/5_FrameTopMid.png",
+                "/Tiles/6_FrameLeftMid.png",
+                "/Tiles/7_FrameRightMid.png",
+                "/Tiles/8_FrameBottomMod.png",
+                "/Tiles/9_FrameMid.png",
+                "/Tiles/A_Box.png",
+                "/Tiles/B_HalfSlab.png",
+                "/Tiles/C_IndustrialTabLeft.png",
+                "/Tiles/D_IndustrialSlabMid.png",
+                "/Tiles/E_IndustrialSlabRight.png",
+                "/Tiles/F_LightPole.png",
+                "/Tiles/G_LightTop.png",
+                "/Tiles/H_TreadLeft.png",
+                "/Tiles/I_TreadMid.png",
+                "/Tiles/J_TreadRight.png"
+        );
+
+        enemyIdleSprites = Sprite.load(
+                "/Sprites/Enemy/Idle/Idle_1.png",
+                "/Sprites/Enemy/Idle/Idle_2.png",
+                "/Sprites/Enemy/Idle/Idle_3.png",
+                "/Sprites/Enemy/Idle/Idle_4.png",
+                "/Sprites/Enemy/Idle/Idle_5.png",
+                "/Sprites/Enemy/Idle/Idle_6.png",
+                "/Sprites/Enemy/Idle/Idle_7.png",
+                "/Sprites/Enemy/Idle/Idle_8.png"
+        );
+
+        enemyWalkingSprites = Sprite.load(
+                "/Sprites/Enemy/Walking/Walk_1.png",
+                "/Sprites/Enemy/Walking/Walk_2.png",
+                "/Sprites/Enemy/Walking/Walk_3.png",
+                "/Sprites/Enemy/Walking/Walk_4.png",
+                "/Sprites/Enemy/Walking/Walk_5.png",
+                "/Sprites/Enemy/Walking/Walk_6.png",
+                "/Sprites/Enemy/Walking/Walk_7.png",
+                "/Sprites/Enemy/Walking/Walk_8.png"
+        );
+
+        enemyRunningSprites = Sprite.load(
+                "/Sprites/Enemy/Running/Run_1.png",
+                "/Sprites/Enemy/Running/Run_2.png",
+                "/Sprites/Enemy/Running/Run_3.png",
+                "/Sprites/Enemy/Running/Run_4.png",
+                "/Sprites/Enemy/Running/Run_5.png",
+                "/Sprites/Enemy/Running/Run_6.png",
+                "/Sprites/Enemy/Running/Run_7.png"
+        );
+
+        enemyHurtSprite = Sprite.load("/Sprites/Enemy/Hurt.png");
+    }
+
+    /**
+     * Loads the sprite handles plus everything the renderer needs: the font,
+     * the sprite atlas and backgrounds.
+     * <p>
+     * Sprites, tiles and HUD icons come from the {@link SpriteAtlas}, which is
+     * read from a single cache file when available and rebuilt from the PNGs
+     * otherwise. The atlas is loaded before the sprite handles, so their sizes
+     * come from its index instead of each PNG header.
+     * The font, atlas and backgrounds are borrowed from the shared
+     * {@link AssetRegistry}, so only the first game in the process loads them,
+     * and none of them if {@link #menuAssets()} and {@link #gameAssets()} were
+     * already loaded in the background with an {@link AssetLoader}.
+     */
     public void loadImages() {
-        font = fxFont("/Font/font.TTF", 60);
-
-        cloud = fxImage("/Sprites/cloud.png");
-
-        playerIdleSprites = new Image[] {
-                fxImage("/Sprites/Player/idle/Cyborg_idle_1.png"),
-                fxImage("/Sprites/Player/idle/Cyborg_idle_2.png"),
-                fxImage("/Sprites/Player/idle/Cyborg_idle_3.png"),
-                fxImage("/Sprites/Player/idle/Cyborg_idle_4.png")
-        };
-
-        playerRunningSprites = new Image[] {
-                fxImage("/Sprites/Player/run/Cyborg_run_1.png"),
-                fxImage("/Sprites/Player/run/Cyborg_run_2.png"),
-                fxImage("/Sprites/Player/run/Cyborg_run_3.png"),
-                fxImage("/Sprites/Player/run/Cyborg_run_4.png"),
-                fxImage("/Sprites/Player/run/Cyborg_run_5.png"),
-                fxImage("/Sprites/Player/run/Cyborg_run_6.png")
-        };
-
-        playerHurtSprites = new Image[] {
-                fxImage("/Sprites/Player/hurt/Cyborg_hurt_1.png"),
-                fxImage("/Sprites/Player/hurt/Cyborg_hurt_2.png")
-        };
-
-        heart = fxImage("/Sprites/heart.png");
-        box = fxImage("/Sprites/box.png");
-        ammoBox = fxImage("/Sprites/ammo.png");
-        playerShootingSprite = fxImage("/Sprites/Player/shoot/shootingSprite.png");
-        bulletImage = fxImage("/Sprites/Player/shoot/bullet.png");
-
-        mapImages = new Image[] {
-                fxImage("/Tiles/1_FrameTopLeftCorner.png"),
-                fxImage("/Tiles/2_FrameTopRightCorner.png"),
-                fxImage("/Tiles/3_FrameBottomLeftCorner.png"),
-                fxImage("/Tiles/4_FrameBottomRightCorner.png"),
-                fxImage("/Tiles/5_FrameTopMid.png"),
-                fxImage("/Tiles/6_FrameLeftMid.png"),
-                fxImage("/Tiles/7_FrameRightMid.png"),
-                fxImage("/Tiles/8_FrameBottomMod.png"),
-                fxImage("/Tiles/9_FrameMid.png"),
-                fxImage("/Tiles/A_Box.png"),
-                fxImage("/Tiles/B_HalfSlab.png"),
-                fxImage("/Tiles/C_IndustrialTabLeft.png"),
-                fxImage("/Tiles/D_IndustrialSlabMid.png"),
-                fxImage("/Tiles/E_IndustrialSlabRight.png"),
-                fxImage("/Tiles/F_LightPole.png"),
-                fxImage("/Tiles/G_LightTop.png"),
-                fxImage("/Tiles/H_TreadLeft.png"),
-                fxImage("/Tiles/I_TreadMid.png"),
-                fxImage("/Tiles/J_TreadRight.png")
-        };
-
-        Image[] bg = new Image[] {
-                fxImage("/Background/1_Background.png"),
-                fxImage("/Background/2_Background.png"),
-                fxImage("/Background/3_Background.png"),
-                fxImage("/Background/4_Background.png")
-        };
+        releaseImages();
+
+        font = borrow(fontTask());
+        atlas = borrow(atlasTask(atlasCacheFile()));
+        loadSprites();
+
+        Image[] bg = new Image[BACKGROUND_PATHS.size()];
+        for (int i = 0; i < bg.length; i++) {
+            bg[i] = borrow(imageTask(PIXEL_CACHE, BACKGROUND_PATHS.get(i)));
+        }
         background = new Background(bg);
+    }
 
-        enemyIdleSprites = new Image[] {
-                fxImage("/Sprites/Enemy/Idle/Idle_1.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_2.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_3.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_4.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_5.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_6.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_7.png"),
-                fxImage("/Sprites/Enemy/Idle/Idle_8.png")
-        };
-
-        enemyWalkingSprites = new Image[] {
-                fxImage("/Sprites/Enemy/Walking/Walk_1.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_2.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_3.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_4.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_5.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_6.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_7.png"),
-                fxImage("/Sprites/Enemy/Walking/Walk_8.png")
-        };
-
-        enemyRunningSprites = new Image[] {
-                fxImage("/Sprites/Enemy/Running/Run_1.png"),
-                fxImage("/Sprites/Enemy/Running/Run_2.png"),
-                fxImage("/Sprites/Enemy/Running/Run_3.png"),
-                fxImage("/Sprites/Enemy/Running/Run_4.png"),
-                fxImage("/Sprites/Enemy/Running/Run_5.png"),
-                fxImage("/Sprites/Enemy/Running/Run_6.png"),
-                fxImage("/Sprites/Enemy/Running/Run_7.png")
-        };
-
-        enemyHurtSprite = fxImage("/Sprites/Enemy/Hurt.png");
+    /**
+     * Returns every asset borrowed by {@link #loadImages()} to the
+     * {@link AssetRegistry}. The assets stay cached for the next game; the
+     * renderer must not use this game afterwards. Does nothing if no images
+     * are loaded.
+     */
+    public void releaseImages() {
+        if (borrowed.isEmpty()) return;
+        AssetRegistry assets = AssetRegistry.shared();
+        for (String key : borrowed) assets.release(key);
+        borrowed.clear();
+        font = null;
+        atlas = null;
+        background = null;
     }
 
 
@@ -276,8 +513,34 @@ public class Game {
      * This method consumes one-shot inputs (jump/shoot/restart), updates the camera,
      * updates the player and enemies, and steps bullets. It also handles win/death
      * state transitions and respawning.
+     * <p>
+     * Positions from before the tick are kept so the renderer can interpolate
+     * between the previous and current state.
+     * <p>
+     * A step up to {@link #MAX_STEP} long is integrated once, so a 30Hz tick
+     * costs half as much collision work as two 60Hz ticks; its trajectories
+     * land within a few pixels of 60Hz. Longer steps are split into equal
+     * sub-steps no longer than that, so moves stay short enough not to pass
+     * through a tile. One-shot inputs are consumed by the first sub-step.
+     *
+     * @param dt step length in seconds
+     */
+    public void update(double dt) {
+        savePositions();
+        elapsedSeconds += dt;
+
+        int steps = (int) Math.ceil(dt / MAX_STEP - 1e-9);
+        for (int i = 0; i < steps; i++) {
+            step(dt / steps);
+        }
+    }
+
+    /**
+     * Advances the simulation by one step no longer than {@link #MAX_STEP}.
+     *
+     * @param dt step length in seconds
      */
-    public void update() {
+    private void step(double dt) {
         if (handleRestart()) {
             return;
         }
@@ -290,15 +553,27 @@ public class Game {
 
         updateCamera(1280);
 
-        updatePlayer(keys, lastDir, jumpPressed, blocks);
+        updatePlayer(keys, lastDir, jumpPressed, blocks, dt);
         if (handleWinOrDeath()) {
             return;
         }
 
         handleShooting(keys, lastDir, shootPressed);
 
-        updateEnemies(blocks);
-        updateBullets(blocks);
+        int health = player.health;
+        updateEnemies(blocks, dt);
+        if (player.health < health) events.publish(GameEvent.DAMAGE, player.health);
+        updateBullets(blocks, dt);
+    }
+
+    /**
+     * Records the camera offset and every entity's position before this tick runs.
+     */
+    private void savePositions() {
+        prevCameraOffset = cameraOffset;
+        player.savePosition();
+        for (Enemy e : enemies) e.savePosition();
+        for (Bullet b : activeBullets) b.savePosition();
     }
 
     /**
@@ -321,9 +596,10 @@ public class Game {
      * @param lastDir last horizontal direction pressed
      * @param jumpPressed true if jump was requested this tick
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    private void updatePlayer(boolean[] keys, boolean lastDir, boolean jumpPressed, List<MapBlock> blocks) {
-        player.update(keys, lastDir, jumpPressed, blocks);
+    private void updatePlayer(boolean[] keys, boolean lastDir, boolean jumpPressed, List<MapBlock> blocks, double dt) {
+        player.update(keys, lastDir, jumpPressed, blocks, dt);
     }
 
     /**
@@ -331,16 +607,19 @@ public class Game {
      * <p>
      * If the player has won, sets {@link #isWon} and stops further updates.
      * If the player is dead, increments deaths and respawns entities.
+     * Each transition is published as a {@link GameEvent}.
      *
      * @return true if a state transition occurred and the caller should return immediately
      */
     private boolean handleWinOrDeath() {
         if (player.hasWon()) {
+            if (!isWon) events.publish(GameEvent.WIN, 0);
             isWon = true;
             return true;
         }
         if (player.isDead()) {
             incrementDeaths();
+            events.publish(GameEvent.DEATH, deathCounter);
             spawnEntities();
             return true;
         }
@@ -360,9 +639,10 @@ public class Game {
         if (!shootPressed) return;
 
         boolean facing = player.isFacingForwards(keys, lastDir);
-        Bullet b = player.tryShoot(facing, bulletImage);
+        Bullet b = player.tryShoot(facing, bulletSprite);
         if (b != null) {
             activeBullets.add(b);
+            events.publish(GameEvent.SHOT, player.ammo);
         }
     }
 
@@ -372,16 +652,18 @@ public class Game {
      * When an enemy dies, the player is rewarded with ammunition.
      *
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    private void updateEnemies(List<MapBlock> blocks) {
+    private void updateEnemies(List<MapBlock> blocks, double dt) {
         var enemyIt = enemies.iterator();
         while (enemyIt.hasNext()) {
             Enemy e = enemyIt.next();
-            e.update(player, enemies, blocks);
+            e.update(player, enemies, blocks, dt);
             if (e.isDead()) {
                 killCounter++;
                 player.ammo += 2;
                 enemyIt.remove();
+                events.publish(GameEvent.KILL, killCounter);
             }
         }
     }
@@ -393,12 +675,13 @@ public class Game {
      * exceeds its maximum travel distance.
      *
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    private void updateBullets(List<MapBlock> blocks) {
+    private void updateBullets(List<MapBlock> blocks, double dt) {
         var bulletIt = activeBullets.iterator();
         while (bulletIt.hasNext()) {
             Bullet b = bulletIt.next();
-            boolean shouldRemove = b.update(enemies, blocks);
+            boolean shouldRemove = b.update(enemies, blocks, dt);
             if (shouldRemove) {
                 bulletIt.remove();
             }
@@ -422,12 +705,17 @@ public class Game {
      * Resets and spawns the player, enemies, and bullet list for a new run.
      * <p>
      * This also resets the run start time and clears win state. Enemy spawn
-     * positions are currently hard-coded.
+     * positions are currently hard-coded. The camera is snapped to the new
+     * player so the renderer does not interpolate a sweep back to the start.
      */
     public void spawnEntities() {
         isWon = false;
 
         player = new Player(20, 300, 3, playerIdleSprites, playerRunningSprites, playerHurtSprites, playerShootingSprite);
+        if (map != null) {
+            updateCamera(1280);
+            prevCameraOffset = cameraOffset;
+        }
 
         enemies = new ArrayList<>();
         enemies.add(new Enemy(1475, 230, 2, enemyIdleSprites, enemyWalkingSprites, enemyRunningSprites, enemyHurtSprite));
@@ -451,23 +739,87 @@ public class Game {
      * Resets all runtime statistics for the current game run.
      * <p>
      * Intended to be called when restarting a level or starting a new run.
+     * Undrained events of the previous run are discarded.
      * </p>
      */
     public void resetRunStats() {
         deathCounter = 0;
         killCounter = 0;
+        elapsedSeconds = 0;
         isWon = false;
         activeBullets.clear();
+        events.clear();
     }
     /**
      * Initialises the map and spawns entities for the first run.
      * <p>
-     * This should be called after {@link #loadImages()} so that map tiles and
-     * sprites are already available.
+     * This should be called after {@link #loadImages()} (or {@link #loadSprites()}
+     * when running headless) so that map tiles and sprites are already available.
      */
     public void init() {
         map = new MapBlocks();
-        map.load(mapImages);
+        map.load(mapSprites);
         spawnEntities();
     }
+
+    /**
+     * Writes the state of the running world for a {@link Replay} keyframe:
+     * camera, run counters, clock and every entity. The map and assets are
+     * not included; they are the same in every world after {@link #init()}.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(cameraOffset);
+        out.writeInt(prevCameraOffset);
+        out.writeDouble(elapsedSeconds);
+        out.writeBoolean(isWon);
+        out.writeInt(deathCounter);
+        out.writeInt(killCounter);
+
+        player.writeState(out);
+        out.writeInt(enemies.size());
+        for (Enemy e : enemies) e.writeState(out);
+        out.writeInt(activeBullets.size());
+        for (Bullet b : activeBullets) b.writeState(out);
+    }
+
+    /**
+     * Replaces the world state with one written by {@link #writeState(DataOutput)}.
+     * The game must already have been set up with {@link #init()}.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        cameraOffset = in.readInt();
+        prevCameraOffset = in.readInt();
+        elapsedSeconds = in.readDouble();
+        isWon = in.readBoolean();
+        deathCounter = in.readInt();
+        killCounter = in.readInt();
+
+        player = new Player(0, 0, 3, playerIdleSprites, playerRunningSprites, playerHurtSprites, playerShootingSprite);
+        player.readState(in);
+
+        int enemyCount = in.readInt();
+        enemies = new ArrayList<>(enemyCount);
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy e = new Enemy(0, 0, 2, enemyIdleSprites, enemyWalkingSprites, enemyRunningSprites, enemyHurtSprite);
+            e.readState(in);
+            enemies.add(e);
+        }
+
+        int bulletCount = in.readInt();
+        activeBullets = new ArrayList<>(bulletCount);
+        for (int i = 0; i < bulletCount; i++) {
+            Bullet b = new Bullet(0, 0, bulletSprite);
+            b.readState(in);
+            activeBullets.add(b);
+        }
+
+        // Events from before the restored tick belong to a different timeline
+        events.clear();
+    }
 }
@@ -18,17 +18,11 @@ public class GameController {
     /** Persistent leaderboard service. */
     private final LeaderboardService leaderboard;
 
-    /** Current high-level game state. */
-    private GameState state = GameState.MENU;
+    /** Current high-level game state (read by the UI thread, written by the simulation). */
+    private volatile GameState state = GameState.MENU;
 
-    /** Timestamp when the game was paused (ms). */
-    private long pauseStartedMs = -1;
-
-    /** Last synced death count from the game. */
-    private int lastDeaths = 0;
-
-    /** Last synced kill count from the game. */
-    private int lastKills = 0;
+    /** Input of the current run, or {@code null} until its first tick. */
+    private Replay recording;
 
     /**
      * Creates a new game controller.
@@ -41,19 +35,18 @@ public class GameController {
         this.game = requireNonNull(game);
         this.scoreManager = requireNonNull(scoreManager);
         this.leaderboard = requireNonNull(leaderboard);
+        game.getEvents().subscribe(this::onGameEvent);
     }
 
     /**
      * Starts a fresh game run and resets all state.
      */
     public void startNewGame() {
-        lastDeaths = 0;
-        lastKills = 0;
+        recording = null;
         scoreManager.reset();
         state = GameState.RUNNING;
         game.getInputHandler().clearAll();
         game.resetRunStats();
-        Game.startTime = System.currentTimeMillis();
         game.init();
     }
 
@@ -64,12 +57,26 @@ public class GameController {
         return game;
     }
 
+    /**
+     * @return input recorded for the current run, or {@code null} if no tick has run yet
+     */
+    public Replay getRecording() {
+        return recording;
+    }
+
     /**
      * Updates the game based on the current state.
+     * <p>
+     * Every tick that steps the game is recorded, with the input as it was
+     * before this update consumed anything, into {@link #getRecording()},
+     * along with a keyframe of the world whenever one is due. The events the
+     * tick published are then drained, which updates the score and ends the
+     * run on a win.
      *
      * @param interval time step in seconds
      */
     public void update(double interval) {
+        int mask = game.getInputHandler().getTickMask();
         if (game.getInputHandler().processPause()) {
             if (state == GameState.RUNNING) {
                 pause();
@@ -80,27 +87,31 @@ public class GameController {
 
         if (state != GameState.RUNNING) return;
 
-        game.update();
+        if (recording == null) recording = new Replay((int) Math.round(1 / interval));
+        int tick = recording.getTickCount();
+        if (recording.isKeyframeDue(tick)) recording.addKeyframe(tick, game, scoreManager);
+        recording.record(mask);
+        game.update(interval);
         scoreManager.update(interval);
+        game.getEvents().drain();
+    }
 
-        // Sync deaths
-        int d = game.getDeathCounter();
-        while (lastDeaths < d) {
-            scoreManager.onDeath();
-            lastDeaths++;
-        }
-
-        // Sync kills
-        int k = game.getKillCounter();
-        while (lastKills < k) {
-            scoreManager.onKill();
-            lastKills++;
-        }
-
-        if (game.isWon()) {
-            state = GameState.GAME_OVER;
-            game.getInputHandler().clearAll();
-            leaderboard.save();
+    /**
+     * Reacts to an event published by the game.
+     *
+     * @param type what happened
+     * @param value type-specific value
+     */
+    private void onGameEvent(GameEvent type, int value) {
+        switch (type) {
+            case KILL -> scoreManager.onKill();
+            case DEATH -> scoreManager.onDeath();
+            case WIN -> {
+                state = GameState.GAME_OVER;
+                game.getInputHandler().clearAll();
+                leaderboard.saveAsync();
+            }
+            default -> { }
         }
     }
 
@@ -110,7 +121,6 @@ public class GameController {
     public void pause() {
         if (state != GameState.RUNNING) return;
         state = GameState.PAUSED;
-        pauseStartedMs = System.currentTimeMillis();
         game.getInputHandler().clearAll();
     }
 
@@ -130,11 +140,6 @@ public class GameController {
      */
     public void resume() {
         if (state != GameState.PAUSED) return;
-        long now = System.currentTimeMillis();
-        if (pauseStartedMs > 0) {
-            Game.startTime += (now - pauseStartedMs);
-            pauseStartedMs = -1;
-        }
         state = GameState.RUNNING;
     }
 
@@ -0,0 +1,20 @@
+/**
+ * Things that happen during a tick that other systems react to.
+ * <p>
+ * {@link Game} publishes these into its {@link GameEventBus} together with an
+ * {@code int} value whose meaning depends on the type.
+ *
+ * @author psyjr14
+ */
+public enum GameEvent {
+    /** An enemy was killed; value is the run's kill count. */
+    KILL,
+    /** The player died and respawned; value is the run's death count. */
+    DEATH,
+    /** The player reached the end of the level; value is 0. */
+    WIN,
+    /** The player fired a bullet; value is the ammo left. */
+    SHOT,
+    /** The player was hurt by an enemy; value is the health left. */
+    DAMAGE
+}
@@ -0,0 +1,168 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer, single-consumer ring of {@link GameEvent}s.
+ * <p>
+ * The simulation {@link #publish(GameEvent, int)}es events while it steps the
+ * world; the consumer calls {@link #drain()} to hand everything published so
+ * far to each subscribed {@link Listener}, in order. Events are stored as a
+ * type ordinal and an {@code int} value in preallocated arrays, so neither
+ * side allocates once subscribers are registered.
+ * <p>
+ * The ring never blocks the producer. If it is full, further events are
+ * dropped and counted in {@link #getDropped()}; draining once per tick keeps
+ * it far below capacity.
+ *
+ * @author psyjr14
+ */
+public class GameEventBus {
+
+    /**
+     * Receives drained events.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called once per event, on the thread calling {@link #drain()}.
+         *
+         * @param type what happened
+         * @param value type-specific value, see {@link GameEvent}
+         */
+        void onGameEvent(GameEvent type, int value);
+    }
+
+    /** Capacity used by {@link Game}. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Event types by ordinal; {@code values()} would copy the array on every call. */
+    private static final GameEvent[] TYPES = GameEvent.values();
+
+    /** Type ordinal of each slot. */
+    private final byte[] types;
+
+    /** Value of each slot. */
+    private final int[] values;
+
+    /** {@code capacity - 1}, mapping a sequence number to a slot. */
+    private final int mask;
+
+    /** Sequence number of the next event to read; only the consumer advances it. */
+    private final AtomicLong head = new AtomicLong();
+
+    /** Sequence number of the next event to write; only the producer advances it. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Subscribers, replaced rather than modified so draining needs no lock. */
+    private volatile Listener[] listeners = new Listener[0];
+
+    /** Events lost because the ring was full. */
+    private volatile long dropped;
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param capacity number of undrained events the ring can hold; a power of two
+     */
+    public GameEventBus(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two: " + capacity);
+        }
+        this.types = new byte[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds a subscriber; it receives every event drained from now on.
+     *
+     * @param listener subscriber to add
+     */
+    public synchronized void subscribe(Listener listener) {
+        Listener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[next.length - 1] = listener;
+        listeners = next;
+    }
+
+    /**
+     * Removes a subscriber added with {@link #subscribe(Listener)}.
+     *
+     * @param listener subscriber to remove
+     */
+    public synchronized void unsubscribe(Listener listener) {
+        Listener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                Listener[] next = new Listener[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, next.length - i);
+                listeners = next;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Producer side: appends an event.
+     *
+     * @param type what happened
+     * @param value type-specific value
+     * @return false if the ring was full and the event was dropped
+     */
+    public boolean publish(GameEvent type, int value) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) t & mask;
+        types[slot] = (byte) type.ordinal();
+        values[slot] = value;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side: passes every published event to each subscriber and
+     * frees its slot.
+     *
+     * @return number of events drained
+     */
+    public int drain() {
+        long h = head.get();
+        long t = tail.get();
+        Listener[] current = listeners;
+        for (long seq = h; seq < t; seq++) {
+            int slot = (int) seq & mask;
+            GameEvent type = TYPES[types[slot]];
+            int value = values[slot];
+            for (Listener l : current) {
+                l.onGameEvent(type, value);
+            }
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    /**
+     * Consumer side: discards every undrained event.
+     */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    /**
+     * @return number of events published but not yet drained
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return number of events dropped because the ring was full
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -1,3 +1,8 @@
+import javafx.scene.text.Font;
+
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Stores user-configurable game settings.
  *
@@ -12,6 +17,15 @@ public class GameSettings {
     /** UI text scale factor. */
     private double textScale = 1.0;
 
+    /** Simulation tick rates the game supports, in Hz. */
+    public static final int[] TICK_RATES = {30, 60, 120, 240};
+
+    /** Simulation tick rate in Hz. */
+    private int tickRate = SimulationLoop.DEFAULT_TICK_RATE;
+
+    /** Fonts already created at the current text scale, keyed by family and base size. */
+    private final Map<String, Font> scaledFonts = new HashMap<>();
+
     /**
      * @return {@code true} if music is enabled
      */
@@ -41,6 +55,55 @@ public class GameSettings {
      * @param scale scale factor to apply
      */
     public void setTextScale(double scale) {
+        if (scale != textScale) scaledFonts.clear();
         this.textScale = scale;
     }
+
+    /**
+     * @return simulation tick rate in Hz
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Sets the simulation tick rate used for the next game session.
+     *
+     * <p>Lower rates are cheaper on weak machines; physics is scaled by the
+     * step length, so gameplay is the same at every supported rate.</p>
+     *
+     * @param hz one of {@link #TICK_RATES}
+     * @throws IllegalArgumentException if the rate is not supported
+     */
+    public void setTickRate(int hz) {
+        if (!isSupportedTickRate(hz)) throw new IllegalArgumentException("Unsupported tick rate: " + hz);
+        tickRate = hz;
+    }
+
+    /**
+     * @param hz tick rate in Hz
+     * @return true if {@code hz} is one of {@link #TICK_RATES}
+     */
+    public static boolean isSupportedTickRate(int hz) {
+        for (int r : TICK_RATES) {
+            if (r == hz) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a font of the given family scaled by the current text scale.
+     *
+     * <p>Fonts are cached per scale, so repeated calls (e.g. from the renderer)
+     * do not create a new {@link Font} each time. The cache is cleared whenever
+     * the text scale changes.</p>
+     *
+     * @param family font family name
+     * @param baseSize font size at a text scale of 1.0
+     * @return cached scaled font
+     */
+    public Font getScaledFont(String family, double baseSize) {
+        return scaledFonts.computeIfAbsent(family + '@' + baseSize,
+                k -> Font.font(family, baseSize * textScale));
+    }
 }
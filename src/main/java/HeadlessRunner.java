@@ -0,0 +1,210 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs complete games without a display, as fast as the CPU allows.
+ * <p>
+ * A headless run sets the {@link Game} up with {@link Game#loadSprites()}
+ * instead of {@link Game#loadImages()}, so no image is decoded and the JavaFX
+ * toolkit is never started. Each tick an {@link InputScript} sets the
+ * {@link InputHandler} from a tick mask, as a {@link Replay} does, then the game is stepped
+ * by one fixed tick. Scoring mirrors {@link GameController}, but nothing is
+ * written to the leaderboard.
+ * <p>
+ * Intended for batch jobs such as balancing sweeps or regression checks on a
+ * server. A runner holds only configuration, so one instance can be shared by
+ * the threads of a {@link SimulationFarm}; {@link #main(String[])} runs a
+ * batch that way and prints the throughput.
+ *
+ * @author psyjr14
+ */
+public class HeadlessRunner {
+
+    /**
+     * Scripted input for one run.
+     */
+    @FunctionalInterface
+    public interface InputScript {
+
+        /**
+         * Called once before every tick.
+         *
+         * @param tick index of the tick about to run, starting at 0
+         * @param input input handler to press or release keys on
+         */
+        void apply(int tick, InputHandler input);
+    }
+
+    /**
+     * Outcome of one headless run.
+     *
+     * @param won true if the player reached the win condition
+     * @param ticks number of ticks simulated
+     * @param seconds simulated time in seconds
+     * @param score final score
+     * @param kills enemies killed
+     * @param deaths player deaths
+     * @param finalX player x-position when the run ended
+     */
+    public record Result(boolean won, int ticks, double seconds, int score, int kills, int deaths, int finalX) {}
+
+    /** Length of the scripted opening of {@link #clearOpening(int, InputScript)} in seconds. */
+    static final double OPENING_SECONDS = 3.5;
+
+    /** Simulation tick rate in Hz. */
+    private final int tickRate;
+
+    /** Runs that have not been won after this many ticks are stopped. */
+    private final int maxTicks;
+
+    /**
+     * Creates a runner.
+     *
+     * @param tickRate simulation tick rate in Hz
+     * @param maxTicks tick limit for a single run
+     */
+    public HeadlessRunner(int tickRate, int maxTicks) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        if (maxTicks <= 0) throw new IllegalArgumentException("maxTicks must be positive: " + maxTicks);
+        this.tickRate = tickRate;
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Plays one game from a fresh start until it is won or the tick limit is hit.
+     *
+     * @param script input to apply before each tick
+     * @return result of the run
+     */
+    public Result run(InputScript script) {
+        Game game = new Game();
+        game.loadSprites();
+        game.init();
+
+        InputHandler input = game.getInputHandler();
+        ScoreManager scores = new ScoreManager();
+        double dt = 1.0 / tickRate;
+
+        GameEventBus events = game.getEvents();
+        events.subscribe(scores::onGameEvent);
+
+        int tick = 0;
+        while (tick < maxTicks && !game.isWon()) {
+            script.apply(tick, input);
+            game.update(dt);
+            scores.update(dt);
+            events.drain();
+            tick++;
+        }
+
+        return new Result(game.isWon(), tick, tick * dt, scores.getScore(),
+                scores.getKills(), scores.getDeaths(), game.getPlayer().x);
+    }
+
+    /**
+     * Simple script that holds right, jumps every {@code jumpEvery} ticks and
+     * shoots every {@code shootEvery} ticks.
+     *
+     * @param jumpEvery ticks between jump presses
+     * @param shootEvery ticks between shots
+     * @return input script
+     */
+    public static InputScript runRight(int jumpEvery, int shootEvery) {
+        return (tick, input) -> {
+            int mask = InputHandler.RIGHT | InputHandler.FACING_FORWARDS;
+            if (tick % jumpEvery == 0) mask |= InputHandler.JUMP | InputHandler.JUMP_HELD;
+            if (tick % shootEvery == 0) mask |= InputHandler.SHOOT;
+            input.applyTickMask(mask);
+        };
+    }
+
+    /**
+     * Script that plays through the opening section of the map, then hands
+     * over to {@code then}.
+     * <p>
+     * The ground ends at x=288 and starts again at x=1008, with a single block
+     * at x=624 in between, so simply holding right falls into the gap. The
+     * opening double-jumps onto the block, stops there, then double-jumps
+     * across to the ground beyond. It is timed in seconds, so it works at any
+     * tick rate; {@code then} sees ticks counted from the end of the opening.
+     *
+     * @param tickRate simulation tick rate in Hz
+     * @param then script to run once the opening is over
+     * @return input script
+     */
+    public static InputScript clearOpening(int tickRate, InputScript then) {
+        int openingTicks = ticksAt(OPENING_SECONDS, tickRate);
+        int stopAt = ticksAt(2.1, tickRate);
+        int goAt = ticksAt(2.4, tickRate);
+        Set<Integer> jumps = Set.of(ticksAt(1.0, tickRate), ticksAt(1.5, tickRate), goAt, ticksAt(2.8, tickRate));
+
+        return (tick, input) -> {
+            if (tick >= openingTicks) {
+                then.apply(tick - openingTicks, input);
+                return;
+            }
+
+            int mask = InputHandler.JUMP_HELD | InputHandler.FACING_FORWARDS;
+            if (tick < stopAt || tick >= goAt) mask |= InputHandler.RIGHT;
+            if (jumps.contains(tick)) mask |= InputHandler.JUMP;
+            input.applyTickMask(mask);
+        };
+    }
+
+    /**
+     * Returns the first tick at or after the given time.
+     *
+     * @param seconds simulated time in seconds
+     * @param tickRate simulation tick rate in Hz
+     * @return tick index
+     */
+    private static int ticksAt(double seconds, int tickRate) {
+        return (int) Math.ceil(seconds * tickRate - 1e-9);
+    }
+
+    /**
+     * Returns the scripts of the default batch: run {@code i} clears the
+     * opening, then jumps every {@code 20 + i % 40} ticks so the batch covers
+     * a spread of inputs.
+     *
+     * @param runs number of runs
+     * @param tickRate simulation tick rate in Hz
+     * @return one script per run
+     */
+    static List<InputScript> defaultScripts(int runs, int tickRate) {
+        List<InputScript> scripts = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            scripts.add(clearOpening(tickRate, runRight(20 + i % 40, 15)));
+        }
+        return scripts;
+    }
+
+    /**
+     * Runs a batch of headless games on a {@link SimulationFarm} and prints a summary.
+     * <p>
+     * Usage: {@code HeadlessRunner [runs] [tickRate] [maxTicks] [threads]},
+     * defaulting to 1000 runs at 60Hz with a five-minute tick limit, one thread
+     * per core. Each run plays one of the {@link #defaultScripts(int, int)}.
+     *
+     * @param args optional run count, tick rate, tick limit and thread count
+     */
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int tickRate = args.length > 1 ? Integer.parseInt(args[1]) : SimulationLoop.DEFAULT_TICK_RATE;
+        int maxTicks = args.length > 2 ? Integer.parseInt(args[2]) : tickRate * 300;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        List<InputScript> scripts = defaultScripts(runs, tickRate);
+
+        SimulationFarm.Summary s;
+        try (SimulationFarm farm = new SimulationFarm(new HeadlessRunner(tickRate, maxTicks), threads)) {
+            s = farm.run(scripts);
+        }
+
+        System.out.printf("%d runs on %d threads, %d won, %d ticks in %.2fs (%.0f runs/min, %.0f ticks/s)%n",
+                s.runs(), threads, s.wins(), s.ticks(), s.wallSeconds(), s.runsPerMinute(), s.ticks() / s.wallSeconds());
+        System.out.printf("mean deaths %.1f, mean kills %.1f, mean score %.0f, best score %d, mean win time %.1fs%n",
+                s.meanDeaths(), s.meanKills(), s.meanScore(), s.bestScore(), s.meanWinSeconds());
+    }
+}
@@ -0,0 +1,175 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Cached heads-up display layer.
+ * <p>
+ * The HUD only changes when health, ammo, the attempt count, the whole-second
+ * timer or the text scale change, which is at most about once a second. This
+ * class draws it onto an offscreen {@link Canvas}, snapshots the result and
+ * hands back the same image every frame until one of those values changes.
+ * <p>
+ * The control hints and the "Winner Tunnel" text scroll with the world, so
+ * they are pre-rendered into their own images (once per text scale) and
+ * blitted at the camera-adjusted position each frame.
+ *
+ * @author psyjr14
+ */
+public class HudLayer {
+
+    /** Control hints drawn near the start of the level. */
+    private static final String[] CONTROLS = {
+            "Use WASD to Move",
+            "You can Double Jump",
+            "Use SPACE to Shoot",
+            "Press ESCAPE to Pause"
+    };
+
+    /** Text drawn at the entrance of the winning tunnel. */
+    private static final String[] TUNNEL = {
+            "This is The Winner Tunnel",
+            "Just Keep Walking!"
+    };
+
+    /** Vertical distance between hint lines in pixels. */
+    private static final int LINE_SPACING = 30;
+
+    /** Width reserved for a pre-rendered hint block in pixels. */
+    private static final int HINT_WIDTH = 600;
+
+    /** Offscreen canvas holding the screen-space HUD. */
+    private final Canvas canvas;
+
+    /** Snapshot parameters keeping the HUD background transparent. */
+    private final SnapshotParameters params = new SnapshotParameters();
+
+    /** Most recent HUD snapshot. */
+    private WritableImage image;
+
+    /** Pre-rendered control hints. */
+    private WritableImage controlsImage;
+
+    /** Pre-rendered tunnel text. */
+    private WritableImage tunnelImage;
+
+    /** Space above the first hint baseline in the pre-rendered hint images. */
+    private double hintPad;
+
+    // Values the cached HUD image was drawn with
+    private int lastHealth = -1;
+    private int lastAmmo = -1;
+    private int lastDeaths = -1;
+    private long lastSeconds = -1;
+    private double lastScale = Double.NaN;
+    private double lastHintScale = Double.NaN;
+
+    /**
+     * Creates a HUD layer.
+     *
+     * @param width width of the HUD strip in pixels (normally the viewport width)
+     * @param height height of the HUD strip in pixels
+     */
+    public HudLayer(int width, int height) {
+        canvas = new Canvas(width, height);
+        params.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * Draws the HUD, redrawing the cached layer only if something visible changed.
+     *
+     * @param gc graphics context of the main canvas
+     * @param frame snapshot providing player stats and the run timer
+     * @param game game providing HUD images and font
+     * @param settings settings providing the text scale and cached fonts
+     * @param cameraX camera offset in pixels, used for world-aligned hints
+     */
+    public void draw(GraphicsContext gc, RenderSnapshot frame, Game game, GameSettings settings, int cameraX) {
+        long seconds = frame.elapsedMs / 1000;
+        double scale = settings.getTextScale();
+
+        if (image == null
+                || frame.health != lastHealth
+                || frame.ammo != lastAmmo
+                || frame.attempts != lastDeaths
+                || seconds != lastSeconds
+                || scale != lastScale) {
+            redraw(game, settings, frame.health, frame.ammo, frame.attempts, seconds);
+        }
+        if (scale != lastHintScale) {
+            redrawHints(game, settings);
+        }
+
+        gc.drawImage(controlsImage, 470 - cameraX, 250 - hintPad);
+        gc.drawImage(tunnelImage, 6800 - cameraX, 310 - hintPad);
+        gc.drawImage(image, 0, 0);
+    }
+
+    /**
+     * Redraws the screen-space HUD and snapshots it.
+     */
+    private void redraw(Game game, GameSettings settings, int health, int ammo, int deaths, long seconds) {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setFill(Color.BLACK);
+
+        String family = game.getFont().getFamily();
+        SpriteAtlas atlas = game.getAtlas();
+
+        if (health > 0) atlas.draw(g, Game.HEART_PATH, 20, 20);
+        if (health > 1) atlas.draw(g, Game.HEART_PATH, 89, 20);
+        if (health > 2) atlas.draw(g, Game.HEART_PATH, 158, 20);
+        atlas.draw(g, Game.AMMO_PATH, 1040, 20);
+
+        g.setFont(settings.getScaledFont(family, 60));
+        g.fillText(String.valueOf(ammo), 1130, 68);
+        g.fillText(String.format("%02d:%02d", seconds / 60, seconds % 60), 510, 68);
+
+        g.setFont(settings.getScaledFont(family, 20));
+        g.fillText("ATTEMPTS: " + deaths, 20, 110);
+
+        image = canvas.snapshot(params, image);
+
+        lastHealth = health;
+        lastAmmo = ammo;
+        lastDeaths = deaths;
+        lastSeconds = seconds;
+        lastScale = settings.getTextScale();
+    }
+
+    /**
+     * Pre-renders the world-aligned hint text blocks at the current text scale.
+     */
+    private void redrawHints(Game game, GameSettings settings) {
+        Font font = settings.getScaledFont(game.getFont().getFamily(), 20);
+        hintPad = Math.ceil(font.getSize() * 1.5);
+
+        controlsImage = renderLines(CONTROLS, font);
+        tunnelImage = renderLines(TUNNEL, font);
+        lastHintScale = settings.getTextScale();
+    }
+
+    /**
+     * Renders lines of text into a transparent image, one {@link #LINE_SPACING} apart.
+     *
+     * @param lines text to render
+     * @param font font to render with
+     * @return image whose first baseline sits {@link #hintPad} pixels from the top
+     */
+    private WritableImage renderLines(String[] lines, Font font) {
+        Canvas c = new Canvas(HINT_WIDTH, hintPad * 2 + LINE_SPACING * (lines.length - 1));
+        GraphicsContext g = c.getGraphicsContext2D();
+        g.setFill(Color.BLACK);
+        g.setFont(font);
+
+        double y = hintPad;
+        for (String line : lines) {
+            g.fillText(line, 0, y);
+            y += LINE_SPACING;
+        }
+        return c.snapshot(params, null);
+    }
+}
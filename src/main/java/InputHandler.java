@@ -1,4 +1,6 @@
 import java.io.Serializable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javafx.scene.input.KeyCode;
 
 /**
@@ -13,10 +15,49 @@ import javafx.scene.input.KeyCode;
  * requests (jump, shoot, restart) that are consumed during the game update
  * cycle.</p>
  *
+ * <p>When the simulation runs on its own thread, the JavaFX event handlers
+ * call {@link #queueKeyPressed(KeyCode)} / {@link #queueKeyReleased(KeyCode)},
+ * which only append to a lock-free queue. The simulation thread then calls
+ * {@link #applyQueuedInput()} at the start of each tick, so the input state
+ * itself is only ever touched by one thread.</p>
+ *
+ * <p>Queued transitions carry their {@link System#nanoTime()} and are applied
+ * in arrival order. A movement key pressed and released within the same tick
+ * still counts as held for that tick; its release takes effect at the next
+ * tick boundary, so short taps are never lost.</p>
+ *
+ * <p>The complete input for a tick can be packed into a bitmask with
+ * {@link #getTickMask()} and restored with {@link #applyTickMask(int)}; this is
+ * what {@link Replay} records.</p>
+ *
  * @author psyjr14
  */
 public class InputHandler implements Serializable {
 
+    /** Tick mask bit: move left held. */
+    public static final int LEFT = 1;
+
+    /** Tick mask bit: move right held. */
+    public static final int RIGHT = 1 << 1;
+
+    /** Tick mask bit: jump key held. */
+    public static final int JUMP_HELD = 1 << 2;
+
+    /** Tick mask bit: jump requested. */
+    public static final int JUMP = 1 << 3;
+
+    /** Tick mask bit: shot requested. */
+    public static final int SHOOT = 1 << 4;
+
+    /** Tick mask bit: restart requested. */
+    public static final int RESTART = 1 << 5;
+
+    /** Tick mask bit: pause requested. */
+    public static final int PAUSE = 1 << 6;
+
+    /** Tick mask bit: last horizontal direction was forwards (right). */
+    public static final int FACING_FORWARDS = 1 << 7;
+
     /**
      * Array representing currently held movement keys.
      *
@@ -43,6 +84,27 @@ public class InputHandler implements Serializable {
 
     private boolean pauseRequested = false;
 
+    /**
+     * A key transition waiting to be applied on the simulation thread.
+     *
+     * @param code key that changed
+     * @param pressed true for a press, false for a release
+     * @param nanos {@link System#nanoTime()} when the transition happened
+     */
+    private record KeyInput(KeyCode code, boolean pressed, long nanos) implements Serializable {}
+
+    /** Key transitions queued by the UI thread, in arrival order. */
+    private final Queue<KeyInput> pending = new ConcurrentLinkedQueue<>();
+
+    /** Movement keys pressed by the batch being applied. */
+    private final boolean[] pressedThisTick = new boolean[4];
+
+    /** Movement keys whose release is held back until the next tick boundary. */
+    private final boolean[] deferredRelease = new boolean[4];
+
+    /** Timestamp of the oldest transition applied since {@link #takeAppliedInputNanos()}, or 0. */
+    private long appliedInputNanos;
+
     /**
      * Consumes and returns the jump request flag.
      *
@@ -99,6 +161,7 @@ public class InputHandler implements Serializable {
     public void clearAll() {
         for (int i = 0; i < keysPressed.length; i++) {
             keysPressed[i] = false;
+            deferredRelease[i] = false;
         }
         jumpRequested = false;
         shootRequested = false;
@@ -126,6 +189,41 @@ public class InputHandler implements Serializable {
         return lastDirectionForwards;
     }
 
+    /**
+     * Packs the current input state into a tick mask without consuming any
+     * one-shot request.
+     *
+     * @return bitwise OR of the {@code LEFT} .. {@code FACING_FORWARDS} bits that are set
+     */
+    public int getTickMask() {
+        int mask = 0;
+        if (keysPressed[0]) mask |= LEFT;
+        if (keysPressed[1]) mask |= RIGHT;
+        if (keysPressed[2]) mask |= JUMP_HELD;
+        if (jumpRequested) mask |= JUMP;
+        if (shootRequested) mask |= SHOOT;
+        if (restartRequested) mask |= RESTART;
+        if (pauseRequested) mask |= PAUSE;
+        if (lastDirectionForwards) mask |= FACING_FORWARDS;
+        return mask;
+    }
+
+    /**
+     * Replaces the input state with the one packed in a tick mask.
+     *
+     * @param mask tick mask from {@link #getTickMask()}
+     */
+    public void applyTickMask(int mask) {
+        keysPressed[0] = (mask & LEFT) != 0;
+        keysPressed[1] = (mask & RIGHT) != 0;
+        keysPressed[2] = (mask & JUMP_HELD) != 0;
+        jumpRequested = (mask & JUMP) != 0;
+        shootRequested = (mask & SHOOT) != 0;
+        restartRequested = (mask & RESTART) != 0;
+        pauseRequested = (mask & PAUSE) != 0;
+        lastDirectionForwards = (mask & FACING_FORWARDS) != 0;
+    }
+
     /**
      * Handles a JavaFX key press event.
      *
@@ -182,4 +280,110 @@ public class InputHandler implements Serializable {
         }
     }
 
+    /**
+     * Queues a key press to be applied by {@link #applyQueuedInput()}.
+     *
+     * <p>Safe to call from any thread.</p>
+     *
+     * @param code the {@link KeyCode} that was pressed
+     */
+    public void queueKeyPressed(KeyCode code) {
+        queueKeyPressed(code, System.nanoTime());
+    }
+
+    /**
+     * Queues a key press that happened at a given time.
+     *
+     * <p>Safe to call from any thread.</p>
+     *
+     * @param code the {@link KeyCode} that was pressed
+     * @param nanos {@link System#nanoTime()} of the press
+     */
+    public void queueKeyPressed(KeyCode code, long nanos) {
+        pending.add(new KeyInput(code, true, nanos));
+    }
+
+    /**
+     * Queues a key release to be applied by {@link #applyQueuedInput()}.
+     *
+     * <p>Safe to call from any thread.</p>
+     *
+     * @param code the {@link KeyCode} that was released
+     */
+    public void queueKeyReleased(KeyCode code) {
+        queueKeyReleased(code, System.nanoTime());
+    }
+
+    /**
+     * Queues a key release that happened at a given time.
+     *
+     * <p>Safe to call from any thread.</p>
+     *
+     * @param code the {@link KeyCode} that was released
+     * @param nanos {@link System#nanoTime()} of the release
+     */
+    public void queueKeyReleased(KeyCode code, long nanos) {
+        pending.add(new KeyInput(code, false, nanos));
+    }
+
+    /**
+     * Applies every queued key transition in arrival order.
+     *
+     * <p>Called by the simulation thread at a tick boundary. Releases held
+     * back by the previous call are applied first.</p>
+     */
+    public void applyQueuedInput() {
+        for (int i = 0; i < keysPressed.length; i++) {
+            if (deferredRelease[i]) keysPressed[i] = false;
+            deferredRelease[i] = false;
+            pressedThisTick[i] = false;
+        }
+
+        KeyInput input;
+        while ((input = pending.poll()) != null) {
+            int key = movementIndex(input.code());
+            if (input.pressed()) {
+                onKeyPressed(input.code());
+                if (key >= 0) {
+                    pressedThisTick[key] = true;
+                    deferredRelease[key] = false;
+                }
+            } else if (key >= 0 && pressedThisTick[key]) {
+                deferredRelease[key] = true;
+            } else {
+                onKeyReleased(input.code());
+            }
+            if (appliedInputNanos == 0 || input.nanos() - appliedInputNanos < 0) {
+                appliedInputNanos = input.nanos();
+            }
+        }
+    }
+
+    /**
+     * Returns the timestamp of the oldest key transition applied since the
+     * last call, and starts collecting again.
+     *
+     * <p>Called by the simulation thread when it publishes a frame, so the
+     * renderer can measure how long the input took to reach the screen.</p>
+     *
+     * @return {@link System#nanoTime()} of the oldest applied transition, or 0 if none
+     */
+    public long takeAppliedInputNanos() {
+        long nanos = appliedInputNanos;
+        appliedInputNanos = 0;
+        return nanos;
+    }
+
+    /**
+     * @param code key to look up
+     * @return index of the key in {@link #getKeysPressed()}, or -1 if it is not a movement key
+     */
+    private static int movementIndex(KeyCode code) {
+        return switch (code) {
+            case A -> 0;
+            case D -> 1;
+            case W -> 2;
+            default -> -1;
+        };
+    }
 }
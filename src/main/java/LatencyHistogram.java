@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram of latencies.
+ * <p>
+ * Values are counted in microsecond units. Below 16µs every value has its own
+ * bucket; above that each power of two is split into 16 equal buckets, so a
+ * bucket is never wider than 1/16 of its lower bound (about 6%). The range
+ * covers about two minutes; anything longer lands in the last bucket.
+ * <p>
+ * Recording is a handful of atomic adds and never allocates, so it is cheap
+ * enough to call every frame. It can be read from any thread while recording.
+ *
+ * @author psyjr14
+ */
+public class LatencyHistogram {
+
+    /** Nanoseconds per counting unit. */
+    private static final long UNIT_NANOS = 1_000;
+
+    /** log2 of the number of buckets per power of two. */
+    private static final int SUB_BITS = 4;
+
+    /** Buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Highest power of two with its own buckets, in units; values up to 2^27µs (about two minutes) are resolved. */
+    private static final int MAX_EXPONENT = 26;
+
+    /** Number of buckets. */
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+    /** Count per bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /** Number of recorded values. */
+    private final AtomicLong count = new AtomicLong();
+
+    /** Sum of recorded values, in nanoseconds. */
+    private final AtomicLong sum = new AtomicLong();
+
+    /** Largest recorded value, in nanoseconds. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos / UNIT_NANOS));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return mean of the recorded values in nanoseconds, or 0 if there are none
+     */
+    public double getMeanNanos() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @return largest recorded value in nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound for a percentile: the top of the bucket holding
+     * it, capped at the largest recorded value.
+     *
+     * @param percentile percentile in {@code [0, 100]}
+     * @return latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+        }
+        long n = count.get();
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i) * UNIT_NANOS, max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @return one-line summary with the count, mean, p50, p90, p99 and max in milliseconds
+     */
+    public String summary() {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                getCount(), getMeanNanos() / 1e6, percentileNanos(50) / 1e6,
+                percentileNanos(90) / 1e6, percentileNanos(99) / 1e6, getMaxNanos() / 1e6);
+    }
+
+    /**
+     * Formats the non-empty buckets as CSV with the header
+     * {@code lower_us,upper_us,count}; bounds are inclusive-exclusive.
+     *
+     * @return CSV text
+     */
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder("lower_us,upper_us,count\n");
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c == 0) continue;
+            sb.append(lowerBound(i)).append(',').append(upperBound(i)).append(',').append(c).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #toCsv()} to a file, creating parent directories as needed.
+     *
+     * @param path file to write
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.writeString(path, toCsv());
+    }
+
+    /**
+     * @param units value in counting units
+     * @return index of the bucket holding the value
+     */
+    static int bucketOf(long units) {
+        if (units < SUB_BUCKETS) return (int) units;
+        int exponent = 63 - Long.numberOfLeadingZeros(units);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (units >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return smallest value in the bucket, in units
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return smallest value above the bucket, in units
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket + 1;
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        return lowerBound(bucket) + (1L << (exponent - SUB_BITS));
+    }
+}
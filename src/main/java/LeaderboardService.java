@@ -1,57 +1,1032 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.io.*;
-import java.util.*;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
 
+/**
+ * Stores leaderboard entries on disk as a memory-mapped snapshot plus an
+ * append-only journal.
+ * <p>
+ * {@link #save()} appends only the entries added since the last save to the
+ * journal ({@code <file>.journal}), so saving a score is one small sequential
+ * write however large the board is. Once the journal holds enough records it
+ * is compacted: its entries are merged into a new {@link LeaderboardSnapshot}
+ * ({@code <file>.snapshot-<generation>}), {@code <file>} is atomically
+ * replaced by a small manifest naming it, and a fresh journal is started.
+ * Snapshots are never renamed over while mapped, which Windows does not allow.
+ * <p>
+ * {@link #load()} maps the snapshot instead of reading it, so startup time
+ * and heap use do not grow with the board. Only the journal's entries, at
+ * most a compaction's worth, are held in memory, in a {@link RankIndex}.
+ * Rank and page queries combine binary searches of the snapshot's sorted
+ * index with the in-memory index, and decode only the entries returned.
+ * <p>
+ * Every journal record is length-prefixed and CRC-checked. A record torn by a
+ * crash mid-append is ignored together with anything after it, and cut off by
+ * the next writer; earlier records are unaffected. Each journal carries a
+ * generation number and the manifest names the first generation the snapshot
+ * does not include, so a crash between writing a snapshot and replacing the
+ * journal never counts an entry twice.
+ * <p>
+ * Leaderboards written by older versions, with Java serialization or as a
+ * single unmapped snapshot, are read and converted on load.
+ * <p>
+ * {@link #getTop(int)} returns a cached immutable view of the best entries,
+ * rebuilt only when the {@link #getVersion() version} changes, so a UI
+ * polling it every frame neither decodes nor allocates.
+ * <p>
+ * Several processes may share the files. {@link #save()} and {@link #clear()}
+ * hold an exclusive {@link FileLock} on {@code <file>.lock} and re-read the
+ * files under it, so each writer appends its new entries after whatever other
+ * processes saved instead of overwriting them. {@link #load()} takes no file
+ * lock: the manifest and snapshots are only ever replaced by atomic renames
+ * and the journal only grows, so a reader maps the snapshot the manifest
+ * names, reads the complete journal records, and tries again if a compaction
+ * replaced the manifest meanwhile.
+ * <p>
+ * File I/O is serialised by its own lock and never runs while the entries
+ * are locked, so queries from the FX thread do not wait for the disk.
+ * {@link #saveAsync()}, {@link #loadAsync()} and {@link #clearAsync()} run
+ * the same operations in order on a single background writer thread;
+ * saves requested while one is still queued share it, so a burst of saves
+ * costs one journal append.
+ *
+ * @author psyjr14
+ */
+public class LeaderboardService implements AutoCloseable {
 
-public class LeaderboardService {
+    /**
+     * When journal appends are flushed to the device.
+     */
+    public enum FsyncPolicy {
+        /** Every save is flushed before it reports success; a power cut loses nothing that was saved. */
+        EVERY_SAVE,
+        /**
+         * Appends are left for the operating system to write back; only
+         * compactions are flushed. A power cut may lose the last few saves
+         * but never corrupts the board.
+         */
+        COMPACTION_ONLY
+    }
+
+    /** Leaderboard file signature ("CPLB"). */
+    private static final int SNAPSHOT_MAGIC = 0x43504C42;
+
+    /** Journal file signature ("CPLJ"). */
+    private static final int JOURNAL_MAGIC = 0x43504C4A;
+
+    /** File format version; bump when the layout changes. */
+    private static final int FORMAT_VERSION = 2;
+
+    /** Version whose leaderboard file held every entry inline instead of naming a mapped snapshot. */
+    private static final int INLINE_SNAPSHOT_VERSION = 1;
+
+    /** Manifest: magic, version, next generation, CRC32 of the preceding bytes. */
+    private static final int MANIFEST_BYTES = 20;
+
+    /** Journal header: magic, version, generation. */
+    private static final int JOURNAL_HEADER_BYTES = 16;
+
+    /** Record header: payload length and CRC. */
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    /** Largest payload accepted when reading; anything bigger is treated as corruption. */
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024;
+
+    /** Journal records after which the journal is compacted into the snapshot. */
+    private static final int DEFAULT_COMPACT_AFTER = 256;
+
+    /** Longest {@link #close()} waits for queued writes. */
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    /** Times {@link #load()} retries when compactions keep replacing the files it is reading. */
+    private static final int READ_ATTEMPTS = 10;
+
+    /**
+     * I/O lock of each leaderboard file in this process. A {@link FileLock}
+     * only excludes other processes, and a second lock on the same file from
+     * this process would throw, so services sharing a file share this lock.
+     */
+    private static final ConcurrentHashMap<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    /** Manifest file. */
     private final File file;
-    private final List<ScoreEntry> entries = new ArrayList<>();
 
+    /** Journal file. */
+    private final File journal;
+
+    /** File locked by writers; never deleted, so every process locks the same file. */
+    private final Path lockFile;
+
+    /** Journal records after which {@link #save()} compacts. */
+    private final int compactAfter;
+
+    /**
+     * Serialises file I/O within this process. Taken before, never while
+     * holding, the instance monitor that guards the entries, which is only
+     * held for memory work.
+     */
+    private final Object ioLock;
+
+    /** When journal appends are flushed. */
+    private volatile FsyncPolicy fsyncPolicy = FsyncPolicy.EVERY_SAVE;
+
+    /** Entries compacted into the current snapshot. */
+    private LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+
+    /** Entries not in the snapshot, in the order they were added. */
+    private final List<LeaderboardSnapshot.Added> recent = new ArrayList<>();
+
+    /** The same entries ordered by score, for rank and page queries. */
+    private final RankIndex recentRanks = new RankIndex();
+
+    /** Incremented whenever the entries change. */
+    private long version;
+
+    /** Last list returned by {@link #getTop(int)}. */
+    private List<ScoreEntry> top = List.of();
+
+    /** Size limit {@link #top} was built for, or -1 if it is out of date. */
+    private int topLimit = -1;
+
+    /** Number of leading {@link #recent} entries already in the journal. */
+    private int persisted;
+
+    /** Generation of the journal last read, which the snapshot does not include. Guarded by {@link #ioLock}. */
+    private long generation;
+
+    /** Generation of {@link #snapshot}, or -1 if memory has not been matched with the files yet. */
+    private long loadedGeneration = -1;
+
+    /** Background thread for the asynchronous operations; created on first use. */
+    private ExecutorService writer;
+
+    /** Save queued on {@link #writer} and not yet started, which later requests share. */
+    private CompletableFuture<Boolean> pendingSave;
+
+    /** True once {@link #close()} was called. */
+    private boolean closed;
+
+    /**
+     * Reads or writes the leaderboard files.
+     *
+     * @param <T> result type
+     */
+    private interface IoTask<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * What {@link #open(boolean)} found on disk.
+     *
+     * @param snapshot the mapped snapshot
+     * @param journal the journal's entries, in the order they were added
+     * @param generation generation of the journal, named by the manifest
+     */
+    private record Opened(LeaderboardSnapshot snapshot, List<LeaderboardSnapshot.Added> journal, long generation) {}
+
+    /**
+     * Creates a service for a leaderboard file. Nothing is read until {@link #load()}.
+     *
+     * @param filePath path of the leaderboard file; the snapshot and journal live next to it
+     */
     public LeaderboardService(String filePath) {
+        this(filePath, DEFAULT_COMPACT_AFTER);
+    }
+
+    /**
+     * Creates a service that compacts after the given number of journal records.
+     *
+     * @param filePath path of the leaderboard file; the snapshot and journal live next to it
+     * @param compactAfter journal records after which {@link #save()} compacts
+     */
+    LeaderboardService(String filePath, int compactAfter) {
+        if (compactAfter <= 0) throw new IllegalArgumentException("compactAfter must be positive: " + compactAfter);
         this.file = new File(filePath);
+        this.journal = new File(filePath + ".journal");
+        this.lockFile = Path.of(filePath + ".lock");
+        this.ioLock = PROCESS_LOCKS.computeIfAbsent(file.toPath().toAbsolutePath().normalize(), k -> new Object());
+        this.compactAfter = compactAfter;
         File parent = file.getParentFile();
         if (parent != null && !parent.exists()) {
             parent.mkdirs();
         }
     }
 
-    public void addEntry(String name, int score) {
-        entries.add(new ScoreEntry(name, score));
+    /**
+     * Adds an entry in memory; call {@link #save()} to persist it.
+     *
+     * @param name player name
+     * @param score final score
+     */
+    public synchronized void addEntry(String name, int score) {
+        ScoreEntry entry = new ScoreEntry(name, score);
+        recent.add(new LeaderboardSnapshot.Added(entry, System.currentTimeMillis()));
+        recentRanks.add(entry);
+        changed();
+    }
+
+    /**
+     * Decodes every entry; prefer {@link #getPage(int, int)} on large boards.
+     *
+     * @return copy of the entries, highest score first
+     */
+    public synchronized List<ScoreEntry> getEntries() {
+        return page(0, size());
+    }
+
+    /**
+     * Returns the best entries. The list is immutable and the same instance
+     * is returned until the entries change or a different limit is asked for.
+     *
+     * @param limit maximum number of entries
+     * @return up to {@code limit} entries, highest score first
+     */
+    public synchronized List<ScoreEntry> getTop(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative: " + limit);
+        if (limit != topLimit) {
+            top = List.copyOf(page(0, limit));
+            topLimit = limit;
+        }
+        return top;
     }
 
-    public List<ScoreEntry> getEntries() {
-        List<ScoreEntry> copy = new ArrayList<>(entries);
-        copy.sort((a, b) -> Integer.compare(b.score(), a.score()));
-        return copy;
+    /**
+     * Returns a page of the board.
+     *
+     * @param firstRank 1-based rank of the first entry
+     * @param count maximum number of entries
+     * @return up to {@code count} entries, highest score first
+     */
+    public synchronized List<ScoreEntry> getPage(int firstRank, int count) {
+        if (firstRank < 1) throw new IllegalArgumentException("firstRank must be at least 1: " + firstRank);
+        return page(firstRank - 1, count);
     }
 
+    /**
+     * Returns the rank a score has, or would have, on the board. Equal
+     * scores share the best rank.
+     *
+     * @param score a score
+     * @return 1-based rank
+     */
+    public synchronized int getRank(int score) {
+        return snapshot.countHigher(score) + recentRanks.countHigher(score) + 1;
+    }
+
+    /**
+     * Returns how far up the board a score is, as the share of entries
+     * ranked at or above it. The best score of 200 entries is in the top 0.5%.
+     *
+     * @param score a score on the board
+     * @return percentage in {@code (0, 100]}, or 100 if the board is empty
+     */
+    public synchronized double getTopPercent(int score) {
+        int n = size();
+        if (n == 0) return 100;
+        return 100.0 * Math.min(getRank(score), n) / n;
+    }
+
+    /**
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return snapshot.size() + recentRanks.size();
+    }
+
+    /**
+     * @return a number that changes whenever an entry is added or removed
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets when journal appends are flushed to the device.
+     *
+     * @param policy the policy; {@link FsyncPolicy#EVERY_SAVE} by default
+     */
+    public void setFsyncPolicy(FsyncPolicy policy) {
+        fsyncPolicy = Objects.requireNonNull(policy);
+    }
+
+    /**
+     * Appends entries added since the last save to the journal, compacting it
+     * into the snapshot once it is long enough.
+     * <p>
+     * The files are locked and re-read first, so entries other processes (or
+     * other services in this one) saved in the meantime are kept on disk and
+     * also show up in memory, and the new entries are added after them.
+     *
+     * @return true if the entries are on disk
+     */
     public boolean save() {
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-            out.writeObject(new ArrayList<>(entries));
-            return true;
+        synchronized (ioLock) {
+            try {
+                return withFileLock(() -> {
+                    refresh(open(true));
+                    if (!file.exists()) {
+                        LeaderboardSnapshot.write(snapshotPath(generation), LeaderboardSnapshot.EMPTY, List.of());
+                        writeManifest(generation);
+                    }
+
+                    List<LeaderboardSnapshot.Added> pending;
+                    synchronized (this) {
+                        pending = List.copyOf(recent.subList(persisted, recent.size()));
+                    }
+                    if (!pending.isEmpty()) {
+                        appendToJournal(pending);
+                        synchronized (this) {
+                            persisted += pending.size();
+                        }
+                    }
+
+                    // The entries are already safe in the journal, so a failed compaction is retried next time
+                    LeaderboardSnapshot base;
+                    List<LeaderboardSnapshot.Added> journalled;
+                    synchronized (this) {
+                        if (persisted < compactAfter) return true;
+                        base = snapshot;
+                        journalled = List.copyOf(recent.subList(0, persisted));
+                    }
+                    LeaderboardSnapshot written = compact(base, journalled);
+                    if (written != null) {
+                        synchronized (this) {
+                            // Same entries as before, so the version and cached top list stay valid
+                            snapshot = written;
+                            loadedGeneration = generation;
+                            recent.subList(0, journalled.size()).clear();
+                            persisted -= journalled.size();
+                            recentRanks.clear();
+                            for (LeaderboardSnapshot.Added a : recent) recentRanks.add(a.entry());
+                        }
+                    }
+                    return true;
+                });
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Replaces the saved entries in memory with the ones on disk; entries
+     * added since the last save are kept and saved next time. The snapshot is
+     * mapped rather than read, so this takes the same time however large the
+     * board is, and no file lock is taken, so it never waits for a writer in
+     * another process.
+     *
+     * @throws RuntimeException if the leaderboard files are unreadable
+     */
+    public void load() {
+        synchronized (ioLock) {
+            try {
+                refresh(open(false));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load leaderboard from " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    /**
+     * Removes every entry, in memory and on disk, including entries other
+     * processes saved.
+     */
+    public void clear() {
+        synchronized (ioLock) {
+            synchronized (this) {
+                snapshot = LeaderboardSnapshot.EMPTY;
+                recent.clear();
+                recentRanks.clear();
+                persisted = 0;
+                loadedGeneration = -1;
+                changed();
+            }
+            try {
+                withFileLock(() -> {
+                    try {
+                        open(true);
+                    } catch (IOException e) {
+                        // Unreadable files are replaced by the compaction below
+                    }
+                    LeaderboardSnapshot written = compact(LeaderboardSnapshot.EMPTY, List.of());
+                    if (written != null) {
+                        synchronized (this) {
+                            snapshot = written;
+                            loadedGeneration = generation;
+                        }
+                    }
+                    return null;
+                });
+            } catch (IOException e) {
+                // The board stays cleared in memory; the files are cleared by a later call
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #save()} on the writer thread. If a save is already queued
+     * and has not started, its future is returned instead, so rapid saves
+     * coalesce into one append.
+     *
+     * @return future completed with the result of the save, or false if the service is closed
+     */
+    public synchronized CompletableFuture<Boolean> saveAsync() {
+        if (pendingSave != null) return pendingSave;
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        try {
+            writer().execute(() -> {
+                synchronized (this) {
+                    pendingSave = null;
+                }
+                try {
+                    future.complete(save());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            pendingSave = future;
+        } catch (RejectedExecutionException e) {
+            future.complete(false);
+        }
+        return future;
+    }
+
+    /**
+     * Runs {@link #load()} on the writer thread, after any queued writes.
+     *
+     * @return future completed when the entries are loaded, or exceptionally if they could not be
+     */
+    public CompletableFuture<Void> loadAsync() {
+        return runOnWriter(this::load);
+    }
+
+    /**
+     * Runs {@link #clear()} on the writer thread, after any queued writes.
+     *
+     * @return future completed when the board is cleared
+     */
+    public CompletableFuture<Void> clearAsync() {
+        return runOnWriter(this::clear);
+    }
+
+    /**
+     * Stops accepting asynchronous operations and waits a few seconds for
+     * queued ones to finish. The synchronous methods keep working.
+     */
+    @Override
+    public void close() {
+        ExecutorService w;
+        synchronized (this) {
+            closed = true;
+            w = writer;
+        }
+        if (w == null) return;
+        w.shutdown();
+        try {
+            w.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param task operation to queue
+     * @return future completed when the task has run
+     */
+    private synchronized CompletableFuture<Void> runOnWriter(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, writer());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return the writer thread's executor, created on first use
+     * @throws RejectedExecutionException if the service is closed
+     */
+    private synchronized ExecutorService writer() {
+        if (closed) throw new RejectedExecutionException("Leaderboard is closed");
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "leaderboard-writer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return writer;
+    }
+
+    /**
+     * Returns consecutive entries of the board, merging the snapshot with
+     * the entries not yet compacted into it. Equal scores in the snapshot
+     * were added first, so they come first.
+     *
+     * @param from 0-based position of the first entry
+     * @param count maximum number of entries
+     * @return up to {@code count} entries, highest score first
+     */
+    private List<ScoreEntry> page(int from, int count) {
+        if (from < 0 || count < 0) throw new IllegalArgumentException("from and count must not be negative");
+        int n = (int) Math.min(count, Math.max(0L, (long) size() - from));
+        List<ScoreEntry> out = new ArrayList<>(n);
+        if (n == 0) return out;
+
+        int s = snapshotEntriesBefore(from);
+        List<ScoreEntry> fromRecent = recentRanks.page(from - s, n);
+        int r = 0;
+        while (out.size() < n) {
+            if (s < snapshot.size() && (r == fromRecent.size() || snapshot.scoreAt(s) >= fromRecent.get(r).score())) {
+                out.add(snapshot.entryAt(s++));
+            } else {
+                out.add(fromRecent.get(r++));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Finds how many of the first {@code position} entries of the board come
+     * from the snapshot, by binary search over both sorted sequences.
+     *
+     * @param position 0-based position on the board
+     * @return number of snapshot entries ranked before it
+     */
+    private int snapshotEntriesBefore(int position) {
+        int lo = Math.max(0, position - recentRanks.size());
+        int hi = Math.min(position, snapshot.size());
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            // Does snapshot entry mid rank before the recent entry that would otherwise fill the slot?
+            if (snapshot.scoreAt(mid) >= recentRanks.get(position - mid - 1).score()) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Replaces the saved entries in memory with what was read from disk,
+     * keeping entries added since the last save after them.
+     * <p>
+     * A snapshot never changes once written and the journal only grows until
+     * the next generation, so files with the generation, snapshot size and
+     * journal length already in memory hold exactly the saved entries; they
+     * are left alone and the version is kept.
+     *
+     * @param disk the files' contents
+     */
+    private synchronized void refresh(Opened disk) {
+        if (disk.generation() == loadedGeneration && disk.snapshot().size() == snapshot.size()
+                && disk.journal().size() == persisted) {
+            return;
+        }
+
+        List<LeaderboardSnapshot.Added> unsaved = new ArrayList<>(recent.subList(persisted, recent.size()));
+        snapshot = disk.snapshot();
+        recent.clear();
+        recent.addAll(disk.journal());
+        recent.addAll(unsaved);
+        persisted = disk.journal().size();
+        loadedGeneration = disk.generation();
+        resort();
+    }
+
+    /**
+     * Runs a task holding the exclusive lock on {@link #lockFile}, waiting
+     * for other processes to release it. Callers hold {@link #ioLock}.
+     *
+     * @param task the task
+     * @param <T> result type
+     * @return the task's result
+     * @throws IOException if the lock cannot be taken or the task fails
+     */
+    private <T> T withFileLock(IoTask<T> task) throws IOException {
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return task.run();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds {@link #recentRanks} from {@link #recent}.
+     */
+    private void resort() {
+        recentRanks.clear();
+        for (LeaderboardSnapshot.Added a : recent) recentRanks.add(a.entry());
+        changed();
+    }
+
+    /**
+     * Records that the entries changed, invalidating the cached top list.
+     */
+    private void changed() {
+        version++;
+        topLimit = -1;
+    }
+
+    /**
+     * @return number of valid records in the current journal
+     */
+    synchronized int getJournalRecords() {
+        return persisted;
+    }
+
+    /**
+     * @return number of entries held in memory rather than in the mapped snapshot
+     */
+    synchronized int getEntriesInMemory() {
+        return recent.size();
+    }
+
+    /**
+     * Writes a new snapshot of {@code base} followed by {@code added}, points
+     * the manifest at it, maps it and starts an empty journal. The caller
+     * swaps the snapshot in and drops {@code added} from memory.
+     *
+     * @param base entries already in a snapshot
+     * @param added entries to merge into it, in the order they were added
+     * @return the new snapshot, or {@code null} if it could not be written
+     */
+    private LeaderboardSnapshot compact(LeaderboardSnapshot base, List<LeaderboardSnapshot.Added> added) {
+        try {
+            long next = generation + 1;
+            Path data = snapshotPath(next);
+            LeaderboardSnapshot.write(data, base, added);
+            LeaderboardSnapshot written = LeaderboardSnapshot.open(data);
+            writeManifest(next);
+
+            Path old = snapshotPath(generation);
+            generation = next;
+            Files.deleteIfExists(journal.toPath());
+            deleteQuietly(old);
+            return written;
         } catch (IOException e) {
-            return false;
+            return null;
+        }
+    }
+
+    /**
+     * Reads the manifest and journal, mapping the snapshot and learning the
+     * current generation.
+     * <p>
+     * With the file lock held, a torn record at the end of the journal is cut
+     * off, stale files are deleted and a leaderboard in an older format is
+     * converted. Without it nothing is modified: the read is checked against
+     * the manifest afterwards and repeated if a writer replaced the snapshot
+     * meanwhile, and an older format is converted after taking the lock.
+     *
+     * @param locked true if the caller holds the file lock
+     * @return the mapped snapshot and the journal's entries
+     * @throws IOException if the leaderboard files cannot be read or are corrupt
+     */
+    private Opened open(boolean locked) throws IOException {
+        if (locked) return read(true);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Opened disk = read(false);
+                if (disk == null) return withFileLock(() -> read(true));
+                if (disk.generation() == readManifestGeneration()) return disk;
+            } catch (NoSuchFileException e) {
+                // A compaction deleted the snapshot between reading the manifest and mapping it
+                if (attempt == READ_ATTEMPTS) throw e;
+            }
+            if (attempt == READ_ATTEMPTS) throw new IOException("Leaderboard kept changing while being read");
         }
     }
 
+    /**
+     * Reads the files once; see {@link #open(boolean)}.
+     *
+     * @param locked true if the caller holds the file lock
+     * @return what was read, or {@code null} if the files are in an older format and not locked
+     * @throws IOException if the leaderboard files cannot be read or are corrupt
+     */
+    private Opened read(boolean locked) throws IOException {
+        List<LeaderboardSnapshot.Added> onDisk = new ArrayList<>();
+        LeaderboardSnapshot mapped = LeaderboardSnapshot.EMPTY;
+        generation = 0;
 
-    public void load() {
-        if (!file.exists()) return;
+        if (file.exists()) {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xAC && (bytes[1] & 0xFF) == 0xED) {
+                if (!locked) return null;
+                return new Opened(convert(readLegacy(bytes)), new ArrayList<>(), generation);
+            }
+
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            if (buf.remaining() < 8 || buf.getInt() != SNAPSHOT_MAGIC) throw new IOException("Not a leaderboard file");
+            if (buf.getInt() == INLINE_SNAPSHOT_VERSION) {
+                if (!locked) return null;
+                generation = readInlineSnapshot(buf, onDisk);
+                if (journal.exists()) readJournal(onDisk, INLINE_SNAPSHOT_VERSION, true);
+                return new Opened(convert(onDisk), new ArrayList<>(), generation);
+            }
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-            entries.clear();
-            List<ScoreEntry> loaded = (List<ScoreEntry>) in.readObject();
-            entries.addAll(loaded);
-        } catch (IOException | ClassNotFoundException e) {
-            throw new RuntimeException("Failed to load leaderboard from " + file.getAbsolutePath(), e);
+            generation = parseManifest(bytes);
+            mapped = LeaderboardSnapshot.open(snapshotPath(generation));
+            if (locked) deleteStaleSnapshots();
         }
+
+        readJournal(onDisk, FORMAT_VERSION, locked);
+        return new Opened(mapped, onDisk, generation);
     }
 
-    public void clear() {
-        entries.clear();
-        save();
+    /**
+     * @return generation named by the manifest, or 0 if there is none yet
+     * @throws IOException if the manifest cannot be read or is corrupt
+     */
+    private long readManifestGeneration() throws IOException {
+        try {
+            return parseManifest(Files.readAllBytes(file.toPath()));
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @param bytes manifest contents
+     * @return the generation it names
+     * @throws IOException if the manifest is corrupt
+     */
+    private static long parseManifest(byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, Math.min(bytes.length, MANIFEST_BYTES - 4));
+        if (bytes.length != MANIFEST_BYTES || buf.getInt() != SNAPSHOT_MAGIC || buf.getInt() != FORMAT_VERSION
+                || buf.getInt(MANIFEST_BYTES - 4) != (int) crc.getValue()) {
+            throw new IOException("Corrupt leaderboard manifest");
+        }
+        return buf.getLong();
+    }
+
+    /**
+     * Rewrites a leaderboard read from an older format as a mapped snapshot.
+     * Callers hold the file lock.
+     *
+     * @param entries every entry, in the order they were added
+     * @return the new snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    private LeaderboardSnapshot convert(List<LeaderboardSnapshot.Added> entries) throws IOException {
+        // Journal records must never follow an old-format file, which would hide them
+        LeaderboardSnapshot written = compact(LeaderboardSnapshot.EMPTY, entries);
+        if (written == null) throw new IOException("Could not convert old leaderboard");
+        return written;
+    }
+
+    /**
+     * Parses a leaderboard file of the old format that held every entry inline.
+     *
+     * @param buf file contents, positioned after the magic and version
+     * @param out receives the entries
+     * @return first journal generation the file does not include
+     * @throws IOException if the file is corrupt
+     */
+    private static long readInlineSnapshot(ByteBuffer buf, List<LeaderboardSnapshot.Added> out) throws IOException {
+        if (buf.remaining() < 12) throw new IOException("Not a leaderboard snapshot");
+        long next = buf.getLong();
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            LeaderboardSnapshot.Added e = readRecord(buf, INLINE_SNAPSHOT_VERSION);
+            if (e == null) throw new IOException("Corrupt leaderboard snapshot at entry " + i);
+            out.add(e);
+        }
+        return next;
     }
-}
 
+    /**
+     * Reads the journal's complete records into {@code out} if it belongs to
+     * the current generation. With the file lock held, a stale or unreadable
+     * journal is deleted and a torn tail is truncated so later appends follow
+     * the last good record; without it, they are only skipped.
+     *
+     * @param out receives the entries
+     * @param expectedVersion format version the journal must have
+     * @param locked true if the caller holds the file lock
+     * @throws IOException if the journal cannot be read or repaired
+     */
+    private void readJournal(List<LeaderboardSnapshot.Added> out, int expectedVersion, boolean locked)
+            throws IOException {
+        ByteBuffer buf;
+        try {
+            buf = ByteBuffer.wrap(Files.readAllBytes(journal.toPath()));
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (buf.remaining() < JOURNAL_HEADER_BYTES
+                || buf.getInt() != JOURNAL_MAGIC || buf.getInt() != expectedVersion
+                || buf.getLong() != generation) {
+            // Torn header, or already folded into the snapshot by a compaction that crashed before deleting it
+            if (locked) Files.delete(journal.toPath());
+            return;
+        }
+
+        int good = buf.position();
+        LeaderboardSnapshot.Added e;
+        while ((e = readRecord(buf, expectedVersion)) != null) {
+            out.add(e);
+            good = buf.position();
+        }
+
+        if (locked && good < buf.limit()) {
+            try (FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(good);
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Reads a leaderboard written with Java serialization by older versions.
+     * Those files did not record when entries were added.
+     *
+     * @param bytes file contents
+     * @return the entries
+     * @throws IOException if the file cannot be deserialized
+     */
+    @SuppressWarnings("unchecked")
+    private static List<LeaderboardSnapshot.Added> readLegacy(byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            List<LeaderboardSnapshot.Added> out = new ArrayList<>();
+            for (ScoreEntry e : (List<ScoreEntry>) in.readObject()) out.add(new LeaderboardSnapshot.Added(e, 0));
+            return out;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable legacy leaderboard", e);
+        }
+    }
+
+    /**
+     * Appends records to the journal, creating it with a header if needed,
+     * and flushes them to the device unless the {@link FsyncPolicy} leaves
+     * that to the operating system.
+     *
+     * @param added entries to append
+     * @throws IOException if writing fails
+     */
+    private void appendToJournal(List<LeaderboardSnapshot.Added> added) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (!journal.exists() || journal.length() == 0) {
+            out.writeInt(JOURNAL_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(generation);
+        }
+        for (LeaderboardSnapshot.Added e : added) writeRecord(out, e);
+
+        try (FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+            while (buf.hasRemaining()) channel.write(buf);
+            if (fsyncPolicy == FsyncPolicy.EVERY_SAVE) channel.force(false);
+        }
+    }
+
+    /**
+     * Writes the manifest under a temporary name and renames it over the
+     * leaderboard file, so readers only ever see a complete manifest.
+     *
+     * @param nextGeneration generation of the snapshot it names, which is
+     *                       also the first journal generation that snapshot does not include
+     * @throws IOException if writing fails
+     */
+    private void writeManifest(long nextGeneration) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(MANIFEST_BYTES);
+        buf.putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION).putLong(nextGeneration);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, MANIFEST_BYTES - 4);
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+
+        Path tmp = Path.of(file.getPath() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) channel.write(buf);
+                channel.force(true);
+            }
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * @param gen a generation
+     * @return the snapshot file written when that generation started
+     */
+    private Path snapshotPath(long gen) {
+        return Path.of(file.getPath() + ".snapshot-" + gen);
+    }
+
+    /**
+     * Deletes snapshots other than the current one, left behind by a crash
+     * or by a platform that refused to delete a file that was still mapped.
+     */
+    private void deleteStaleSnapshots() {
+        File dir = file.getAbsoluteFile().getParentFile();
+        String prefix = file.getName() + ".snapshot-";
+        String current = snapshotPath(generation).getFileName().toString();
+        File[] stale = dir == null ? null
+                : dir.listFiles((d, name) -> name.startsWith(prefix) && !name.equals(current));
+        if (stale == null) return;
+        for (File f : stale) deleteQuietly(f.toPath());
+    }
+
+    /**
+     * Deletes a file if possible; a leftover is removed on a later load.
+     *
+     * @param path file to delete
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Still mapped on some platforms; deleteStaleSnapshots tries again
+        }
+    }
+
+    /**
+     * Writes one record: payload length, CRC32 of the payload, then the payload.
+     *
+     * @param out destination
+     * @param added entry to write
+     * @throws IOException if writing fails
+     */
+    private static void writeRecord(DataOutputStream out, LeaderboardSnapshot.Added added) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream p = new DataOutputStream(payload);
+        p.writeInt(added.entry().score());
+        p.writeLong(added.timestamp());
+        p.writeUTF(added.entry().name());
+        byte[] bytes = payload.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+    }
+
+    /**
+     * Reads one record.
+     *
+     * @param buf source, positioned at a record; advanced past it on success
+     * @param formatVersion version of the file being read; version 1 records have no timestamp
+     * @return the entry, or {@code null} if the record is incomplete or fails its check
+     */
+    private static LeaderboardSnapshot.Added readRecord(ByteBuffer buf, int formatVersion) {
+        if (buf.remaining() < RECORD_HEADER_BYTES) return null;
+        int start = buf.position();
+        int length = buf.getInt();
+        int expected = buf.getInt();
+        if (length < 0 || length > MAX_PAYLOAD_BYTES || length > buf.remaining()) {
+            buf.position(start);
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if ((int) crc.getValue() != expected) {
+            buf.position(start);
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int score = in.readInt();
+            long timestamp = formatVersion == INLINE_SNAPSHOT_VERSION ? 0 : in.readLong();
+            return new LeaderboardSnapshot.Added(new ScoreEntry(in.readUTF(), score), timestamp);
+        } catch (IOException e) {
+            buf.position(start);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only leaderboard snapshot, memory-mapped from disk.
+ * <p>
+ * Opening a snapshot only maps the file and checks its header, so it costs
+ * the same and uses the same heap whatever the number of entries; the
+ * operating system pages in only the parts that are read. Entries are
+ * decoded one at a time when a page of the board is asked for.
+ * <p>
+ * Layout, big-endian:
+ * <ul>
+ *   <li>header: magic, format version, entry count, reserved, string table size in bytes</li>
+ *   <li>records, in the order entries were added: score (int), offset of the
+ *       name in the string table (int), time the entry was added in epoch
+ *       milliseconds (long)</li>
+ *   <li>sorted index: record numbers, highest score first, equal scores in
+ *       the order they were added</li>
+ *   <li>string table: each name as an unsigned 16-bit byte length followed by UTF-8</li>
+ * </ul>
+ *
+ * @author psyjr14
+ */
+public class LeaderboardSnapshot {
+
+    /** File signature ("CPLS"). */
+    private static final int MAGIC = 0x43504C53;
+
+    /** File format version; bump when the layout changes. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of the header in bytes. */
+    static final int HEADER_BYTES = 24;
+
+    /** Size of one record in bytes. */
+    static final int RECORD_BYTES = 16;
+
+    /** Size of one sorted index slot in bytes. */
+    private static final int INDEX_BYTES = 4;
+
+    /** Chunk size used when copying regions of an existing snapshot. */
+    private static final int COPY_CHUNK = 64 * 1024;
+
+    /** Snapshot with no entries and no file. */
+    static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(ByteBuffer.allocate(HEADER_BYTES), 0, 0);
+
+    /**
+     * An entry to add when writing a snapshot.
+     *
+     * @param entry name and score
+     * @param timestamp time the entry was added, in epoch milliseconds
+     */
+    public record Added(ScoreEntry entry, long timestamp) {}
+
+    /** The mapped file. Only absolute reads are used, so it is safe to share between readers. */
+    private final ByteBuffer buf;
+
+    /** Number of entries. */
+    private final int count;
+
+    /** Size of the string table in bytes. */
+    private final long stringBytes;
+
+    private LeaderboardSnapshot(ByteBuffer buf, int count, long stringBytes) {
+        this.buf = buf;
+        this.count = count;
+        this.stringBytes = stringBytes;
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param path snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read, is too large to map, or is not a valid snapshot
+     */
+    public static LeaderboardSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Leaderboard snapshot too short: " + path);
+            if (size > Integer.MAX_VALUE) throw new IOException("Leaderboard snapshot too large to map: " + path);
+
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a leaderboard snapshot: " + path);
+            }
+            int count = buf.getInt(8);
+            long stringBytes = buf.getLong(16);
+            if (count < 0 || stringBytes < 0
+                    || size != HEADER_BYTES + (long) count * (RECORD_BYTES + INDEX_BYTES) + stringBytes) {
+                throw new IOException("Corrupt leaderboard snapshot: " + path);
+            }
+            return new LeaderboardSnapshot(buf, count, stringBytes);
+        }
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param position 0-based position, highest score first
+     * @return score of the entry at that position
+     */
+    public int scoreAt(int position) {
+        return buf.getInt(recordOffset(position));
+    }
+
+    /**
+     * @param position 0-based position, highest score first
+     * @return time the entry at that position was added, in epoch milliseconds
+     */
+    public long timestampAt(int position) {
+        return buf.getLong(recordOffset(position) + 8);
+    }
+
+    /**
+     * Decodes the entry at a position.
+     *
+     * @param position 0-based position, highest score first
+     * @return the entry
+     */
+    public ScoreEntry entryAt(int position) {
+        int record = recordOffset(position);
+        int nameOffset = stringsOffset() + buf.getInt(record + 4);
+        int length = Short.toUnsignedInt(buf.getShort(nameOffset));
+        byte[] name = new byte[length];
+        buf.get(nameOffset + 2, name);
+        return new ScoreEntry(new String(name, StandardCharsets.UTF_8), buf.getInt(record));
+    }
+
+    /**
+     * @param score a score
+     * @return number of entries with a strictly higher score
+     */
+    public int countHigher(int score) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (scoreAt(mid) > score) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Writes a snapshot holding every entry of {@code base} followed by
+     * {@code added}. Regions of the base snapshot are copied and merged as
+     * streams, so the heap used depends only on the number of added entries.
+     * The file is written under a temporary name, flushed to the device and
+     * then renamed to {@code target}.
+     *
+     * @param target file to create
+     * @param base existing entries
+     * @param added entries added after them, in the order they were added
+     * @throws IOException if writing fails or a name is too long
+     */
+    public static void write(Path target, LeaderboardSnapshot base, List<Added> added) throws IOException {
+        long total = (long) base.count + added.size();
+        if (total > Integer.MAX_VALUE) throw new IOException("Too many leaderboard entries");
+
+        // Names of the added entries, placed after the base string table
+        List<byte[]> names = new ArrayList<>(added.size());
+        long[] nameOffsets = new long[added.size()];
+        long stringBytes = base.stringBytes;
+        for (int i = 0; i < added.size(); i++) {
+            byte[] name = added.get(i).entry().name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) throw new IOException("Name too long for leaderboard: " + name.length + " bytes");
+            names.add(name);
+            nameOffsets[i] = stringBytes;
+            stringBytes += 2 + name.length;
+        }
+        long size = HEADER_BYTES + total * (RECORD_BYTES + INDEX_BYTES) + stringBytes;
+        if (size > Integer.MAX_VALUE) throw new IOException("Leaderboard snapshot would be too large to map");
+
+        // Stable sort, so equal scores stay in the order they were added
+        List<Integer> order = new ArrayList<>(added.size());
+        for (int i = 0; i < added.size(); i++) order.add(i);
+        order.sort(Comparator.comparingInt((Integer i) -> added.get(i).entry().score()).reversed());
+
+        Path tmp = Path.of(target + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), COPY_CHUNK));
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt((int) total);
+                out.writeInt(0);
+                out.writeLong(stringBytes);
+
+                base.copy(out, HEADER_BYTES, (long) base.count * RECORD_BYTES);
+                for (int i = 0; i < added.size(); i++) {
+                    out.writeInt(added.get(i).entry().score());
+                    out.writeInt((int) nameOffsets[i]);
+                    out.writeLong(added.get(i).timestamp());
+                }
+
+                // Merge the base index with the added entries; on equal scores the base entries came first
+                int b = 0;
+                int a = 0;
+                while (b < base.count || a < order.size()) {
+                    boolean takeBase = a == order.size()
+                            || (b < base.count && base.scoreAt(b) >= added.get(order.get(a)).entry().score());
+                    if (takeBase) {
+                        out.writeInt(base.buf.getInt(base.indexOffset() + b * INDEX_BYTES));
+                        b++;
+                    } else {
+                        out.writeInt(base.count + order.get(a));
+                        a++;
+                    }
+                }
+
+                base.copy(out, base.stringsOffset(), base.stringBytes);
+                for (byte[] name : names) {
+                    out.writeShort(name.length);
+                    out.write(name);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies a region of the mapped file to a stream.
+     *
+     * @param out destination
+     * @param offset start of the region
+     * @param length length of the region in bytes
+     * @throws IOException if writing fails
+     */
+    private void copy(DataOutputStream out, long offset, long length) throws IOException {
+        byte[] chunk = new byte[(int) Math.min(COPY_CHUNK, Math.max(length, 1))];
+        long done = 0;
+        while (done < length) {
+            int n = (int) Math.min(chunk.length, length - done);
+            buf.get((int) (offset + done), chunk, 0, n);
+            out.write(chunk, 0, n);
+            done += n;
+        }
+    }
+
+    private int recordOffset(int position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException("position " + position + " of " + count);
+        }
+        int record = buf.getInt(indexOffset() + position * INDEX_BYTES);
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    private int indexOffset() {
+        return HEADER_BYTES + count * RECORD_BYTES;
+    }
+
+    private int stringsOffset() {
+        return indexOffset() + count * INDEX_BYTES;
+    }
+}
@@ -0,0 +1,50 @@
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+
+/**
+ * Screen shown while assets load in the background.
+ *
+ * <p>Uses only built-in controls and the default font, so it can be shown
+ * before anything has been loaded.</p>
+ */
+public class LoadingView extends VBox {
+
+    private final Label status = new Label();
+    private final ProgressBar bar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+
+    /**
+     * Creates a loading screen.
+     *
+     * @param message text shown above the progress bar
+     */
+    public LoadingView(String message) {
+        super(16);
+        setAlignment(Pos.CENTER);
+        setStyle("-fx-background-color: black;");
+
+        status.setText(message);
+        status.setStyle("-fx-text-fill: white; -fx-font-size: 24px;");
+        bar.setPrefWidth(360);
+
+        getChildren().addAll(status, bar);
+    }
+
+    /**
+     * Updates the progress bar. Must be called on the JavaFX thread.
+     *
+     * @param done assets loaded so far
+     * @param total assets in the batch
+     */
+    public void setProgress(int done, int total) {
+        bar.setProgress(total == 0 ? 1 : (double) done / total);
+    }
+
+    /**
+     * @return current progress in {@code [0, 1]}, or negative while indeterminate
+     */
+    public double getProgress() {
+        return bar.getProgress();
+    }
+}
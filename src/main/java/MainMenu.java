@@ -10,12 +10,16 @@ import javafx.scene.media.MediaPlayer;
 import javafx.scene.media.MediaView;
 import javafx.scene.control.Slider;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceBox;
 
 /**
  * Main menu view displayed when the application starts.
  *
  * <p>Provides options to start the game, quit the application,
- * toggle music, and adjust text scaling.</p>
+ * toggle music, adjust text scaling, and choose the simulation tick rate.</p>
+ *
+ * <p>The animated background is not opened until {@link #playBackground()},
+ * so the menu can be shown before any video is decoded.</p>
  */
 public class MainMenu extends StackPane {
 
@@ -31,9 +35,12 @@ public class MainMenu extends StackPane {
     /** Audio controller for menu music. */
     private AudioManager audio;
 
-    /** Media player for the animated background. */
+    /** Media player for the animated background; null until played. */
     private MediaPlayer mp;
 
+    /** View showing the animated background; null until played. */
+    private MediaView background;
+
     /**
      * Creates the main menu UI.
      *
@@ -46,10 +53,8 @@ public class MainMenu extends StackPane {
         this.settings = settings;
         this.audio = audio;
 
-        MediaView background = createBlurredGifBackground();
-        VBox menuContent = createMenuContent();
-
-        getChildren().addAll(background, menuContent);
+        setStyle("-fx-background-color: black;");
+        getChildren().add(createMenuContent());
     }
 
     /**
@@ -67,8 +72,6 @@ public class MainMenu extends StackPane {
      * @return media view displaying the background animation
      */
     private MediaView createBlurredGifBackground() {
-        setStyle("-fx-background-color: black;");
-
         Media bg = new Media(
                 getClass().getResource("/Gifs/Start.mp4").toExternalForm()
         );
@@ -95,6 +98,7 @@ public class MainMenu extends StackPane {
     private VBox createMenuContent() {
         Label title = new Label("Cyborg Platform");
         Label textLabel = new Label("Text Size");
+        Label tickLabel = new Label("Tick Rate (Hz)");
 
         CheckBox musicToggle = new CheckBox("Music");
         musicToggle.setSelected(settings.isMusicEnabled());
@@ -112,6 +116,11 @@ public class MainMenu extends StackPane {
         Button quit = new Button("Quit");
         quit.setOnAction(e -> getScene().getWindow().hide());
 
+        ChoiceBox<Integer> tickRate = new ChoiceBox<>();
+        for (int hz : GameSettings.TICK_RATES) tickRate.getItems().add(hz);
+        tickRate.setValue(settings.getTickRate());
+        tickRate.valueProperty().addListener((obs, oldV, newV) -> settings.setTickRate(newV));
+
         Slider textSize = new Slider(0.75, 1.5, settings.getTextScale());
         textSize.setShowTickLabels(true);
         textSize.setShowTickMarks(true);
@@ -119,16 +128,16 @@ public class MainMenu extends StackPane {
         textSize.valueProperty().addListener((obs, oldV, newV) -> {
             double scale = newV.doubleValue();
             settings.setTextScale(scale);
-            applyMenuScale(title, textLabel, musicToggle, start, quit, scale);
+            applyMenuScale(title, textLabel, tickLabel, musicToggle, start, quit, scale);
         });
 
-        VBox box = new VBox(16, title, textLabel, textSize, musicToggle, start, quit);
+        VBox box = new VBox(16, title, textLabel, textSize, tickLabel, tickRate, musicToggle, start, quit);
         box.setAlignment(Pos.CENTER);
 
         start.setMinWidth(220);
         quit.setMinWidth(220);
 
-        applyMenuScale(title, textLabel, musicToggle, start, quit, settings.getTextScale());
+        applyMenuScale(title, textLabel, tickLabel, musicToggle, start, quit, settings.getTextScale());
 
         return box;
     }
@@ -138,6 +147,7 @@ public class MainMenu extends StackPane {
      *
      * @param title menu title label
      * @param textLabel label for text size slider
+     * @param tickLabel label for tick rate choice
      * @param musicToggle music toggle checkbox
      * @param start start game button
      * @param quit quit button
@@ -146,6 +156,7 @@ public class MainMenu extends StackPane {
     private void applyMenuScale(
             Label title,
             Label textLabel,
+            Label tickLabel,
             CheckBox musicToggle,
             Button start,
             Button quit,
@@ -153,26 +164,34 @@ public class MainMenu extends StackPane {
     ) {
         title.setFont(Font.font(gameFont.getFamily(), 48 * scale));
         textLabel.setFont(Font.font(gameFont.getFamily(), 16 * scale));
+        tickLabel.setFont(Font.font(gameFont.getFamily(), 16 * scale));
         musicToggle.setFont(Font.font(gameFont.getFamily(), 18 * scale));
         start.setFont(Font.font(gameFont.getFamily(), 18 * scale));
         quit.setFont(Font.font(gameFont.getFamily(), 18 * scale));
     }
 
     /**
-     * Starts background animation playback.
+     * Starts background animation playback, opening the video the first time.
      */
     public void playBackground() {
-        if (mp != null) mp.play();
+        if (mp == null) {
+            background = createBlurredGifBackground();
+            getChildren().add(0, background);
+        } else {
+            mp.play();
+        }
     }
 
     /**
-     * Stops background animation playback.
+     * Stops background animation playback and releases the video.
      */
     public void stopBackground() {
         if (mp != null) {
             mp.stop();
             mp.dispose();
             mp = null;
+            getChildren().remove(background);
+            background = null;
         }
     }
 }
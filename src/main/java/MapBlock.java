@@ -1,9 +1,7 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a single solid tile in the game map.
  * <p>
- * Each MapBlock has a fixed position and image and is used for
+ * Each MapBlock has a fixed position and sprite and is used for
  * rendering terrain and handling collision detection.
  *
  * @author psyjr14
@@ -16,18 +14,18 @@ public class MapBlock {
     /** Y-coordinate of the block in pixels. */
     public final int y;
 
-    /** Image used to render this block. */
-    public final Image image;
+    /** Sprite giving the block's size; resolved to an image by the renderer. */
+    public final Sprite sprite;
 
     /**
      * Constructs a map block at the given position.
      *
-     * @param image image used to draw the block
+     * @param sprite sprite used to draw the block
      * @param x x-coordinate in pixels
      * @param y y-coordinate in pixels
      */
-    public MapBlock(Image image, int x, int y) {
-        this.image = image;
+    public MapBlock(Sprite sprite, int x, int y) {
+        this.sprite = sprite;
         this.x = x;
         this.y = y;
     }
@@ -1,6 +1,3 @@
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -8,11 +5,11 @@ import java.util.List;
 import java.util.Scanner;
 
 /**
- * Manages the loading, storage, and rendering of map blocks.
+ * Manages the loading and storage of map blocks.
  * <p>
  * The map layout is defined in a text file where each character
  * represents a specific tile type. Non-zero characters are converted
- * into {@link MapBlock} instances using a corresponding image.
+ * into {@link MapBlock} instances using a corresponding tile sprite.
  */
 public class MapBlocks {
 
@@ -22,6 +19,9 @@ public class MapBlocks {
     /** Total width of the map in pixels. */
     private int mapWidth;
 
+    /** Incremented whenever the block layout changes, so cached renders can be invalidated. */
+    private int version;
+
     /**
      * Returns all map blocks currently loaded.
      *
@@ -40,18 +40,31 @@ public class MapBlocks {
         return mapWidth;
     }
 
+    /**
+     * Returns the layout version of this map.
+     * <p>
+     * The version changes every time the blocks are (re)loaded, allowing the
+     * renderer to discard any pre-rendered tile chunks.
+     *
+     * @return current layout version
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Loads the map from the {@code Maps.txt} file and generates map blocks.
      * <p>
-     * Each character in the file corresponds to an image index in the
-     * provided image array. The character {@code '0'} represents empty
+     * Each character in the file corresponds to a sprite index in the
+     * provided tile array. The character {@code '0'} represents empty
      * space and does not generate a block.
      *
-     * @param mapImages array of tile images indexed by tile ID
+     * @param mapSprites array of tile sprites indexed by tile ID
      * @throws RuntimeException if the map file cannot be read
      */
-    public void load(Image[] mapImages) {
+    public void load(Sprite[] mapSprites) {
         blocks.clear();
+        version++;
 
         int tileX = 0;
         int tileY = 0;
@@ -59,7 +72,7 @@ public class MapBlocks {
         var stream = MapBlocks.class.getResourceAsStream("/Maps.txt");
         if (stream == null) throw new IllegalArgumentException("Missing resource: /Maps.txt");
         try (Scanner scanner = new Scanner(stream)) {
-            Image imageTile = mapImages[9];
+            Sprite tile = mapSprites[9];
 
             while (scanner.hasNextLine()) {
                 String line = scanner.nextLine();
@@ -69,25 +82,25 @@ public class MapBlocks {
 
                 for (String value : types) {
                     switch (value) {
-                        case "1" -> imageTile = mapImages[0];
-                        case "2" -> imageTile = mapImages[1];
-                        case "3" -> imageTile = mapImages[2];
-                        case "4" -> imageTile = mapImages[3];
-                        case "5" -> imageTile = mapImages[4];
-                        case "6" -> imageTile = mapImages[5];
-                        case "7" -> imageTile = mapImages[6];
-                        case "8" -> imageTile = mapImages[7];
-                        case "9" -> imageTile = mapImages[8];
-                        case "A" -> imageTile = mapImages[9];
-                        case "B" -> imageTile = mapImages[10];
-                        case "C" -> imageTile = mapImages[11];
-                        case "D" -> imageTile = mapImages[12];
-                        case "E" -> imageTile = mapImages[13];
-                        case "F" -> imageTile = mapImages[14];
-                        case "G" -> imageTile = mapImages[15];
-                        case "H" -> imageTile = mapImages[16];
-                        case "I" -> imageTile = mapImages[17];
-                        case "J" -> imageTile = mapImages[18];
+                        case "1" -> tile = mapSprites[0];
+                        case "2" -> tile = mapSprites[1];
+                        case "3" -> tile = mapSprites[2];
+                        case "4" -> tile = mapSprites[3];
+                        case "5" -> tile = mapSprites[4];
+                        case "6" -> tile = mapSprites[5];
+                        case "7" -> tile = mapSprites[6];
+                        case "8" -> tile = mapSprites[7];
+                        case "9" -> tile = mapSprites[8];
+                        case "A" -> tile = mapSprites[9];
+                        case "B" -> tile = mapSprites[10];
+                        case "C" -> tile = mapSprites[11];
+                        case "D" -> tile = mapSprites[12];
+                        case "E" -> tile = mapSprites[13];
+                        case "F" -> tile = mapSprites[14];
+                        case "G" -> tile = mapSprites[15];
+                        case "H" -> tile = mapSprites[16];
+                        case "I" -> tile = mapSprites[17];
+                        case "J" -> tile = mapSprites[18];
                     }
 
                     if (value.equals("0")) {
@@ -95,7 +108,7 @@ public class MapBlocks {
                         continue;
                     }
 
-                    blocks.add(new MapBlock(imageTile, tileX, tileY));
+                    blocks.add(new MapBlock(tile, tileX, tileY));
                     tileX += 48;
                 }
 
@@ -104,16 +117,4 @@ public class MapBlocks {
             }
         }
     }
-
-    /**
-     * Draws all map blocks onto the game canvas.
-     *
-     * @param gc graphics context used for rendering
-     */
-    public void drawMap(GraphicsContext gc) {
-        for (MapBlock block : blocks) {
-            gc.drawImage(block.image, block.x, block.y);
-        }
-    }
 }
-
@@ -0,0 +1,232 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the static tile layer as pre-rendered chunk images.
+ * <p>
+ * The map is split into fixed-width vertical strips ("chunks"). Each chunk is
+ * drawn once onto an offscreen {@link Canvas} and snapshotted into a
+ * {@link WritableImage}, so a frame only needs to blit the two or three chunks
+ * overlapping the viewport instead of drawing every visible tile.
+ * <p>
+ * Chunks are built lazily the first time they scroll into view and are kept in
+ * a bounded least-recently-used cache. The cache is rebuilt automatically when
+ * the map is reloaded (detected via {@link MapBlocks#getVersion()}), and
+ * callers can invalidate a world-space range explicitly if tiles change.
+ * <p>
+ * Snapshots must be taken on the JavaFX Application Thread, so this class is
+ * only used from the renderer.
+ *
+ * @author psyjr14
+ */
+public class MapChunkCache {
+
+    /** Width of each chunk in pixels. */
+    public static final int CHUNK_WIDTH = 512;
+
+    /** Map currently indexed by this cache. */
+    private MapBlocks map;
+
+    /** Version of {@link #map} the chunk index was built from. */
+    private int mapVersion = -1;
+
+    /** Blocks overlapping each chunk, indexed by chunk number. */
+    private List<List<MapBlock>> chunkBlocks = new ArrayList<>();
+
+    /** Height of every chunk image in pixels. */
+    private final int chunkHeight;
+
+    /** Baked chunk images, ordered from least to most recently used. */
+    private final LinkedHashMap<Integer, WritableImage> chunks;
+
+    /** Image evicted from the LRU, recycled for the next chunk bake. */
+    private WritableImage spare;
+
+    /** Offscreen canvas used to bake a single chunk. */
+    private Canvas bakeCanvas;
+
+    /** Snapshot parameters keeping empty tile space transparent. */
+    private SnapshotParameters snapshotParams;
+
+    /** Atlas tile sprites are resolved from when baking. */
+    private SpriteAtlas atlas;
+
+    /** Number of chunk images baked so far. */
+    private int bakes;
+
+    /**
+     * Creates a new chunk cache.
+     *
+     * @param chunkHeight height of each chunk image in pixels (normally the viewport height)
+     * @param maxChunks maximum number of chunk images kept in memory
+     */
+    public MapChunkCache(int chunkHeight, int maxChunks) {
+        this.chunkHeight = chunkHeight;
+        this.chunks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, WritableImage> eldest) {
+                if (size() > maxChunks) {
+                    spare = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Draws the visible part of the tile map by blitting cached chunks.
+     *
+     * @param gc graphics context used for drawing
+     * @param map map whose tiles should be drawn
+     * @param atlas atlas providing the tile images
+     * @param cameraX camera offset in pixels
+     * @param viewWidth viewport width in pixels
+     */
+    public void draw(GraphicsContext gc, MapBlocks map, SpriteAtlas atlas, int cameraX, int viewWidth) {
+        this.atlas = atlas;
+        sync(map);
+
+        int first = Math.max(0, Math.floorDiv(cameraX, CHUNK_WIDTH));
+        int last = Math.min(chunkBlocks.size() - 1, Math.floorDiv(cameraX + viewWidth - 1, CHUNK_WIDTH));
+
+        for (int i = first; i <= last; i++) {
+            gc.drawImage(chunk(i), i * CHUNK_WIDTH - cameraX, 0);
+        }
+    }
+
+    /**
+     * Discards cached chunks overlapping a world-space x range.
+     * <p>
+     * Call this after modifying tiles in that range so the affected chunks are
+     * re-baked the next time they are drawn.
+     *
+     * @param fromX left edge of the changed range in pixels (inclusive)
+     * @param toX right edge of the changed range in pixels (exclusive)
+     */
+    public void invalidate(int fromX, int toX) {
+        int first = Math.floorDiv(fromX, CHUNK_WIDTH);
+        int last = Math.floorDiv(toX - 1, CHUNK_WIDTH);
+        for (int i = first; i <= last; i++) {
+            chunks.remove(i);
+        }
+    }
+
+    /**
+     * Drops every cached chunk and the chunk index.
+     */
+    public void clear() {
+        chunks.clear();
+        chunkBlocks = new ArrayList<>();
+        map = null;
+        mapVersion = -1;
+    }
+
+    /**
+     * @return number of chunk images currently cached
+     */
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * @return number of chunk images baked so far
+     */
+    int getBakes() {
+        return bakes;
+    }
+
+    /**
+     * @return numbers of the cached chunks, least recently used first
+     */
+    List<Integer> cachedChunks() {
+        return new ArrayList<>(chunks.keySet());
+    }
+
+    /**
+     * Rebuilds the chunk index if the map instance or its contents changed.
+     *
+     * @param current map being drawn this frame
+     */
+    private void sync(MapBlocks current) {
+        if (current == map && current.getVersion() == mapVersion) return;
+
+        chunks.clear();
+        map = current;
+        mapVersion = current.getVersion();
+        chunkBlocks = indexBlocks(current);
+    }
+
+    /**
+     * Sorts every block into the chunk(s) it overlaps.
+     *
+     * @param map map to index
+     * @return list of blocks per chunk
+     */
+    private static List<List<MapBlock>> indexBlocks(MapBlocks map) {
+        int count = Math.max(1, (map.getMapWidth() + CHUNK_WIDTH - 1) / CHUNK_WIDTH);
+        List<List<MapBlock>> index = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            index.add(new ArrayList<>());
+        }
+
+        for (MapBlock b : map.getBlocks()) {
+            int first = Math.max(0, Math.floorDiv(b.x, CHUNK_WIDTH));
+            int last = Math.min(count - 1, Math.floorDiv(b.x + b.sprite.width() - 1, CHUNK_WIDTH));
+            for (int i = first; i <= last; i++) {
+                index.get(i).add(b);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the baked image for a chunk, baking it first if needed.
+     *
+     * @param i chunk number
+     * @return chunk image
+     */
+    private WritableImage chunk(int i) {
+        WritableImage img = chunks.get(i);
+        if (img == null) {
+            img = bake(i);
+            chunks.put(i, img);
+        }
+        return img;
+    }
+
+    /**
+     * Draws one chunk's tiles onto the offscreen canvas and snapshots it.
+     *
+     * @param i chunk number
+     * @return newly baked chunk image
+     */
+    private WritableImage bake(int i) {
+        if (bakeCanvas == null) {
+            bakeCanvas = new Canvas(CHUNK_WIDTH, chunkHeight);
+            snapshotParams = new SnapshotParameters();
+            snapshotParams.setFill(Color.TRANSPARENT);
+        }
+
+        GraphicsContext bgc = bakeCanvas.getGraphicsContext2D();
+        bgc.clearRect(0, 0, CHUNK_WIDTH, chunkHeight);
+
+        int originX = i * CHUNK_WIDTH;
+        for (MapBlock b : chunkBlocks.get(i)) {
+            atlas.draw(bgc, b.sprite.path(), b.x - originX, b.y);
+        }
+
+        WritableImage target = spare;
+        spare = null;
+        bakes++;
+        return bakeCanvas.snapshot(snapshotParams, target);
+    }
+}
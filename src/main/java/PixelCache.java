@@ -0,0 +1,268 @@
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.jar.JarEntry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of decoded images.
+ * <p>
+ * Each image is stored as raw premultiplied ARGB pixels in its own file,
+ * named after a hash of its resource path and its {@link #version(URL)}: the
+ * size and modification time of a file on disk, or the size and CRC of a jar
+ * entry. An edited image therefore gets a new file and a stale one is never
+ * read, yet a cache hit never reads the PNG. A hit memory-maps the file and
+ * hands the mapped pixels straight to a
+ * {@link javafx.scene.image.PixelWriter}, so no PNG is inflated and no
+ * intermediate array is filled.
+ * <p>
+ * The cache is only an optimisation: unreadable, truncated or outdated files
+ * count as misses, and failures to write are ignored.
+ * <p>
+ * File layout, little-endian: magic, format version, width, height, then
+ * {@code width * height} pixels row by row.
+ *
+ * @author psyjr14
+ */
+public class PixelCache {
+
+    /** File signature ("CPPX"). */
+    private static final int MAGIC = 0x43505058;
+
+    /** Cache format version; bump when the layout changes. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of the file header in bytes. */
+    private static final int HEADER_BYTES = 16;
+
+    /** Extension of cache files. */
+    private static final String SUFFIX = ".px";
+
+    /**
+     * Decoded pixels read from the cache.
+     *
+     * @param width width in pixels
+     * @param height height in pixels
+     * @param argbPre premultiplied ARGB pixels, row by row
+     */
+    public record Pixels(int width, int height, IntBuffer argbPre) {}
+
+    /** Directory holding the cache files. */
+    private final Path dir;
+
+    /** Images served from the cache. */
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /** Images that had to be decoded. */
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Creates a cache; the directory is created on the first write.
+     *
+     * @param dir directory holding the cache files
+     */
+    public PixelCache(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * @return the default cache directory under {@code ~/.cyborg-platform}
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".cyborg-platform", "pixels");
+    }
+
+    /**
+     * Loads a classpath image, from the cache if possible. On a miss the PNG
+     * is decoded and its pixels are written to the cache for next time.
+     *
+     * @param resourcePath classpath resource path
+     * @return the image
+     * @throws IllegalArgumentException if the resource is missing or cannot be decoded
+     */
+    public Image load(String resourcePath) {
+        URL url = PixelCache.class.getResource(resourcePath);
+        if (url == null) throw new IllegalArgumentException("Missing resource: " + resourcePath);
+        String key = key(resourcePath, version(url));
+
+        Pixels cached = read(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            WritableImage image = new WritableImage(cached.width(), cached.height());
+            image.getPixelWriter().setPixels(0, 0, cached.width(), cached.height(),
+                    PixelFormat.getIntArgbPreInstance(), cached.argbPre(), cached.width());
+            return image;
+        }
+
+        misses.incrementAndGet();
+        Image decoded = new Image(new ByteArrayInputStream(readResource(url)));
+        if (decoded.isError()) {
+            throw new IllegalArgumentException("Cannot decode " + resourcePath, decoded.getException());
+        }
+        int w = (int) decoded.getWidth();
+        int h = (int) decoded.getHeight();
+        int[] argb = new int[w * h];
+        decoded.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), argb, 0, w);
+        write(key, w, h, argb);
+        return decoded;
+    }
+
+    /**
+     * @return number of images served from the cache
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of images that had to be decoded
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Computes the cache key of an image.
+     *
+     * @param resourcePath classpath resource path
+     * @param version bytes that change whenever the image does
+     * @return hex string identifying this version of the image
+     */
+    static String key(String resourcePath, byte[] version) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(resourcePath.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(version);
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Describes the version of a resource from metadata alone: the size and
+     * modification time of a file, or the size and CRC that a jar's central
+     * directory records for an entry. Resources from anywhere else fall back
+     * to their full contents.
+     *
+     * @param url resource location
+     * @return bytes that change whenever the resource does
+     */
+    static byte[] version(URL url) {
+        try {
+            switch (url.getProtocol()) {
+                case "file" -> {
+                    Path file = Path.of(url.toURI());
+                    return ("file:" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis())
+                            .getBytes(StandardCharsets.UTF_8);
+                }
+                case "jar" -> {
+                    JarEntry entry = ((JarURLConnection) url.openConnection()).getJarEntry();
+                    if (entry != null && entry.getCrc() != -1) {
+                        return ("jar:" + entry.getSize() + ":" + entry.getCrc()).getBytes(StandardCharsets.UTF_8);
+                    }
+                }
+                default -> { }
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // Fall back to the contents below
+        }
+        return readResource(url);
+    }
+
+    /**
+     * Maps a cache file.
+     *
+     * @param key cache key
+     * @return the cached pixels, or {@code null} if missing, outdated or unreadable
+     */
+    Pixels read(String key) {
+        Path file = dir.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) return null;
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) return null;
+            int width = buf.getInt();
+            int height = buf.getInt();
+            if (width <= 0 || height <= 0 || size != HEADER_BYTES + 4L * width * height) return null;
+
+            IntBuffer pixels = buf.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            return new Pixels(width, height, pixels);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache file. It is written under a temporary name and moved
+     * into place, so a reader never sees a partial file.
+     *
+     * @param key cache key
+     * @param width width in pixels
+     * @param height height in pixels
+     * @param argbPre premultiplied ARGB pixels, row by row
+     */
+    void write(String key, int width, int height, int[] argbPre) {
+        Path file = dir.resolve(key + SUFFIX);
+        Path tmp = dir.resolve(key + SUFFIX + ".tmp");
+
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + 4 * argbPre.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(width).putInt(height);
+        buf.asIntBuffer().put(argbPre);
+        buf.rewind();
+
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) channel.write(buf);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // Nothing else to clean up
+            }
+        }
+    }
+
+    /**
+     * @param url resource location
+     * @return the resource's bytes
+     */
+    private static byte[] readResource(URL url) {
+        try (InputStream in = url.openStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read resource: " + url, e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 import javafx.geometry.Point2D;
-import javafx.scene.image.Image;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -20,16 +22,16 @@ public class Player extends Entity {
     /** True for a short window after firing, used for animation/state. */
     private boolean justShot;
 
-    /** Timestamp (ms) of the last shot. */
+    /** {@link #clock} time (ms) of the last shot. */
     private double lastShot;
 
     /** True once the player reaches the win threshold. */
     private boolean won;
 
-    private final Image[] idleSprites;
-    private final Image[] runningSprites;
-    private final Image[] hurtSprites;
-    private final Image shootingSprite;
+    private final Sprite[] idleSprites;
+    private final Sprite[] runningSprites;
+    private final Sprite[] hurtSprites;
+    private final Sprite shootingSprite;
 
     /**
      * Constructs a new player with the given starting position, health, and sprite sets.
@@ -37,7 +39,7 @@ public class Player extends Entity {
      * @param x initial x-position in pixels
      * @param y initial y-position in pixels
      * @param health starting health value
-     * @param idleSprites idle animation sprites (index 0 is used as the initial image)
+     * @param idleSprites idle animation sprites (index 0 is used as the initial sprite)
      * @param runningSprites running animation sprites
      * @param hurtSprites hurt animation sprites
      * @param shootingSprite sprite shown while shooting
@@ -46,10 +48,10 @@ public class Player extends Entity {
             int x,
             int y,
             int health,
-            Image[] idleSprites,
-            Image[] runningSprites,
-            Image[] hurtSprites,
-            Image shootingSprite
+            Sprite[] idleSprites,
+            Sprite[] runningSprites,
+            Sprite[] hurtSprites,
+            Sprite shootingSprite
     ) {
         super(idleSprites[0], x, y, health, 10, 30);
         this.idleSprites = idleSprites;
@@ -68,12 +70,15 @@ public class Player extends Entity {
      * @param lastDir last facing direction when no directional keys are pressed
      * @param jumpPressed true if a jump was requested this frame
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    public void update(boolean[] keys, boolean lastDir, boolean jumpPressed, List<MapBlock> blocks) {
-        applyGravity(blocks);
-        updateHorizontalMovement(keys, blocks);
+    public void update(boolean[] keys, boolean lastDir, boolean jumpPressed, List<MapBlock> blocks, double dt) {
+        double k = dt / BASE_DT;
+        advanceClock(dt);
+        applyGravity(blocks, dt);
+        updateHorizontalMovement(keys, blocks, k);
         handleJump(jumpPressed);
-        updateJumpAcceleration(keys);
+        updateJumpAcceleration(keys, k);
         updateTimers();
         checkWin();
         updateState(keys, lastDir);
@@ -88,22 +93,25 @@ public class Player extends Entity {
      *
      * @param keys input state (0 = left, 1 = right)
      * @param blocks map blocks used for collision detection
+     * @param k step length in 60Hz ticks
      */
-    private void updateHorizontalMovement(boolean[] keys, List<MapBlock> blocks) {
+    private void updateHorizontalMovement(boolean[] keys, List<MapBlock> blocks, double k) {
         int maxSpeed = 5;
 
-        Entity entityCopy = copy(x + speed, y);
+        double dx = speed * k;
+        Entity entityCopy = copy(x + pixelsX(dx), y);
         if (!entityCopy.intersect(blocks)) {
-            x += speed;
+            moveX(dx, k);
 
-            if (keys[0] && speed > -maxSpeed) speed -= 1;
-            if (keys[1] && speed < maxSpeed) speed += 1;
+            if (keys[0] && speed > -maxSpeed) speed = Math.max(-maxSpeed, speed - k);
+            if (keys[1] && speed < maxSpeed) speed = Math.min(maxSpeed, speed + k);
 
             if (((!keys[0] && !keys[1]) || (keys[0] && keys[1])) && !isDamaged) {
                 speed = 0;
             }
         } else {
-            speed /= 2;
+            subX = 0;
+            halveSpeed(k);
         }
     }
 
@@ -111,9 +119,10 @@ public class Player extends Entity {
      * Applies gravity to the player and resets jump tracking when grounded.
      *
      * @param blocks map blocks used for collision detection
+     * @param dt step length in seconds
      */
-    private void applyGravity(List<MapBlock> blocks) {
-        gravity(blocks);
+    private void applyGravity(List<MapBlock> blocks, double dt) {
+        gravity(blocks, dt);
         if (isGrounded) {
             jumpCounter = 0;
         }
@@ -135,21 +144,27 @@ public class Player extends Entity {
      * Applies variable jump height behaviour.
      * <p>
      * While the jump key is held and the player is rising, gravity is reduced
-     * to allow higher jumps.
+     * to allow higher jumps. Holding the key also takes a fixed 0.02 off the
+     * normal gravity, as the original 60Hz update always did on reset.
      *
      * @param keys input state (2 = jump key held)
+     * @param k step length in 60Hz ticks
      */
-    private void updateJumpAcceleration(boolean[] keys) {
-        if (isGrounded || !keys[2] || velocity > 0) acceleration = 0.5;
-        if (keys[2] && acceleration > 0.25) acceleration -= 0.02;
+    private void updateJumpAcceleration(boolean[] keys, double k) {
+        if (isGrounded || !keys[2] || velocity > 0) {
+            acceleration = 0.5;
+            if (keys[2]) acceleration -= 0.02;
+        } else if (acceleration > 0.25) {
+            acceleration -= 0.02 * k;
+        }
     }
 
     /**
      * Updates internal timers controlling damage invincibility and shooting cooldown.
      */
     private void updateTimers() {
-        if ((System.currentTimeMillis() - damagedTime) > 1000 && isDamaged) isDamaged = false;
-        if ((System.currentTimeMillis() - lastShot) > 500 && justShot) justShot = false;
+        if ((clock - damagedTime) > 1000 && isDamaged) isDamaged = false;
+        if ((clock - lastShot) > 500 && justShot) justShot = false;
     }
 
     /**
@@ -228,25 +243,25 @@ public class Player extends Entity {
         switch (state.getState()) {
             case "idle" -> {
                 if (lastAnimation >= idleSprites.length) lastAnimation = 0;
-                if ((System.currentTimeMillis() - lastTime) > 250) {
-                    image = idleSprites[lastAnimation];
+                if ((clock - lastTime) > 250) {
+                    sprite = idleSprites[lastAnimation];
                     lastAnimation++;
-                    lastTime = System.currentTimeMillis();
+                    lastTime = clock;
                 }
             }
             case "running" -> {
                 if (lastAnimation >= runningSprites.length) lastAnimation = 0;
-                if ((System.currentTimeMillis() - lastTime) > 180) {
-                    image = runningSprites[lastAnimation];
+                if ((clock - lastTime) > 180) {
+                    sprite = runningSprites[lastAnimation];
                     lastAnimation++;
-                    lastTime = System.currentTimeMillis();
+                    lastTime = clock;
                 }
             }
             case "aerial" -> {
-                if (velocity < 0) image = runningSprites[5];
+                if (velocity < 0) sprite = runningSprites[5];
             }
-            case "hurt" -> image = hurtSprites[1];
-            case "shooting" -> image = shootingSprite;
+            case "hurt" -> sprite = hurtSprites[1];
+            case "shooting" -> sprite = shootingSprite;
         }
     }
 
@@ -261,21 +276,21 @@ public class Player extends Entity {
      * {@code Game} class remains responsible for owning and updating the global bullet list.
      *
      * @param facing true if the player is facing forwards (right), false if facing backwards (left)
-     * @param bulletImage sprite used for the bullet entity
+     * @param bulletSprite sprite used for the bullet entity
      * @return a newly created bullet if the shot was fired, or {@code null} if shooting was not allowed
      */
-    public Bullet tryShoot(boolean facing, Image bulletImage) {
+    public Bullet tryShoot(boolean facing, Sprite bulletSprite) {
         if (justShot || ammo <= 0) return null;
 
         ammo--;
         justShot = true;
-        lastShot = System.currentTimeMillis();
+        lastShot = clock;
 
         int bx = facing ? x + 47 : x - 25;
         int by = y + 10;
         int sp = facing ? 10 : -10;
 
-        Bullet b = new Bullet(bx, by, bulletImage);
+        Bullet b = new Bullet(bx, by, bulletSprite);
         b.speed = sp;
         b.startPoint = new Point2D(b.x, b.y);
         return b;
@@ -292,7 +307,7 @@ public class Player extends Entity {
     public void damage(Enemy e) {
         if (!isDamaged) {
             health--;
-            damagedTime = System.currentTimeMillis();
+            damagedTime = clock;
             isDamaged = true;
 
             if (x < e.x) {
@@ -321,4 +336,33 @@ public class Player extends Entity {
     public boolean isDead() {
         return y > 900 || health <= 0;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also writes the checkpoint, shot cooldown and win flag.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeDouble(checkPoint.getX());
+        out.writeDouble(checkPoint.getY());
+        out.writeBoolean(justShot);
+        out.writeDouble(lastShot);
+        out.writeBoolean(won);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also restores the checkpoint, shot cooldown and win flag.
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        checkPoint = new Point2D(in.readDouble(), in.readDouble());
+        justShot = in.readBoolean();
+        lastShot = in.readDouble();
+        won = in.readBoolean();
+    }
 }
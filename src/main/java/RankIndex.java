@@ -0,0 +1,209 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic index of leaderboard entries.
+ * <p>
+ * Entries are kept highest score first, with equal scores in the order they
+ * were added, in a treap whose nodes know the size of their subtree. Adding
+ * an entry, finding the rank of a score and finding the entry at a position
+ * all take O(log n) expected time; reading a page of {@code k} entries takes
+ * O(log n + k).
+ *
+ * @author psyjr14
+ */
+public class RankIndex {
+
+    /**
+     * A tree node.
+     */
+    private static final class Node {
+        /** The entry stored at this node. */
+        final ScoreEntry entry;
+        /** Heap priority; parents have higher priorities than their children. */
+        final int priority;
+        /** Entries ranked before this one. */
+        Node left;
+        /** Entries ranked after this one. */
+        Node right;
+        /** Number of nodes in this subtree. */
+        int size = 1;
+
+        Node(ScoreEntry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    /** Source of node priorities; seeded so the tree shape is reproducible. */
+    private final SplittableRandom random = new SplittableRandom(0x5EED);
+
+    /** Root of the tree, or null when empty. */
+    private Node root;
+
+    /**
+     * Adds an entry after any entries with the same score.
+     *
+     * @param entry entry to add
+     */
+    public void add(ScoreEntry entry) {
+        Node[] parts = split(root, entry.score());
+        root = merge(merge(parts[0], new Node(entry, random.nextInt())), parts[1]);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * @param score a score
+     * @return number of entries with a strictly higher score
+     */
+    public int countHigher(int score) {
+        int count = 0;
+        Node n = root;
+        while (n != null) {
+            if (n.entry.score() > score) {
+                count += size(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the 1-based rank a score has, or would have, on the board.
+     * Equal scores share the best rank.
+     *
+     * @param score a score
+     * @return one more than the number of entries with a strictly higher score
+     */
+    public int rankOf(int score) {
+        return countHigher(score) + 1;
+    }
+
+    /**
+     * @param index 0-based position, highest score first
+     * @return the entry at that position
+     * @throws IndexOutOfBoundsException if there is no such position
+     */
+    public ScoreEntry get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("index " + index + " of " + size());
+        Node n = root;
+        while (true) {
+            int left = size(n.left);
+            if (index < left) {
+                n = n.left;
+            } else if (index == left) {
+                return n.entry;
+            } else {
+                index -= left + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /**
+     * Returns consecutive entries starting at a position.
+     *
+     * @param from 0-based position of the first entry
+     * @param count maximum number of entries
+     * @return up to {@code count} entries, highest score first; empty if {@code from} is past the end
+     */
+    public List<ScoreEntry> page(int from, int count) {
+        if (from < 0 || count < 0) throw new IllegalArgumentException("from and count must not be negative");
+        List<ScoreEntry> out = new ArrayList<>(Math.min(count, Math.max(0, size() - from)));
+
+        // Descend to the first entry, remembering every node still to be visited after it
+        Deque<Node> pending = new ArrayDeque<>();
+        Node n = root;
+        int i = from;
+        while (n != null) {
+            int left = size(n.left);
+            if (i < left) {
+                pending.push(n);
+                n = n.left;
+            } else if (i == left) {
+                pending.push(n);
+                break;
+            } else {
+                i -= left + 1;
+                n = n.right;
+            }
+        }
+
+        while (out.size() < count && !pending.isEmpty()) {
+            Node next = pending.pop();
+            out.add(next.entry);
+            for (Node c = next.right; c != null; c = c.left) pending.push(c);
+        }
+        return out;
+    }
+
+    /**
+     * Splits a tree into entries that rank before a new entry with the given
+     * score (higher or equal scores) and entries that rank after it.
+     *
+     * @param t tree to split
+     * @param score score of the new entry
+     * @return the two trees, before and after
+     */
+    private static Node[] split(Node t, int score) {
+        if (t == null) return new Node[2];
+        if (t.entry.score() >= score) {
+            Node[] parts = split(t.right, score);
+            t.right = parts[0];
+            update(t);
+            parts[0] = t;
+            return parts;
+        }
+        Node[] parts = split(t.left, score);
+        t.left = parts[1];
+        update(t);
+        parts[1] = t;
+        return parts;
+    }
+
+    /**
+     * Joins two trees where every entry of {@code a} ranks before every entry of {@code b}.
+     *
+     * @param a earlier entries
+     * @param b later entries
+     * @return the joined tree
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static void update(Node n) {
+        n.size = size(n.left) + size(n.right) + 1;
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copy of everything {@link FxRenderer} and the overlays need to draw one frame.
+ * <p>
+ * The simulation thread fills a snapshot after each batch of ticks and
+ * publishes it through a {@link TripleBuffer}; the JavaFX thread then reads it
+ * without touching the live {@link Game}. Once published a snapshot is treated
+ * as read-only until the buffer hands it back to the simulation for reuse.
+ * Entity arrays only grow, so a steady-state capture allocates nothing.
+ * <p>
+ * Positions are stored both as they were at the start of the last tick and as
+ * they are now, together with the simulated time of the current state, so the
+ * renderer can interpolate between the two for display rates above the tick rate.
+ *
+ * @author psyjr14
+ */
+public class RenderSnapshot {
+
+    /** High-level controller state at capture time. */
+    public GameState state = GameState.MENU;
+
+    /** Map to draw; {@code null} until the first capture. */
+    public MapBlocks map;
+
+    /** Camera offset in pixels. */
+    public int cameraOffset;
+
+    /** Camera offset at the start of the last tick. */
+    public int prevCameraOffset;
+
+    /** {@link System#nanoTime()} the current state corresponds to in simulated time. */
+    public long tickNanos;
+
+    /** Length of one simulation tick in nanoseconds. */
+    public long stepNanos = 1_000_000_000L / SimulationLoop.DEFAULT_TICK_RATE;
+
+    /**
+     * {@link System#nanoTime()} of the oldest key event this snapshot
+     * reflects that may not have been shown yet, or 0 if there is none.
+     * Consecutive snapshots can repeat the same value.
+     */
+    public long inputNanos;
+
+    // Player
+    public int playerX;
+    public int playerY;
+    public int prevPlayerX;
+    public int prevPlayerY;
+    public Sprite playerSprite;
+    public boolean playerFacingForwards;
+    public boolean showCloud;
+    public int cloudX;
+    public int cloudY;
+
+    // HUD
+    public int health;
+    public int ammo;
+    public int attempts;
+    public long elapsedMs;
+
+    // Score / end screen
+    public int score;
+    public double runSeconds;
+    public int kills;
+    public int deaths;
+
+    // Enemies
+    public int enemyCount;
+    public int[] enemyX = new int[16];
+    public int[] enemyY = new int[16];
+    public int[] enemyPrevX = new int[16];
+    public int[] enemyPrevY = new int[16];
+    public Sprite[] enemySprite = new Sprite[16];
+    public boolean[] enemyFacingForwards = new boolean[16];
+
+    // Bullets
+    public int bulletCount;
+    public int[] bulletX = new int[16];
+    public int[] bulletY = new int[16];
+    public int[] bulletPrevX = new int[16];
+    public int[] bulletPrevY = new int[16];
+    public Sprite[] bulletSprite = new Sprite[16];
+    public boolean[] bulletForwards = new boolean[16];
+
+    /**
+     * Copies the current game, controller and score state into this snapshot.
+     * Must be called on the thread that owns the simulation.
+     *
+     * @param controller controller owning the game and its state
+     * @param scores score tracker for the current run
+     * @param tickNanos simulated time of the current state, on the {@link System#nanoTime()} clock
+     * @param stepNanos length of one simulation tick in nanoseconds
+     */
+    public void capture(GameController controller, ScoreManager scores, long tickNanos, long stepNanos) {
+        Game game = controller.getGame();
+        state = controller.getState();
+        map = game.getMap();
+        cameraOffset = game.getCameraOffset();
+        prevCameraOffset = game.getPrevCameraOffset();
+        this.tickNanos = tickNanos;
+        this.stepNanos = stepNanos;
+
+        Player p = game.getPlayer();
+        playerX = p.x;
+        playerY = p.y;
+        prevPlayerX = p.prevX;
+        prevPlayerY = p.prevY;
+        playerSprite = p.sprite;
+        playerFacingForwards = p.isFacingForwards(game.getKeysPressed(), game.isLastDirectionForwards());
+        showCloud = p.jumpCounter == 2 && p.velocity < 0;
+        cloudX = p.jumpX;
+        cloudY = p.jumpY;
+
+        health = p.health;
+        ammo = p.ammo;
+        attempts = game.getDeathCounter();
+        elapsedMs = (long) (game.getElapsedSeconds() * 1000);
+
+        score = scores.getScore();
+        runSeconds = scores.getElapsedSeconds();
+        kills = scores.getKills();
+        deaths = scores.getDeaths();
+
+        captureEnemies(game.getEnemies());
+        captureBullets(game.getActiveBullets());
+    }
+
+    /**
+     * Returns how far the display time has moved past the current state, as a
+     * fraction of one tick.
+     * <p>
+     * Outside of {@link GameState#RUNNING} nothing is ticking, so the current
+     * state is shown as-is.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return interpolation factor in {@code [0, 1]}
+     */
+    public double alpha(long nowNanos) {
+        if (state != GameState.RUNNING) return 1.0;
+        double a = (double) (nowNanos - tickNanos) / stepNanos;
+        return Math.max(0.0, Math.min(1.0, a));
+    }
+
+    private void captureEnemies(List<Enemy> enemies) {
+        int n = enemies.size();
+        if (n > enemyX.length) {
+            int cap = Math.max(n, enemyX.length * 2);
+            enemyX = Arrays.copyOf(enemyX, cap);
+            enemyY = Arrays.copyOf(enemyY, cap);
+            enemyPrevX = Arrays.copyOf(enemyPrevX, cap);
+            enemyPrevY = Arrays.copyOf(enemyPrevY, cap);
+            enemySprite = Arrays.copyOf(enemySprite, cap);
+            enemyFacingForwards = Arrays.copyOf(enemyFacingForwards, cap);
+        }
+        for (int i = 0; i < n; i++) {
+            Enemy e = enemies.get(i);
+            enemyX[i] = e.x;
+            enemyY[i] = e.y;
+            enemyPrevX[i] = e.prevX;
+            enemyPrevY[i] = e.prevY;
+            enemySprite[i] = e.sprite;
+            enemyFacingForwards[i] = e.isFacingForwards;
+        }
+        Arrays.fill(enemySprite, n, Math.max(n, enemyCount), null);
+        enemyCount = n;
+    }
+
+    private void captureBullets(List<Bullet> bullets) {
+        int n = bullets.size();
+        if (n > bulletX.length) {
+            int cap = Math.max(n, bulletX.length * 2);
+            bulletX = Arrays.copyOf(bulletX, cap);
+            bulletY = Arrays.copyOf(bulletY, cap);
+            bulletPrevX = Arrays.copyOf(bulletPrevX, cap);
+            bulletPrevY = Arrays.copyOf(bulletPrevY, cap);
+            bulletSprite = Arrays.copyOf(bulletSprite, cap);
+            bulletForwards = Arrays.copyOf(bulletForwards, cap);
+        }
+        for (int i = 0; i < n; i++) {
+            Bullet b = bullets.get(i);
+            bulletX[i] = b.x;
+            bulletY[i] = b.y;
+            bulletPrevX[i] = b.prevX;
+            bulletPrevY[i] = b.prevY;
+            bulletSprite[i] = b.sprite;
+            bulletForwards[i] = b.speed > 0;
+        }
+        Arrays.fill(bulletSprite, n, Math.max(n, bulletCount), null);
+        bulletCount = n;
+    }
+}
@@ -0,0 +1,380 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Input for every tick of one run, run-length encoded, plus periodic keyframes.
+ * <p>
+ * Each simulated tick is stored as the {@link InputHandler#getTickMask() tick
+ * mask} that was in effect when {@link Game#update(double)} ran. Consecutive
+ * identical masks are collapsed into one run, so holding a key for ten seconds
+ * costs the same as tapping it once. Since the simulation is deterministic,
+ * feeding the masks back in order with the same tick rate reproduces the run
+ * exactly; see {@link ReplayPlayer}.
+ * <p>
+ * Every {@link #KEYFRAME_SECONDS} seconds of simulated time a keyframe holds
+ * the complete world and score state from before that tick, deflated (about
+ * 300 bytes each), so a player can seek by restoring the nearest keyframe and
+ * re-simulating only the ticks after it.
+ * <p>
+ * File layout (big-endian): magic {@code "CPRP"}, version byte, tick rate,
+ * tick count and run count as ints, then one mask byte and a varint length per
+ * run. Version 2 follows this with a keyframe count and, per keyframe, its
+ * tick, byte length and deflated state. Version 1 files have no keyframes.
+ *
+ * @author psyjr14
+ */
+public class Replay {
+
+    /** Simulated seconds between keyframes. */
+    public static final int KEYFRAME_SECONDS = 10;
+
+    /** File signature, "CPRP". */
+    private static final int MAGIC = 0x43505250;
+
+    /** Current file format version. */
+    private static final int VERSION = 2;
+
+    /** Tick rate the run was simulated at, in Hz. */
+    private final int tickRate;
+
+    /** Mask of each run. */
+    private byte[] masks = new byte[64];
+
+    /** Tick just past the end of each run, i.e. the running total of run lengths. */
+    private int[] ends = new int[64];
+
+    /** Number of runs in use. */
+    private int runCount;
+
+    /** Tick each keyframe was taken before, ascending. */
+    private int[] keyframeTicks = new int[16];
+
+    /** Deflated world and score state of each keyframe. */
+    private byte[][] keyframes = new byte[16][];
+
+    /** Number of keyframes in use. */
+    private int keyframeCount;
+
+    /**
+     * Creates an empty recording.
+     *
+     * @param tickRate tick rate the run is simulated at, in Hz
+     */
+    public Replay(int tickRate) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Appends the input of one tick.
+     *
+     * @param mask tick mask from {@link InputHandler#getTickMask()}
+     */
+    public void record(int mask) {
+        if ((mask & ~0xFF) != 0) throw new IllegalArgumentException("Not a tick mask: " + mask);
+
+        if (runCount > 0 && masks[runCount - 1] == (byte) mask) {
+            ends[runCount - 1]++;
+        } else {
+            if (runCount == masks.length) {
+                masks = Arrays.copyOf(masks, runCount * 2);
+                ends = Arrays.copyOf(ends, runCount * 2);
+            }
+            masks[runCount] = (byte) mask;
+            ends[runCount] = getTickCount() + 1;
+            runCount++;
+        }
+    }
+
+    /**
+     * @return tick rate the run was simulated at, in Hz
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * @return number of ticks recorded
+     */
+    public int getTickCount() {
+        return runCount == 0 ? 0 : ends[runCount - 1];
+    }
+
+    /**
+     * @return number of runs of identical masks
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Returns the input recorded for a tick.
+     *
+     * @param tick tick index, from 0 to {@link #getTickCount()} - 1
+     * @return tick mask of that tick
+     * @throws IndexOutOfBoundsException if no such tick was recorded
+     */
+    public int maskAt(int tick) {
+        if (tick < 0 || tick >= getTickCount()) {
+            throw new IndexOutOfBoundsException("tick " + tick + " of " + getTickCount());
+        }
+        int i = Arrays.binarySearch(ends, 0, runCount, tick);
+        // An exact hit means the run ending there is done; the tick opens the next one.
+        int run = i >= 0 ? i + 1 : -i - 1;
+        return masks[run] & 0xFF;
+    }
+
+    /**
+     * Returns a copy holding only the recorded input, without keyframes.
+     *
+     * @return new replay with the same tick rate and masks
+     */
+    public Replay inputOnly() {
+        Replay copy = new Replay(tickRate);
+        copy.masks = Arrays.copyOf(masks, Math.max(1, runCount));
+        copy.ends = Arrays.copyOf(ends, Math.max(1, runCount));
+        copy.runCount = runCount;
+        return copy;
+    }
+
+    /**
+     * Returns a script that feeds the recorded masks back into an
+     * {@link InputHandler}. Ticks past the end of the recording get no input.
+     *
+     * @return input script replaying this recording
+     */
+    public HeadlessRunner.InputScript script() {
+        return (tick, input) -> input.applyTickMask(tick < getTickCount() ? maskAt(tick) : 0);
+    }
+
+    /**
+     * @return number of keyframes stored
+     */
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+
+    /**
+     * Returns whether a keyframe should be taken before the given tick: it is
+     * on a {@link #KEYFRAME_SECONDS} boundary and past the last keyframe.
+     *
+     * @param tick tick about to be simulated
+     * @return true if {@link #addKeyframe(int, Game, ScoreManager)} should be called
+     */
+    public boolean isKeyframeDue(int tick) {
+        if (tick % (tickRate * KEYFRAME_SECONDS) != 0) return false;
+        return keyframeCount == 0 || tick > keyframeTicks[keyframeCount - 1];
+    }
+
+    /**
+     * Stores the state of a world as the keyframe for a tick. Keyframes must
+     * be added in ascending tick order.
+     *
+     * @param tick tick about to be simulated
+     * @param game world to capture
+     * @param scores score state to capture
+     */
+    public void addKeyframe(int tick, Game game, ScoreManager scores) {
+        if (keyframeCount > 0 && tick <= keyframeTicks[keyframeCount - 1]) {
+            throw new IllegalArgumentException("Keyframes must be added in tick order: " + tick);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            game.writeState(out);
+            scores.writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+
+        if (keyframeCount == keyframes.length) {
+            keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+            keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+        }
+        keyframeTicks[keyframeCount] = tick;
+        keyframes[keyframeCount] = bytes.toByteArray();
+        keyframeCount++;
+    }
+
+    /**
+     * Returns the tick of the latest keyframe at or before a tick.
+     *
+     * @param tick target tick
+     * @return keyframe tick, or -1 if there is none
+     */
+    public int keyframeAtOrBefore(int tick) {
+        int i = indexAtOrBefore(tick);
+        return i < 0 ? -1 : keyframeTicks[i];
+    }
+
+    /**
+     * Restores the latest keyframe at or before a tick into a world.
+     *
+     * @param tick target tick
+     * @param game world set up with {@link Game#init()} to restore into
+     * @param scores score state to restore into
+     * @return tick of the restored keyframe, or -1 if there is none and nothing was changed
+     */
+    public int restoreKeyframe(int tick, Game game, ScoreManager scores) {
+        int i = indexAtOrBefore(tick);
+        if (i < 0) return -1;
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(keyframes[i])))) {
+            game.readState(in);
+            scores.readState(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return keyframeTicks[i];
+    }
+
+    private int indexAtOrBefore(int tick) {
+        int i = Arrays.binarySearch(keyframeTicks, 0, keyframeCount, tick);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * Writes the recording in the compact replay format.
+     *
+     * @param out stream to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(tickRate);
+        data.writeInt(getTickCount());
+        data.writeInt(runCount);
+        for (int i = 0; i < runCount; i++) {
+            data.writeByte(masks[i]);
+            writeVarInt(data, ends[i] - (i == 0 ? 0 : ends[i - 1]));
+        }
+
+        data.writeInt(keyframeCount);
+        for (int i = 0; i < keyframeCount; i++) {
+            data.writeInt(keyframeTicks[i]);
+            data.writeInt(keyframes[i].length);
+            data.write(keyframes[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a recording written by {@link #writeTo(OutputStream)}.
+     *
+     * @param in stream to read from
+     * @return the recording
+     * @throws IOException if reading fails or the data is not a valid replay
+     */
+    public static Replay readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) throw new IOException("Not a replay file");
+        int version = data.readUnsignedByte();
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported replay version: " + version);
+
+        int tickRate = data.readInt();
+        int tickCount = data.readInt();
+        int runCount = data.readInt();
+        if (tickRate <= 0 || tickCount < 0 || runCount < 0 || runCount > tickCount) {
+            throw new IOException("Corrupt replay header");
+        }
+
+        Replay replay = new Replay(tickRate);
+        replay.masks = new byte[Math.max(1, runCount)];
+        replay.ends = new int[Math.max(1, runCount)];
+        int end = 0;
+        for (int i = 0; i < runCount; i++) {
+            replay.masks[i] = data.readByte();
+            end += readVarInt(data);
+            if (end > tickCount) throw new IOException("Corrupt replay: tick count mismatch");
+            replay.ends[i] = end;
+        }
+        replay.runCount = runCount;
+        if (end != tickCount) throw new IOException("Corrupt replay: tick count mismatch");
+
+        if (version >= 2) {
+            int count = data.readInt();
+            if (count < 0) throw new IOException("Corrupt replay: bad keyframe count");
+            replay.keyframeTicks = new int[Math.max(1, count)];
+            replay.keyframes = new byte[Math.max(1, count)][];
+            for (int i = 0; i < count; i++) {
+                int tick = data.readInt();
+                int length = data.readInt();
+                if (tick < 0 || tick > tickCount || length < 0 || (i > 0 && tick <= replay.keyframeTicks[i - 1])) {
+                    throw new IOException("Corrupt replay: bad keyframe " + i);
+                }
+                replay.keyframeTicks[i] = tick;
+                replay.keyframes[i] = data.readNBytes(length);
+                if (replay.keyframes[i].length != length) throw new IOException("Corrupt replay: truncated keyframe");
+            }
+            replay.keyframeCount = count;
+        }
+        return replay;
+    }
+
+    /**
+     * Writes the recording to a file, replacing any existing one.
+     *
+     * @param path file to write
+     * @throws IOException if writing fails
+     */
+    public void save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     *
+     * @param path file to read
+     * @return the recording
+     * @throws IOException if reading fails or the file is not a valid replay
+     */
+    public static Replay load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return readFrom(in);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value <= 0) throw new IOException("Corrupt replay: bad run length");
+                return value;
+            }
+        }
+        throw new IOException("Corrupt replay: run length too long");
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Plays a {@link Replay} back headless, with seeking.
+ * <p>
+ * The recorded masks are fed into a private {@link Game}, one per tick at the
+ * recorded tick rate, so the run is reproduced exactly and as fast as the CPU
+ * allows. {@link #seek(int)} restores the nearest keyframe at or before the
+ * target and re-simulates only the ticks after it, so any point of a long
+ * replay is at most {@link Replay#KEYFRAME_SECONDS} of simulation away.
+ * <p>
+ * Replays without keyframes (for example version 1 files) are still
+ * seekable: playing forward stores a keyframe in the {@link Replay} at every
+ * boundary it crosses, so only the first pass over a stretch is slow.
+ *
+ * @author psyjr14
+ */
+public class ReplayPlayer {
+
+    /** Recording being played. */
+    private final Replay replay;
+
+    /** World the replay is played into. */
+    private final Game game = new Game();
+
+    /** Score state of the replayed run. */
+    private final ScoreManager scores = new ScoreManager();
+
+    /** Step length in seconds. */
+    private final double dt;
+
+    /** Index of the next tick to simulate. */
+    private int tick;
+
+    /**
+     * Creates a player positioned at tick 0.
+     *
+     * @param replay recording to play
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.dt = 1.0 / replay.getTickRate();
+        game.loadSprites();
+        game.init();
+        game.getEvents().subscribe(scores::onGameEvent);
+    }
+
+    /**
+     * Replays a recording from start to finish.
+     *
+     * @param replay recording to play
+     * @return result of the replayed run
+     * @throws IllegalArgumentException if the replay has no ticks
+     */
+    public static HeadlessRunner.Result play(Replay replay) {
+        if (replay.getTickCount() == 0) throw new IllegalArgumentException("Replay is empty");
+        ReplayPlayer player = new ReplayPlayer(replay);
+        while (player.step()) { }
+        return player.result();
+    }
+
+    /**
+     * Simulates the next recorded tick.
+     *
+     * @return false if the replay has ended (or the run was won) and nothing was simulated
+     */
+    public boolean step() {
+        if (tick >= replay.getTickCount() || game.isWon()) return false;
+
+        if (replay.isKeyframeDue(tick)) replay.addKeyframe(tick, game, scores);
+
+        game.getInputHandler().applyTickMask(replay.maskAt(tick));
+        game.update(dt);
+        scores.update(dt);
+        game.getEvents().drain();
+        tick++;
+        return true;
+    }
+
+    /**
+     * Moves playback to the state from before a tick.
+     * <p>
+     * If the target is behind the current position, or a keyframe lies
+     * between the two, the nearest keyframe is restored first; the remaining
+     * ticks are then simulated.
+     *
+     * @param target tick to seek to, clamped to {@code [0, tickCount]}
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, replay.getTickCount()));
+
+        int keyframe = replay.keyframeAtOrBefore(target);
+        if (target < tick || keyframe > tick) {
+            if (keyframe >= 0) {
+                tick = replay.restoreKeyframe(target, game, scores);
+            } else {
+                game.resetRunStats();
+                game.init();
+                scores.reset();
+                tick = 0;
+            }
+        }
+
+        while (tick < target && step()) { }
+    }
+
+    /**
+     * Moves playback to a point in simulated time.
+     *
+     * @param seconds simulated seconds from the start of the run
+     */
+    public void seekSeconds(double seconds) {
+        seek((int) Math.round(seconds * replay.getTickRate()));
+    }
+
+    /**
+     * @return index of the next tick to simulate
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * @return world the replay is played into
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return score state of the replayed run
+     */
+    public ScoreManager getScores() {
+        return scores;
+    }
+
+    /**
+     * @return outcome of the run up to the current position
+     */
+    public HeadlessRunner.Result result() {
+        return new HeadlessRunner.Result(game.isWon(), tick, tick * dt, scores.getScore(),
+                scores.getKills(), scores.getDeaths(), game.getPlayer().x);
+    }
+
+    /**
+     * Plays a replay file and prints the result and playback speed.
+     * <p>
+     * Usage: {@code ReplayPlayer <file>}
+     *
+     * @param args path of the replay file
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayPlayer <file>");
+            return;
+        }
+
+        Replay replay = Replay.load(Path.of(args[0]));
+
+        long start = System.nanoTime();
+        HeadlessRunner.Result r = play(replay);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d ticks at %dHz in %d runs: %s%n",
+                replay.getTickCount(), replay.getTickRate(), replay.getRunCount(), r);
+        System.out.printf("played in %.3fs (%.0fx real time)%n", seconds, r.seconds() / seconds);
+    }
+}
@@ -1,9 +1,14 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Tracks and calculates the player's score for the current run.
  *
  * <p>Score is based on time survived, kills, and deaths (penalties).
  * Call {@link #update(double)} each tick, and notify events via
- * {@link #onKill()} and {@link #onDeath()}.</p>
+ * {@link #onKill()} and {@link #onDeath()}, or subscribe
+ * {@link #onGameEvent(GameEvent, int)} to the game's {@link GameEventBus}.</p>
  */
 public class ScoreManager {
 
@@ -67,6 +72,21 @@ public class ScoreManager {
         recalc();
     }
 
+    /**
+     * Applies a kill or death published by the game; other events do not
+     * affect the score.
+     *
+     * @param type what happened
+     * @param value type-specific value (unused)
+     */
+    public void onGameEvent(GameEvent type, int value) {
+        switch (type) {
+            case KILL -> onKill();
+            case DEATH -> onDeath();
+            default -> { }
+        }
+    }
+
     /**
      * Recomputes score from current time, kills, and deaths.
      */
@@ -93,5 +113,30 @@ public class ScoreManager {
 
     /** @return number of deaths */
     public int getDeaths() { return deaths; }
-}
 
+    /**
+     * Writes the score state for a {@link Replay} keyframe.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(score);
+        out.writeDouble(elapsedSeconds);
+        out.writeInt(kills);
+        out.writeInt(deaths);
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}.
+     *
+     * @param in source
+     * @throws IOException if reading fails
+     */
+    public void readState(DataInput in) throws IOException {
+        score = in.readInt();
+        elapsedSeconds = in.readDouble();
+        kills = in.readInt();
+        deaths = in.readInt();
+    }
+}
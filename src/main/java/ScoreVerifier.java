@@ -0,0 +1,196 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Verifies leaderboard submissions by replaying them headless.
+ * <p>
+ * A {@link Submission} carries the stats the client's {@link ScoreManager}
+ * computed together with the run's {@link Replay}. The verifier re-simulates
+ * the replay from tick 0 with {@link ReplayPlayer} and only adds the entry to
+ * the {@link LeaderboardService} if the run was won and time, kills, deaths
+ * and score all match. Keyframes in the submitted replay are ignored, so a
+ * tampered keyframe cannot skip any of the simulation.
+ * <p>
+ * Work runs on a small pool of low-priority daemon threads behind a bounded
+ * queue. Submitting never blocks: when the queue is full the returned future
+ * completes straight away with a rejected {@link Verdict}.
+ *
+ * @author psyjr14
+ */
+public class ScoreVerifier implements AutoCloseable {
+
+    /**
+     * A score claimed by a client.
+     *
+     * @param name player name for the leaderboard
+     * @param score claimed final score
+     * @param kills claimed kills
+     * @param deaths claimed deaths
+     * @param seconds claimed run time in seconds
+     * @param replay input recorded for the run
+     */
+    public record Submission(String name, int score, int kills, int deaths, double seconds, Replay replay) {
+
+        /**
+         * Builds a submission from the state of a finished run.
+         *
+         * @param name player name for the leaderboard
+         * @param scores score tracker of the run
+         * @param replay input recorded for the run
+         * @return submission claiming the tracker's current stats
+         */
+        public static Submission of(String name, ScoreManager scores, Replay replay) {
+            return new Submission(name, scores.getScore(), scores.getKills(), scores.getDeaths(),
+                    scores.getElapsedSeconds(), replay);
+        }
+    }
+
+    /**
+     * Outcome of a verification.
+     *
+     * @param accepted true if the entry was added to the leaderboard
+     * @param message status suitable for showing to the player
+     * @param result result of the replayed run, or {@code null} if it was not replayed
+     */
+    public record Verdict(boolean accepted, String message, HeadlessRunner.Result result) {
+
+        static Verdict reject(String message, HeadlessRunner.Result result) {
+            return new Verdict(false, "Rejected: " + message, result);
+        }
+    }
+
+    /** Longest {@link #close()} waits for queued verifications. */
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    /** Leaderboard verified entries are added to. */
+    private final LeaderboardService leaderboard;
+
+    /** Longest replay accepted, in ticks. */
+    private final int maxTicks;
+
+    /** Re-simulates a replay from tick 0. */
+    private final Function<Replay, HeadlessRunner.Result> player;
+
+    /** Verification workers with a bounded queue. */
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Creates a verifier.
+     *
+     * @param leaderboard leaderboard verified entries are added to
+     * @param threads number of replays verified at once
+     * @param queueCapacity submissions that may wait for a free worker
+     * @param maxTicks longest replay accepted, in ticks
+     */
+    public ScoreVerifier(LeaderboardService leaderboard, int threads, int queueCapacity, int maxTicks) {
+        this(leaderboard, threads, queueCapacity, maxTicks, ReplayPlayer::play);
+    }
+
+    /**
+     * Creates a verifier that replays submissions with the given player.
+     *
+     * @param leaderboard leaderboard verified entries are added to
+     * @param threads number of replays verified at once
+     * @param queueCapacity submissions that may wait for a free worker
+     * @param maxTicks longest replay accepted, in ticks
+     * @param player re-simulates a replay and returns its result
+     */
+    ScoreVerifier(LeaderboardService leaderboard, int threads, int queueCapacity, int maxTicks,
+                  Function<Replay, HeadlessRunner.Result> player) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive: " + threads);
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        if (maxTicks <= 0) throw new IllegalArgumentException("maxTicks must be positive: " + maxTicks);
+        this.leaderboard = leaderboard;
+        this.maxTicks = maxTicks;
+        this.player = player;
+
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "score-verifier-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                });
+    }
+
+    /**
+     * Queues a submission for verification.
+     *
+     * @param submission claimed score and replay
+     * @return future completed with the verdict; never completes exceptionally
+     */
+    public CompletableFuture<Verdict> submit(Submission submission) {
+        CompletableFuture<Verdict> future = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                try {
+                    future.complete(verify(submission));
+                } catch (RuntimeException e) {
+                    future.complete(Verdict.reject("replay could not be played", null));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.complete(Verdict.reject("verifier is busy, try again", null));
+        }
+        return future;
+    }
+
+    /**
+     * @return number of submissions waiting for a worker
+     */
+    public int getQueuedCount() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Replays a submission and, if it checks out, adds it to the leaderboard.
+     * Runs on the calling thread, which waits for the leaderboard's writer
+     * thread to save the entry.
+     *
+     * @param submission claimed score and replay
+     * @return the verdict
+     */
+    Verdict verify(Submission submission) {
+        Replay replay = submission.replay();
+        if (replay == null || replay.getTickCount() == 0) return Verdict.reject("no replay", null);
+        if (replay.getTickCount() > maxTicks) return Verdict.reject("replay too long", null);
+        if (!GameSettings.isSupportedTickRate(replay.getTickRate())) return Verdict.reject("unsupported tick rate", null);
+
+        HeadlessRunner.Result r = player.apply(replay.inputOnly());
+
+        if (!r.won()) return Verdict.reject("run was not completed", r);
+        if (r.ticks() != replay.getTickCount()) return Verdict.reject("input continues after the win", r);
+        // The claimed time is a running sum of tick lengths, so allow rounding but not a whole tick
+        if (Math.abs(r.seconds() - submission.seconds()) > 0.5 / replay.getTickRate()) {
+            return Verdict.reject("time does not match replay", r);
+        }
+        if (r.kills() != submission.kills()) return Verdict.reject("kills do not match replay", r);
+        if (r.deaths() != submission.deaths()) return Verdict.reject("deaths do not match replay", r);
+        if (r.score() != submission.score()) return Verdict.reject("score does not match replay", r);
+
+        leaderboard.addEntry(submission.name(), r.score());
+        boolean saved = leaderboard.saveAsync().join();
+        return new Verdict(true, saved ? "Saved!" : "Verified, but save failed", r);
+    }
+
+    /**
+     * Stops accepting submissions and waits a few seconds for queued ones to
+     * be verified and saved. The workers are daemon threads, so anything still
+     * running after that is lost when the JVM exits.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many independent headless worlds in parallel.
+ * <p>
+ * Every run gets its own {@link Game}, {@link InputHandler} and
+ * {@link ScoreManager} from {@link HeadlessRunner#run}, and worlds share no
+ * mutable state (entity timers and the run clock are simulated per world), so
+ * runs can be spread over a fixed pool with one thread per core and
+ * throughput scales with the number of cores.
+ * <p>
+ * Results come back in the same order as the scripts, and
+ * {@link #summarise(List, double)} folds them into a {@link Summary} for
+ * balance testing.
+ *
+ * @author psyjr14
+ */
+public class SimulationFarm implements AutoCloseable {
+
+    /**
+     * Aggregate statistics over a batch of runs.
+     *
+     * @param runs number of runs
+     * @param wins runs that reached the win condition
+     * @param meanWinSeconds mean simulated completion time of won runs, or {@code NaN} if none were won
+     * @param meanDeaths mean deaths per run
+     * @param meanKills mean kills per run
+     * @param meanScore mean final score
+     * @param bestScore highest final score
+     * @param ticks total ticks simulated
+     * @param wallSeconds real time the batch took
+     */
+    public record Summary(int runs, int wins, double meanWinSeconds, double meanDeaths, double meanKills,
+                          double meanScore, int bestScore, long ticks, double wallSeconds) {
+
+        /**
+         * @return runs completed per real minute
+         */
+        public double runsPerMinute() {
+            return wallSeconds > 0 ? runs / wallSeconds * 60 : 0;
+        }
+    }
+
+    /** Runner shared by all worlds; it holds only configuration. */
+    private final HeadlessRunner runner;
+
+    /** Worker threads, one world per thread at a time. */
+    private final ExecutorService pool;
+
+    /** Number of worker threads. */
+    private final int threads;
+
+    /**
+     * Creates a farm with one worker per available core.
+     *
+     * @param runner runner defining the tick rate and tick limit of each world
+     */
+    public SimulationFarm(HeadlessRunner runner) {
+        this(runner, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a farm.
+     *
+     * @param runner runner defining the tick rate and tick limit of each world
+     * @param threads number of worlds simulated at once
+     */
+    public SimulationFarm(HeadlessRunner runner, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive: " + threads);
+        this.runner = runner;
+        this.threads = threads;
+
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "farm-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return number of worlds simulated at once
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Plays one world per script and waits for all of them to finish.
+     *
+     * @param scripts input script for each world
+     * @return results in the same order as {@code scripts}
+     * @throws IllegalStateException if a run fails or the caller is interrupted
+     */
+    public List<HeadlessRunner.Result> runAll(List<HeadlessRunner.InputScript> scripts) {
+        List<Future<HeadlessRunner.Result>> futures = new ArrayList<>(scripts.size());
+        for (HeadlessRunner.InputScript script : scripts) {
+            futures.add(pool.submit(() -> runner.run(script)));
+        }
+
+        List<HeadlessRunner.Result> results = new ArrayList<>(scripts.size());
+        try {
+            for (Future<HeadlessRunner.Result> f : futures) {
+                results.add(f.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Simulation run failed", e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for runs", e);
+        }
+        return results;
+    }
+
+    /**
+     * Plays one world per script and summarises the batch.
+     *
+     * @param scripts input script for each world
+     * @return aggregate statistics, including the real time taken
+     */
+    public Summary run(List<HeadlessRunner.InputScript> scripts) {
+        long start = System.nanoTime();
+        List<HeadlessRunner.Result> results = runAll(scripts);
+        return summarise(results, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Aggregates a batch of results.
+     *
+     * @param results results to aggregate
+     * @param wallSeconds real time the batch took
+     * @return summary of the batch
+     */
+    public static Summary summarise(List<HeadlessRunner.Result> results, double wallSeconds) {
+        int wins = 0;
+        double winSeconds = 0;
+        long deaths = 0;
+        long kills = 0;
+        long score = 0;
+        int bestScore = Integer.MIN_VALUE;
+        long ticks = 0;
+
+        for (HeadlessRunner.Result r : results) {
+            if (r.won()) {
+                wins++;
+                winSeconds += r.seconds();
+            }
+            deaths += r.deaths();
+            kills += r.kills();
+            score += r.score();
+            bestScore = Math.max(bestScore, r.score());
+            ticks += r.ticks();
+        }
+
+        int runs = results.size();
+        if (runs == 0) return new Summary(0, 0, Double.NaN, 0, 0, 0, 0, 0, wallSeconds);
+
+        return new Summary(runs, wins, wins > 0 ? winSeconds / wins : Double.NaN,
+                (double) deaths / runs, (double) kills / runs, (double) score / runs,
+                bestScore, ticks, wallSeconds);
+    }
+
+    /**
+     * Stops the worker threads, abandoning any runs still queued.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,244 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the game simulation on its own thread at a fixed, configurable tick rate.
+ * <p>
+ * Each iteration runs any commands posted from the UI thread, applies queued
+ * input, advances the {@link GameController} by whole fixed steps and then
+ * publishes a {@link RenderSnapshot} through a {@link TripleBuffer}. The JavaFX
+ * thread only ever reads the newest snapshot, so a slow tick no longer stalls
+ * rendering or input handling, and a slow frame no longer delays the simulation.
+ * The leftover time in the accumulator is not lost: each snapshot records the
+ * simulated time it represents, and the renderer interpolates from there.
+ * <p>
+ * Catch-up is bounded: one iteration runs at most {@link #MAX_CATCH_UP_NANOS}
+ * worth of ticks. If the thread fell further behind (a GC pause, the window
+ * being dragged, a debugger), the excess whole ticks are dropped rather than
+ * simulated, so the loop can never spiral into running hundreds of ticks per
+ * frame. Dropped time is added up and available from {@link #getDroppedNanos()}.
+ * <p>
+ * Anything that mutates the game from the UI thread (pause, restart, forcing
+ * game over) must go through {@link #post(Runnable)} so it runs on the
+ * simulation thread between ticks.
+ * <p>
+ * Each snapshot records in {@link RenderSnapshot#inputNanos} when the oldest
+ * key event not yet seen on screen happened, so the renderer can measure
+ * input latency. The timestamp is repeated in every snapshot until one of
+ * them has been picked up, so skipped snapshots do not lose it.
+ *
+ * @author psyjr14
+ */
+public class SimulationLoop implements Runnable {
+
+    /** Tick rate used when none is configured, in Hz. */
+    public static final int DEFAULT_TICK_RATE = 60;
+
+    /** Most simulated time one loop iteration may catch up on, in nanoseconds. */
+    public static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+    /** Length of one tick, in nanoseconds. */
+    private final long step;
+
+    /** Length of one tick, in seconds; exactly {@code 1 / tickRate} so recorded runs replay bit-for-bit headless. */
+    private final double stepSeconds;
+
+    /** Most ticks run in one loop iteration. */
+    private final int maxTicksPerIteration;
+
+    /** Controller being simulated. */
+    private final GameController controller;
+
+    /** Score tracker copied into each snapshot. */
+    private final ScoreManager scores;
+
+    /** Snapshots handed from the simulation to the renderer. */
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+
+    /** Commands posted by other threads, run on the simulation thread. */
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    /** Total simulated time dropped by the catch-up limit, in nanoseconds. */
+    private volatile long droppedNanos;
+
+    /** Number of iterations that had to drop time. */
+    private volatile int dropCount;
+
+    /** Cleared to ask the simulation thread to exit. */
+    private volatile boolean running;
+
+    /** Thread running {@link #run()}. */
+    private Thread thread;
+
+    /** Timestamp of the oldest applied key event no picked-up snapshot has shown yet, or 0. */
+    private long unrenderedInputNanos;
+
+    /**
+     * Creates a simulation loop running at {@link #DEFAULT_TICK_RATE}.
+     *
+     * @param controller controller to advance each tick
+     * @param scores score tracker included in render snapshots
+     */
+    public SimulationLoop(GameController controller, ScoreManager scores) {
+        this(controller, scores, DEFAULT_TICK_RATE);
+    }
+
+    /**
+     * Creates a simulation loop.
+     *
+     * @param controller controller to advance each tick
+     * @param scores score tracker included in render snapshots
+     * @param tickRate ticks per second
+     */
+    public SimulationLoop(GameController controller, ScoreManager scores, int tickRate) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        this.controller = controller;
+        this.scores = scores;
+        this.step = 1_000_000_000L / tickRate;
+        this.stepSeconds = 1.0 / tickRate;
+        this.maxTicksPerIteration = (int) Math.max(1, MAX_CATCH_UP_NANOS / step);
+    }
+
+    /**
+     * Publishes an initial snapshot and starts the simulation thread.
+     */
+    public void start() {
+        if (thread != null) return;
+        publish(System.nanoTime());
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to finish its current tick.
+     * Commands still queued, such as a score submission posted just before
+     * exit, are then run on the calling thread.
+     */
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!thread.isAlive()) runCommands();
+        thread = null;
+    }
+
+    /**
+     * Queues a command to run on the simulation thread before the next tick.
+     *
+     * @param command action that reads or mutates game state
+     */
+    public void post(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * @return length of one tick in nanoseconds
+     */
+    public long getStepNanos() {
+        return step;
+    }
+
+    /**
+     * @return total simulated time skipped because the loop fell too far behind, in nanoseconds
+     */
+    public long getDroppedNanos() {
+        return droppedNanos;
+    }
+
+    /**
+     * @return number of times the loop had to skip simulated time
+     */
+    public int getDropCount() {
+        return dropCount;
+    }
+
+    /**
+     * @return buffer the renderer reads snapshots from
+     */
+    public TripleBuffer<RenderSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Simulation thread body: fixed-step accumulator loop that sleeps until the
+     * next tick is due.
+     */
+    @Override
+    public void run() {
+        long last = System.nanoTime();
+        long acc = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            acc += now - last;
+            last = now;
+
+            runCommands();
+
+            int ticks = 0;
+            while (acc >= step && ticks < maxTicksPerIteration) {
+                controller.getGame().getInputHandler().applyQueuedInput();
+                controller.update(stepSeconds);
+                acc -= step;
+                ticks++;
+            }
+            acc = dropBacklog(acc);
+
+            publish(now - acc);
+
+            long wait = step - acc;
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Drops any whole ticks still owed after the catch-up budget is spent,
+     * keeping the fractional remainder so interpolation stays smooth.
+     *
+     * @param acc accumulated time still to simulate
+     * @return accumulated time after dropping the backlog
+     */
+    long dropBacklog(long acc) {
+        if (acc < step) return acc;
+        long dropped = acc - acc % step;
+        droppedNanos += dropped;
+        dropCount++;
+        return acc - dropped;
+    }
+
+    /**
+     * Runs every command posted since the last iteration.
+     */
+    private void runCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+    }
+
+    /**
+     * Captures the current state into the back snapshot and publishes it.
+     *
+     * @param tickNanos simulated time of the current state
+     */
+    void publish(long tickNanos) {
+        RenderSnapshot snapshot = snapshots.back();
+        snapshot.capture(controller, scores, tickNanos, step);
+
+        // Every snapshot since the input carried it, so one being picked up means it was shown
+        if (!snapshots.hasUnread()) unrenderedInputNanos = 0;
+        long applied = controller.getGame().getInputHandler().takeAppliedInputNanos();
+        if (unrenderedInputNanos == 0) unrenderedInputNanos = applied;
+        snapshot.inputNanos = unrenderedInputNanos;
+
+        snapshots.publish();
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Toolkit-free handle to a sprite: its resource path and pixel dimensions.
+ * <p>
+ * Entities and map blocks carry a {@code Sprite} instead of a JavaFX image, so
+ * the simulation only ever deals in integers and can run without a display.
+ * The renderer resolves the path to an actual image through the
+ * {@link SpriteAtlas}.
+ * <p>
+ * {@link #load(String)} reads the dimensions straight from the PNG header, so
+ * no image is decoded and no JavaFX class is touched. When the sprite atlas
+ * has been loaded first, the sizes come from its index and no PNG is opened.
+ *
+ * @param path classpath resource path of the sprite image
+ * @param width width in pixels
+ * @param height height in pixels
+ * @author psyjr14
+ */
+public record Sprite(String path, int width, int height) {
+
+    /** First eight bytes of every PNG file. */
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+
+    /** Chunk type of the PNG header chunk ("IHDR"). */
+    private static final int IHDR = 0x49484452;
+
+    /** Sprites already read, keyed by path. */
+    private static final Map<String, Sprite> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the sprite for a PNG resource, reading its size from the file header.
+     * Results are cached, so each resource is only opened once per process.
+     *
+     * @param path classpath resource path
+     * @return sprite with the image's dimensions
+     * @throws IllegalArgumentException if the resource is missing or not a PNG
+     */
+    public static Sprite load(String path) {
+        return cache.computeIfAbsent(path, Sprite::readHeader);
+    }
+
+    /**
+     * Records a sprite whose size is already known, for example from the
+     * sprite atlas index, so {@link #load(String)} does not open its PNG.
+     * A sprite that was already loaded is kept.
+     *
+     * @param sprite sprite to remember
+     */
+    static void remember(Sprite sprite) {
+        cache.putIfAbsent(sprite.path(), sprite);
+    }
+
+    /**
+     * Loads several sprites in order.
+     *
+     * @param paths classpath resource paths
+     * @return sprites in the same order as {@code paths}
+     */
+    public static Sprite[] load(String... paths) {
+        Sprite[] sprites = new Sprite[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            sprites[i] = load(paths[i]);
+        }
+        return sprites;
+    }
+
+    /**
+     * Writes this sprite's path and size.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(path);
+        out.writeInt(width);
+        out.writeInt(height);
+    }
+
+    /**
+     * Reads a sprite written by {@link #writeTo(DataOutput)}. The resource
+     * itself is not opened.
+     *
+     * @param in source
+     * @return the sprite
+     * @throws IOException if reading fails
+     */
+    public static Sprite readFrom(DataInput in) throws IOException {
+        return new Sprite(in.readUTF(), in.readInt(), in.readInt());
+    }
+
+    private static Sprite readHeader(String path) {
+        InputStream stream = Sprite.class.getResourceAsStream(path);
+        if (stream == null) throw new IllegalArgumentException("Missing resource: " + path);
+
+        try (DataInputStream in = new DataInputStream(stream)) {
+            if (in.readLong() != PNG_SIGNATURE) {
+                throw new IllegalArgumentException("Not a PNG: " + path);
+            }
+            in.readInt(); // IHDR length
+            if (in.readInt() != IHDR) {
+                throw new IllegalArgumentException("Malformed PNG header: " + path);
+            }
+            return new Sprite(path, in.readInt(), in.readInt());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read sprite: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Packs many small sprites into a single texture and draws them as sub-regions.
+ * <p>
+ * On the first run every sprite PNG is decoded (in parallel), shelf-packed into one
+ * {@link WritableImage} and written to a binary cache file together with its
+ * region index. Later runs read that one file instead of decoding each PNG.
+ * <p>
+ * Sprites are identified by their resource path, the same path a
+ * {@link Sprite} handle carries. The renderer passes that path to
+ * {@link #draw(GraphicsContext, String, double, double)}, which looks up the
+ * matching region and blits it from the shared texture, so only one texture is
+ * bound for all atlas sprites and no per-sprite image is kept.
+ * <p>
+ * Every sprite is also packed a second time mirrored horizontally, so
+ * left-facing entities are drawn with {@link #drawMirrored} as a plain
+ * unscaled blit instead of a negative-width (transformed) draw.
+ *
+ * @author psyjr14
+ */
+public class SpriteAtlas {
+
+    /** File signature ("CPAT"). */
+    private static final int MAGIC = 0x43504154;
+
+    /** Cache format version; bump when the layout changes. */
+    static final int FORMAT_VERSION = 2;
+
+    /** Maximum width of the packed texture in pixels. */
+    private static final int MAX_WIDTH = 1024;
+
+    /** Transparent gap between packed sprites to avoid filtering bleed. */
+    private static final int PADDING = 1;
+
+    /**
+     * Location of a sprite inside the atlas texture.
+     *
+     * @param x left edge in pixels
+     * @param y top edge in pixels
+     * @param w width in pixels
+     * @param h height in pixels
+     */
+    public record Region(int x, int y, int w, int h) {}
+
+    /** Packed texture containing every sprite. */
+    private final WritableImage texture;
+
+    /** Region for each resource path, in packing order. */
+    private final Map<String, Region> regions = new LinkedHashMap<>();
+
+    /** Mirrored region for each resource path. */
+    private final Map<String, Region> mirroredRegions = new HashMap<>();
+
+    private SpriteAtlas(WritableImage texture) {
+        this.texture = texture;
+    }
+
+    /**
+     * Loads the atlas from {@code cacheFile} if it is up to date, otherwise
+     * decodes and packs the sprites and writes a fresh cache file.
+     *
+     * @param paths classpath resource paths of all sprites to include
+     * @param cacheFile location of the binary atlas cache
+     * @return loaded atlas
+     */
+    public static SpriteAtlas loadOrBuild(List<String> paths, File cacheFile) {
+        long fingerprint = fingerprint(paths);
+
+        SpriteAtlas cached = read(cacheFile, paths, fingerprint);
+        if (cached != null) return cached;
+
+        // Decoding dominates a cold build and each PNG is independent
+        List<Image> decoded = paths.parallelStream().map(SpriteAtlas::decode).toList();
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            images.put(paths.get(i), decoded.get(i));
+        }
+        SpriteAtlas atlas = pack(images);
+        atlas.write(cacheFile, fingerprint);
+        return atlas;
+    }
+
+    /**
+     * Packs already-decoded images into a new atlas using shelf packing.
+     *
+     * @param images sprites keyed by resource path
+     * @return packed atlas
+     */
+    public static SpriteAtlas pack(Map<String, Image> images) {
+        List<String> order = new ArrayList<>(images.keySet());
+        order.sort((a, b) -> Double.compare(images.get(b).getHeight(), images.get(a).getHeight()));
+
+        // Each sprite occupies two slots: the original followed by its mirror
+        Map<String, Region> placed = new HashMap<>();
+        Map<String, Region> placedMirrored = new HashMap<>();
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int width = 0;
+
+        for (String path : order) {
+            Image img = images.get(path);
+            int w = (int) img.getWidth();
+            int h = (int) img.getHeight();
+
+            if (x > 0 && x + 2 * (w + PADDING) > MAX_WIDTH) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+
+            placed.put(path, new Region(x, y, w, h));
+            placedMirrored.put(path, new Region(x + w + PADDING, y, w, h));
+            x += 2 * (w + PADDING);
+            width = Math.max(width, x);
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+
+        WritableImage texture = new WritableImage(Math.max(1, width), Math.max(1, y + shelfHeight));
+        PixelWriter writer = texture.getPixelWriter();
+        SpriteAtlas atlas = new SpriteAtlas(texture);
+
+        for (Map.Entry<String, Image> e : images.entrySet()) {
+            Region r = placed.get(e.getKey());
+            Region m = placedMirrored.get(e.getKey());
+            PixelReader reader = e.getValue().getPixelReader();
+            writer.setPixels(r.x(), r.y(), r.w(), r.h(), reader, 0, 0);
+            writeMirrored(writer, reader, m);
+            atlas.add(e.getKey(), r, m);
+        }
+        return atlas;
+    }
+
+    /**
+     * @param path classpath resource path used when the atlas was built
+     * @return atlas region for the sprite, or {@code null} if it is not packed
+     */
+    public Region regionOf(String path) {
+        return regions.get(path);
+    }
+
+    /**
+     * @param path classpath resource path used when the atlas was built
+     * @return mirrored atlas region for the sprite, or {@code null} if it is not packed
+     */
+    public Region mirroredRegionOf(String path) {
+        return mirroredRegions.get(path);
+    }
+
+    /**
+     * @return packed texture containing every sprite
+     */
+    public Image getTexture() {
+        return texture;
+    }
+
+    /**
+     * Draws a sprite at its natural size from the atlas texture.
+     *
+     * @param gc graphics context used for drawing
+     * @param path classpath resource path of the sprite
+     * @param x destination x in pixels
+     * @param y destination y in pixels
+     * @throws IllegalArgumentException if the path is not part of the atlas
+     */
+    public void draw(GraphicsContext gc, String path, double x, double y) {
+        blit(gc, regions.get(path), path, x, y);
+    }
+
+    /**
+     * Draws a horizontally mirrored sprite at its natural size from its
+     * pre-flipped region.
+     * <p>
+     * The sprite occupies the same rectangle as an unmirrored draw at
+     * {@code (x, y)}.
+     *
+     * @param gc graphics context used for drawing
+     * @param path classpath resource path of the sprite
+     * @param x destination x in pixels (left edge of the mirrored sprite)
+     * @param y destination y in pixels
+     * @throws IllegalArgumentException if the path is not part of the atlas
+     */
+    public void drawMirrored(GraphicsContext gc, String path, double x, double y) {
+        blit(gc, mirroredRegions.get(path), path, x, y);
+    }
+
+    private void blit(GraphicsContext gc, Region r, String path, double x, double y) {
+        if (r == null) throw new IllegalArgumentException("Sprite not in atlas: " + path);
+        gc.drawImage(texture, r.x(), r.y(), r.w(), r.h(), x, y, r.w(), r.h());
+    }
+
+    /**
+     * Registers a sprite's regions, and its size with {@link Sprite}, so
+     * loading the sprite handle later does not open the PNG again.
+     *
+     * @param path resource path
+     * @param r region inside the texture
+     * @param m mirrored region inside the texture
+     */
+    private void add(String path, Region r, Region m) {
+        regions.put(path, r);
+        mirroredRegions.put(path, m);
+        Sprite.remember(new Sprite(path, r.w(), r.h()));
+    }
+
+    /**
+     * Copies a sprite into the texture flipped horizontally.
+     *
+     * @param writer texture pixel writer
+     * @param reader source sprite pixels
+     * @param m destination region
+     */
+    private static void writeMirrored(PixelWriter writer, PixelReader reader, Region m) {
+        int[] row = new int[m.w()];
+        WritablePixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
+        for (int y = 0; y < m.h(); y++) {
+            reader.getPixels(0, y, m.w(), 1, format, row, 0, m.w());
+            for (int i = 0, j = row.length - 1; i < j; i++, j--) {
+                int t = row[i];
+                row[i] = row[j];
+                row[j] = t;
+            }
+            writer.setPixels(m.x(), m.y() + y, m.w(), 1, format, row, 0, m.w());
+        }
+    }
+
+    /**
+     * Decodes a single sprite from the classpath.
+     *
+     * @param path classpath resource path
+     * @return decoded image
+     */
+    private static Image decode(String path) {
+        URL url = SpriteAtlas.class.getResource(path);
+        if (url == null) throw new IllegalArgumentException("Missing resource: " + path);
+        return new Image(url.toExternalForm());
+    }
+
+    /**
+     * Computes a fingerprint of the sprite set from the path list and the
+     * size and modification time of the jar the game is packaged in, so a
+     * rebuilt game invalidates the cache at the cost of a single file lookup.
+     * <p>
+     * When running from a classes directory (during development) there is no
+     * jar, so the modification time of each sprite file is used instead. No
+     * file is opened either way.
+     *
+     * @param paths classpath resource paths
+     * @return fingerprint value
+     */
+    static long fingerprint(List<String> paths) {
+        long h = 1125899906842597L;
+        for (String path : paths) {
+            h = 31 * h + path.hashCode();
+        }
+        try {
+            CodeSource source = SpriteAtlas.class.getProtectionDomain().getCodeSource();
+            Path location = source == null ? null : Path.of(source.getLocation().toURI());
+            if (location != null && Files.isRegularFile(location)) {
+                h = 31 * h + Files.size(location);
+                return 31 * h + Files.getLastModifiedTime(location).toMillis();
+            }
+            for (String path : paths) {
+                URL url = SpriteAtlas.class.getResource(path);
+                if (url == null || !"file".equals(url.getProtocol())) continue;
+                Path file = Path.of(url.toURI());
+                h = 31 * h + Files.size(file);
+                h = 31 * h + Files.getLastModifiedTime(file).toMillis();
+            }
+            return h;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return 31 * h - 1;
+        }
+    }
+
+    /**
+     * Reads a cached atlas if the file exists and matches the requested sprites.
+     *
+     * @param file cache file
+     * @param paths expected sprite paths
+     * @param fingerprint expected fingerprint
+     * @return cached atlas, or {@code null} if missing, stale or unreadable
+     */
+    static SpriteAtlas read(File file, List<String> paths, long fingerprint) {
+        if (!file.isFile()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+            if (in.readLong() != fingerprint) return null;
+
+            int width = in.readInt();
+            int height = in.readInt();
+            int count = in.readInt();
+            if (count != paths.size()) return null;
+
+            Map<String, Region> index = new LinkedHashMap<>();
+            Map<String, Region> mirrored = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                index.put(path, new Region(in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+                mirrored.put(path, new Region(in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            }
+            if (!index.keySet().containsAll(paths)) return null;
+
+            byte[] raw = new byte[width * height * 4];
+            new DataInputStream(new InflaterInputStream(in)).readFully(raw);
+            int[] argb = new int[width * height];
+            ByteBuffer.wrap(raw).asIntBuffer().get(argb);
+
+            WritableImage texture = new WritableImage(width, height);
+            texture.getPixelWriter().setPixels(0, 0, width, height,
+                    PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+            SpriteAtlas atlas = new SpriteAtlas(texture);
+            for (Map.Entry<String, Region> e : index.entrySet()) {
+                atlas.add(e.getKey(), e.getValue(), mirrored.get(e.getKey()));
+            }
+            return atlas;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes this atlas to a cache file. Failures are ignored because the cache
+     * is only an optimisation; the next run simply rebuilds it.
+     *
+     * @param file cache file
+     * @param fingerprint fingerprint of the sprite set
+     */
+    void write(File file, long fingerprint) {
+        int width = (int) texture.getWidth();
+        int height = (int) texture.getHeight();
+        int[] argb = new int[width * height];
+        texture.getPixelReader().getPixels(0, 0, width, height,
+                PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(regions.size());
+            for (Map.Entry<String, Region> e : regions.entrySet()) {
+                Region r = e.getValue();
+                out.writeUTF(e.getKey());
+                out.writeInt(r.x());
+                out.writeInt(r.y());
+                out.writeInt(r.w());
+                out.writeInt(r.h());
+                Region m = mirroredRegions.get(e.getKey());
+                out.writeInt(m.x());
+                out.writeInt(m.y());
+                out.writeInt(m.w());
+                out.writeInt(m.h());
+            }
+
+            ByteBuffer raw = ByteBuffer.allocate(argb.length * 4);
+            raw.asIntBuffer().put(argb);
+            DeflaterOutputStream pixels = new DeflaterOutputStream(out);
+            pixels.write(raw.array());
+            pixels.finish();
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            tmp.delete();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Splits application startup into consecutive timed phases.
+ * <p>
+ * Timing starts when the JVM started, so the first phase also covers JVM and
+ * JavaFX launcher startup. Each {@link #mark(String)} ends the current phase
+ * under the given name and starts the next one. A phase name is only recorded
+ * once; marking it again is ignored, so code that runs again later (showing
+ * the menu a second time, say) does not need its own guard.
+ *
+ * @author psyjr14
+ */
+public class StartupTimer {
+
+    /**
+     * A finished phase.
+     *
+     * @param name phase name
+     * @param startNanos start of the phase, relative to JVM start
+     * @param durationNanos length of the phase
+     */
+    public record Phase(String name, long startNanos, long durationNanos) {}
+
+    /** Source of {@link System#nanoTime()}-style timestamps. */
+    private final LongSupplier clock;
+
+    /** Clock reading at JVM start. */
+    private final long originNanos;
+
+    /** Clock reading at the end of the last phase. */
+    private long lastMark;
+
+    /** Finished phases in order. */
+    private final List<Phase> phases = new ArrayList<>();
+
+    /**
+     * Creates a timer measuring from JVM start.
+     */
+    public StartupTimer() {
+        this(System::nanoTime,
+                System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L);
+    }
+
+    /**
+     * Creates a timer with an explicit clock.
+     *
+     * @param clock source of timestamps in nanoseconds
+     * @param originNanos clock reading the first phase starts at
+     */
+    StartupTimer(LongSupplier clock, long originNanos) {
+        this.clock = clock;
+        this.originNanos = originNanos;
+        this.lastMark = originNanos;
+    }
+
+    /**
+     * Ends the current phase.
+     *
+     * @param name name of the phase that just ended
+     * @return true if the phase was recorded, false if a phase with that name already was
+     */
+    public synchronized boolean mark(String name) {
+        for (Phase p : phases) {
+            if (p.name().equals(name)) return false;
+        }
+        long now = clock.getAsLong();
+        phases.add(new Phase(name, lastMark - originNanos, now - lastMark));
+        lastMark = now;
+        return true;
+    }
+
+    /**
+     * @return finished phases in order
+     */
+    public synchronized List<Phase> getPhases() {
+        return List.copyOf(phases);
+    }
+
+    /**
+     * @return time from JVM start to the end of the last phase, in nanoseconds
+     */
+    public synchronized long getTotalNanos() {
+        return lastMark - originNanos;
+    }
+
+    /**
+     * @return one-line summary with each phase and the total in milliseconds
+     */
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase p : phases) {
+            sb.append(String.format("%s=%.1fms ", p.name(), p.durationNanos() / 1e6));
+        }
+        return sb.append(String.format("total=%.1fms", getTotalNanos() / 1e6)).toString();
+    }
+
+    /**
+     * Formats the phases as CSV with the header
+     * {@code phase,start_ms,duration_ms}.
+     *
+     * @return CSV text
+     */
+    public synchronized String toCsv() {
+        StringBuilder sb = new StringBuilder("phase,start_ms,duration_ms\n");
+        for (Phase p : phases) {
+            sb.append(p.name()).append(',')
+                    .append(String.format(Locale.ROOT, "%.3f,%.3f", p.startNanos() / 1e6, p.durationNanos() / 1e6))
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #toCsv()} to a file, creating parent directories as needed.
+     *
+     * @param path file to write
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.writeString(path, toCsv());
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer for handing data from one producer thread to one
+ * consumer thread.
+ * <p>
+ * The producer always writes into its own back slot and then {@link #publish()}es
+ * it; the consumer calls {@link #update()} to pick up the newest published slot
+ * and reads it through {@link #front()}. Neither side ever waits for the other,
+ * and the consumer always sees a complete, consistent object. Slots are reused,
+ * so steady-state operation allocates nothing.
+ *
+ * @param <T> type of the buffered object
+ * @author psyjr14
+ */
+public class TripleBuffer<T> {
+
+    /** Bit set in {@link #middle} when it holds data the consumer has not seen yet. */
+    private static final int FRESH = 4;
+
+    /** Mask extracting a slot index from {@link #middle}. */
+    private static final int INDEX = 3;
+
+    /** The three slots. */
+    private final Object[] slots = new Object[3];
+
+    /** Index of the shared middle slot, plus the {@link #FRESH} flag. */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /** Slot owned by the producer. */
+    private int back = 0;
+
+    /** Slot owned by the consumer. */
+    private int front = 2;
+
+    /**
+     * Creates a triple buffer, filling each slot from the factory.
+     *
+     * @param factory creates the three slot objects
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    /**
+     * Producer side: returns the slot to write the next value into.
+     *
+     * @return producer-owned slot
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    /**
+     * Producer side: makes the back slot visible to the consumer and takes over
+     * the previous middle slot for the next write.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Producer side: checks whether the consumer has picked up the last
+     * published value yet.
+     *
+     * @return true if a value was published and {@link #update()} has not taken it
+     */
+    public boolean hasUnread() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+    /**
+     * Consumer side: swaps in the most recently published slot if there is one.
+     *
+     * @return true if {@link #front()} now holds newer data
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) return false;
+        front = middle.getAndSet(front) & INDEX;
+        return true;
+    }
+
+    /**
+     * Consumer side: returns the slot most recently obtained by {@link #update()}.
+     *
+     * @return consumer-owned slot
+     */
+    @SuppressWarnings("unchecked")
+    public T front() {
+        return (T) slots[front];
+    }
+}
@@ -3,10 +3,14 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.testfx.api.FxRobot;
 import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +25,12 @@ public class AppIntegrationTest extends ApplicationTest {
         new App().start(stage);
     }
 
+    @BeforeEach
+    void waitForMenu() throws Exception {
+        // The menu is shown once its assets have loaded in the background
+        waitForRoot(MainMenu.class);
+    }
+
     @Test
     void testAppBoots() {
         assertNotNull(stageUnderTest);
@@ -36,9 +46,10 @@ public class AppIntegrationTest extends ApplicationTest {
     }
 
     @Test
-    void testGameSceneContainsCanvas() {
+    void testGameSceneContainsCanvas() throws Exception {
         assertTrue(stageUnderTest.getScene().getRoot() instanceof MainMenu);
         clickOn("Start Game");
+        waitForRoot(StackPane.class);
 
         StackPane root = (StackPane) stageUnderTest.getScene().getRoot();
         assertTrue(root.getChildren().get(0) instanceof Canvas);
@@ -52,4 +63,8 @@ public class AppIntegrationTest extends ApplicationTest {
         robot.press(KeyCode.SPACE).release(KeyCode.SPACE);
         robot.press(KeyCode.ESCAPE).release(KeyCode.ESCAPE);
     }
+
+    private void waitForRoot(Class<?> type) throws Exception {
+        WaitForAsyncUtils.waitFor(10, TimeUnit.SECONDS, () -> type.isInstance(stageUnderTest.getScene().getRoot()));
+    }
 }
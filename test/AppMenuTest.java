@@ -3,12 +3,14 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 import javafx.scene.Node;
 import javafx.scene.input.KeyCode;
+import java.util.concurrent.TimeUnit;
 
 @Tag("integration")
 public class AppMenuTest extends ApplicationTest {
@@ -28,6 +30,12 @@ public class AppMenuTest extends ApplicationTest {
         app.start(stage);
     }
 
+    @BeforeEach
+    void waitForMenu() throws Exception {
+        // The menu is shown once its assets have loaded in the background
+        waitForRoot(MainMenu.class);
+    }
+
 
     @Test
     void testAppShowsMainMenu() {
@@ -36,8 +44,9 @@ public class AppMenuTest extends ApplicationTest {
     }
 
     @Test
-    void clickingStartGameShowsGameView() {
+    void clickingStartGameShowsGameView() throws Exception {
         clickOn("Start Game");
+        waitForRoot(StackPane.class);
 
         Scene scene = stage.getScene();
         Parent root = scene.getRoot();
@@ -48,8 +57,9 @@ public class AppMenuTest extends ApplicationTest {
     }
 
     @Test
-    void escapeShowsPauseMenu() {
+    void escapeShowsPauseMenu() throws Exception {
         clickOn("Start Game");
+        waitForRoot(StackPane.class);
         WaitForAsyncUtils.waitForFxEvents();
         push(KeyCode.ESCAPE);
         WaitForAsyncUtils.waitForFxEvents();
@@ -61,6 +71,10 @@ public class AppMenuTest extends ApplicationTest {
         assertTrue(pauseVisible, "Pause view should be visible after pressing ESC");
     }
 
+    private void waitForRoot(Class<?> type) throws Exception {
+        WaitForAsyncUtils.waitFor(10, TimeUnit.SECONDS, () -> type.isInstance(stage.getScene().getRoot()));
+    }
+
 
 
 }
\ No newline at end of file
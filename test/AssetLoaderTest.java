@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AssetLoaderTest {
+
+    @Test
+    void testRejectsInvalidThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> new AssetLoader(new AssetRegistry(), 0));
+    }
+
+    @Test
+    void testLoadsBatchInParallelAndReportsProgress() throws Exception {
+        AssetRegistry registry = new AssetRegistry();
+        // Every loader waits until all three have started, so this only finishes if they run at once
+        CountDownLatch allStarted = new CountDownLatch(3);
+        List<AssetLoader.Task<?>> tasks = new ArrayList<>();
+        for (String key : List.of("a", "b", "c")) {
+            tasks.add(new AssetLoader.Task<>(key, String.class, () -> {
+                allStarted.countDown();
+                try {
+                    if (!allStarted.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("not parallel");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return key.toUpperCase();
+            }));
+        }
+        AtomicInteger lastDone = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+
+        try (AssetLoader loader = new AssetLoader(registry, 3)) {
+            loader.load(tasks, (done, total, key) -> {
+                assertEquals(3, total);
+                calls.incrementAndGet();
+                lastDone.accumulateAndGet(done, Math::max);
+            }).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(3, calls.get());
+        assertEquals(3, lastDone.get());
+        for (String key : List.of("a", "b", "c")) {
+            assertTrue(registry.isCached(key));
+            assertEquals(0, registry.getRefCount(key), "Loading should not leave assets borrowed");
+        }
+        assertEquals("B", registry.acquire("b", String.class, () -> "reloaded"));
+    }
+
+    @Test
+    void testFailedTaskFailsBatchButOthersAreCached() throws Exception {
+        AssetRegistry registry = new AssetRegistry();
+        List<AssetLoader.Task<?>> tasks = List.of(
+                new AssetLoader.Task<>("good", String.class, () -> "ok"),
+                new AssetLoader.Task<String>("bad", String.class, () -> {
+                    throw new IllegalStateException("missing file");
+                }));
+        AtomicInteger calls = new AtomicInteger();
+
+        try (AssetLoader loader = new AssetLoader(registry, 2)) {
+            CompletableFuture<Void> batch = loader.load(tasks, (done, total, key) -> calls.incrementAndGet());
+            ExecutionException e = assertThrows(ExecutionException.class, () -> batch.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+
+        assertEquals(2, calls.get(), "A failed task still counts towards progress");
+        assertTrue(registry.isCached("good"));
+        assertFalse(registry.isCached("bad"));
+    }
+
+    @Test
+    void testEmptyBatchCompletesImmediately() {
+        try (AssetLoader loader = new AssetLoader(new AssetRegistry(), 1)) {
+            assertTrue(loader.load(List.of(), null).isDone());
+        }
+    }
+}
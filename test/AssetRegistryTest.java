@@ -0,0 +1,132 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AssetRegistryTest {
+
+    @Test
+    void testAssetIsLoadedOnceAndShared() {
+        AssetRegistry registry = new AssetRegistry();
+        AtomicInteger loads = new AtomicInteger();
+
+        String a = registry.acquire("/img.png", String.class, () -> "img" + loads.incrementAndGet());
+        String b = registry.acquire("/img.png", String.class, () -> "img" + loads.incrementAndGet());
+
+        assertSame(a, b, "Every borrower should get the same object");
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.getLoadCount());
+        assertEquals(2, registry.getRefCount("/img.png"));
+    }
+
+    @Test
+    void testReleasedAssetStaysCachedUntilEvicted() {
+        AssetRegistry registry = new AssetRegistry();
+        AtomicInteger loads = new AtomicInteger();
+
+        registry.acquire("/font.ttf", Object.class, () -> new Object[] { loads.incrementAndGet() });
+        registry.release("/font.ttf");
+        assertTrue(registry.isCached("/font.ttf"));
+        assertEquals(0, registry.getRefCount("/font.ttf"));
+
+        registry.acquire("/font.ttf", Object.class, () -> new Object[] { loads.incrementAndGet() });
+        assertEquals(1, loads.get(), "Re-borrowing a released asset should not reload it");
+
+        registry.release("/font.ttf");
+        assertTrue(registry.evict("/font.ttf"));
+        assertFalse(registry.isCached("/font.ttf"));
+
+        registry.acquire("/font.ttf", Object.class, () -> new Object[] { loads.incrementAndGet() });
+        assertEquals(2, loads.get(), "An evicted asset should be loaded again");
+    }
+
+    @Test
+    void testAssetsInUseAreNeverEvicted() {
+        AssetRegistry registry = new AssetRegistry();
+        registry.acquire("used", String.class, () -> "u");
+        registry.acquire("idle1", String.class, () -> "i1");
+        registry.acquire("idle2", String.class, () -> "i2");
+        registry.release("idle1");
+        registry.release("idle2");
+
+        assertFalse(registry.evict("used"));
+        assertFalse(registry.evict("missing"));
+        assertEquals(2, registry.evictUnused());
+        assertEquals(1, registry.size());
+        assertTrue(registry.isCached("used"));
+    }
+
+    @Test
+    void testMisuseIsRejected() {
+        AssetRegistry registry = new AssetRegistry();
+        assertThrows(IllegalStateException.class, () -> registry.release("never"));
+
+        registry.acquire("key", String.class, () -> "text");
+        assertThrows(IllegalArgumentException.class, () -> registry.acquire("key", Integer.class, () -> 1));
+        assertEquals(1, registry.getRefCount("key"), "A rejected borrow should not count");
+
+        registry.release("key");
+        assertThrows(IllegalStateException.class, () -> registry.release("key"));
+        assertThrows(IllegalArgumentException.class, () -> registry.acquire("null", String.class, () -> null));
+        assertFalse(registry.isCached("null"));
+    }
+
+    @Test
+    void testConcurrentBorrowersWaitForOneLoad() throws Exception {
+        AssetRegistry registry = new AssetRegistry();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+                registry.acquire("slow", String.class, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        finish.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "done";
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertFalse(registry.isCached("slow"), "An asset still loading is not cached yet");
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() ->
+                registry.acquire("slow", String.class, () -> "again" + loads.incrementAndGet()));
+        // A different key is not held up by the slow load
+        assertEquals("fast", registry.acquire("fast", String.class, () -> "fast"));
+
+        finish.countDown();
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(2, registry.getRefCount("slow"));
+    }
+
+    @Test
+    void testPreloadCachesWithoutBorrowing() {
+        AssetRegistry registry = new AssetRegistry();
+        registry.preload("bg", String.class, () -> "bg");
+
+        assertTrue(registry.isCached("bg"));
+        assertEquals(0, registry.getRefCount("bg"));
+        assertEquals("bg", registry.acquire("bg", String.class, () -> "reloaded"));
+        assertEquals(1, registry.getLoadCount());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        AssetRegistry registry = new AssetRegistry();
+        assertThrows(IllegalStateException.class, () -> registry.acquire("bad", String.class, () -> {
+            throw new IllegalStateException("missing");
+        }));
+
+        assertFalse(registry.isCached("bad"));
+        assertEquals(0, registry.size());
+        assertEquals("ok", registry.acquire("bad", String.class, () -> "ok"), "A failed load should be retried");
+    }
+}
@@ -0,0 +1,48 @@
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BackgroundTest {
+
+    private Background background;
+    private GraphicsContext gc;
+
+    @BeforeEach
+    void setUp() {
+        Image layer = new WritableImage(1280, 720);
+        background = new Background(new Image[] { layer, layer, layer, layer });
+        gc = mock(GraphicsContext.class);
+    }
+
+    @Test
+    void testDrawCountIndependentOfMapWidth() {
+        background.draw(gc, 4000, 8400, 1280);
+        int shortMapDraws = mockingDetails(gc).getInvocations().size();
+
+        reset(gc);
+        background.draw(gc, 4000, 84000, 1280);
+        int longMapDraws = mockingDetails(gc).getInvocations().size();
+
+        assertEquals(shortMapDraws, longMapDraws, "Background cost should not grow with map width");
+        assertTrue(longMapDraws <= 7, "Only the static layer and at most two repeats per layer should be drawn");
+    }
+
+    @Test
+    void testVisibleTileRange() {
+        // Offset inside the second repeat: repeats 1 and 2 overlap the viewport
+        assertEquals(1, Background.firstVisibleTile(2000));
+        assertEquals(2, Background.lastVisibleTile(2000, 1280, 9000));
+
+        // Exactly aligned: only one repeat covers the viewport
+        assertEquals(1, Background.firstVisibleTile(1280));
+        assertEquals(1, Background.lastVisibleTile(1280, 1280, 9000));
+
+        // Repeats never start past the end of the map
+        assertEquals(0, Background.lastVisibleTile(500, 1280, 1280));
+    }
+}
@@ -1,7 +1,5 @@
 import static org.junit.jupiter.api.Assertions.*;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,19 +10,19 @@ public class EnemyTest {
 
     @BeforeEach
     void setUp() {
-        Image img = new WritableImage(48, 48);
+        Sprite sprite = new Sprite("test", 48, 48);
 
-        Image[] pIdle = new Image[] { img, img, img, img };
-        Image[] pRun  = new Image[] { img, img, img, img, img, img };
-        Image[] pHurt = new Image[] { img, img };
-        Image pShoot  = img;
+        Sprite[] pIdle = new Sprite[] { sprite, sprite, sprite, sprite };
+        Sprite[] pRun  = new Sprite[] { sprite, sprite, sprite, sprite, sprite, sprite };
+        Sprite[] pHurt = new Sprite[] { sprite, sprite };
+        Sprite pShoot  = sprite;
 
         player = new Player(0, 0, 3, pIdle, pRun, pHurt, pShoot);
 
-        Image[] eIdle = new Image[] { img, img, img, img, img, img, img, img };
-        Image[] eWalk = new Image[] { img, img, img, img, img, img, img, img };
-        Image[] eRun  = new Image[] { img, img, img, img, img, img, img };
-        Image eHurt   = img;
+        Sprite[] eIdle = new Sprite[] { sprite, sprite, sprite, sprite, sprite, sprite, sprite, sprite };
+        Sprite[] eWalk = new Sprite[] { sprite, sprite, sprite, sprite, sprite, sprite, sprite, sprite };
+        Sprite[] eRun  = new Sprite[] { sprite, sprite, sprite, sprite, sprite, sprite, sprite };
+        Sprite eHurt   = sprite;
 
         enemy = new Enemy(0, 0, 2, eIdle, eWalk, eRun, eHurt);
     }
@@ -4,8 +4,6 @@ import static org.mockito.Mockito.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
-
 class GameControllerTest {
 
     private GameController controller;
@@ -13,6 +11,7 @@ class GameControllerTest {
     private ScoreManager scoreManager;
     private LeaderboardService leaderboard;
     private InputHandler input;
+    private GameEventBus events;
 
     @BeforeEach
     void setUp() {
@@ -20,8 +19,10 @@ class GameControllerTest {
         scoreManager = mock(ScoreManager.class);
         leaderboard = mock(LeaderboardService.class);
         input = mock(InputHandler.class);
+        events = new GameEventBus(16);
 
         when(game.getInputHandler()).thenReturn(input);
+        when(game.getEvents()).thenReturn(events);
         controller = new GameController(game, scoreManager, leaderboard);
     }
 
@@ -49,11 +50,11 @@ class GameControllerTest {
 
         controller.update(1.0);
 
-        verify(game, never()).update();
+        verify(game, never()).update(anyDouble());
         verify(scoreManager, never()).update(anyDouble());
         verify(scoreManager, never()).onDeath();
         verify(scoreManager, never()).onKill();
-        verify(leaderboard, never()).save();
+        verify(leaderboard, never()).saveAsync();
     }
 
     @Test
@@ -78,43 +79,37 @@ class GameControllerTest {
     void updateWhenRunningCallsGameAndScoreTick() {
         controller.startNewGame();
         when(input.processPause()).thenReturn(false);
-        when(game.getDeathCounter()).thenReturn(0);
-        when(game.getKillCounter()).thenReturn(0);
-        when(game.isWon()).thenReturn(false);
 
         controller.update(0.5);
 
-        verify(game).update();
+        verify(game).update(0.5);
         verify(scoreManager).update(0.5);
-        verify(leaderboard, never()).save();
+        verify(leaderboard, never()).saveAsync();
         assertEquals(GameState.RUNNING, controller.getState());
     }
 
     @Test
-    void updateSyncsDeathsCallsOnDeathOncePerNewDeath() {
+    void updateCallsOnDeathOncePerDeathEvent() {
         controller.startNewGame();
         when(input.processPause()).thenReturn(false);
-        when(game.getKillCounter()).thenReturn(0);
-        when(game.isWon()).thenReturn(false);
 
         //first update sees 2 deaths
-        when(game.getDeathCounter()).thenReturn(2);
+        events.publish(GameEvent.DEATH, 1);
+        events.publish(GameEvent.DEATH, 2);
         controller.update(0.1);
         verify(scoreManager, times(2)).onDeath();
 
-        //Next update still 2 deaths
+        //Next update has no new events
         controller.update(0.1);
         verify(scoreManager, times(2)).onDeath();
     }
 
     @Test
-    void updateSyncsKillsCallsOnKillOncePerNewKill() {
+    void updateCallsOnKillOncePerKillEvent() {
         controller.startNewGame();
         when(input.processPause()).thenReturn(false);
-        when(game.getDeathCounter()).thenReturn(0);
-        when(game.isWon()).thenReturn(false);
 
-        when(game.getKillCounter()).thenReturn(3);
+        for (int i = 1; i <= 3; i++) events.publish(GameEvent.KILL, i);
         controller.update(0.1);
         verify(scoreManager, times(3)).onKill();
 
@@ -122,18 +117,31 @@ class GameControllerTest {
         verify(scoreManager, times(3)).onKill();
     }
 
+    @Test
+    void updateDoesNotPollCounters() {
+        controller.startNewGame();
+        when(input.processPause()).thenReturn(false);
+
+        controller.update(0.1);
+
+        verify(game, never()).getDeathCounter();
+        verify(game, never()).getKillCounter();
+        verify(game, never()).isWon();
+        assertEquals(0, events.size(), "Events should be drained every tick");
+    }
+
     @Test
     void updateWhenWonSetsGameOverAndSavesLeaderboard() {
         controller.startNewGame();
         when(input.processPause()).thenReturn(false);
-        when(game.getDeathCounter()).thenReturn(0);
-        when(game.getKillCounter()).thenReturn(0);
-        when(game.isWon()).thenReturn(true);
 
+        events.publish(GameEvent.SHOT, 9);
+        events.publish(GameEvent.WIN, 0);
         controller.update(0.1);
 
         assertEquals(GameState.GAME_OVER, controller.getState());
-        verify(leaderboard).save();
+        verify(leaderboard).saveAsync();
+        verify(scoreManager, never()).onKill();
     }
 
     @Test
@@ -145,7 +153,7 @@ class GameControllerTest {
 
         assertEquals(GameState.PAUSED, controller.getState());
         verify(input).clearAll();
-        verify(game, never()).update(); // because state becomes PAUSED before game.update()
+        verify(game, never()).update(anyDouble()); // because state becomes PAUSED before game.update()
     }
 
     @Test
@@ -164,20 +172,38 @@ class GameControllerTest {
     }
 
     @Test
-    void resumeOffsetsStartTimeByPausedDuration() throws Exception {
+    void pausedGameIsNotSteppedUntilResumed() {
         controller.startNewGame();
         controller.pause();
+        when(input.processPause()).thenReturn(false);
 
-        double before = Game.startTime;
-
-        // Avoid sleeping by forcing pauseStartedMs to an older value via reflection
-        Field f = GameController.class.getDeclaredField("pauseStartedMs");
-        f.setAccessible(true);
-        f.setLong(controller, System.currentTimeMillis() - 250);
+        controller.update(0.1);
+        verify(game, never()).update(anyDouble());
 
         controller.resume();
+        controller.update(0.1);
 
         assertEquals(GameState.RUNNING, controller.getState());
-        assertTrue(Game.startTime > before, "startTime should have been pushed forward by pause duration");
+        verify(game).update(0.1);
+    }
+
+    @Test
+    void updateRecordsOnlySteppedTicks() {
+        controller.startNewGame();
+        when(input.getTickMask()).thenReturn(InputHandler.RIGHT);
+
+        controller.update(0.1);
+        controller.update(0.1);
+        controller.pause();
+        controller.update(0.1);
+
+        Replay recording = controller.getRecording();
+        assertEquals(10, recording.getTickRate());
+        assertEquals(2, recording.getTickCount(), "Paused ticks should not be recorded");
+        assertEquals(1, recording.getRunCount());
+        assertEquals(1, recording.getKeyframeCount(), "The first tick should have a keyframe");
+
+        controller.startNewGame();
+        assertNull(controller.getRecording(), "A new run should start a new recording");
     }
 }
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameEventBusTest {
+
+    @Test
+    void testRejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEventBus(0));
+        assertThrows(IllegalArgumentException.class, () -> new GameEventBus(12));
+    }
+
+    @Test
+    void testDrainDeliversEventsInOrderToEverySubscriber() {
+        GameEventBus bus = new GameEventBus(8);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        bus.subscribe((type, value) -> first.add(type + ":" + value));
+        bus.subscribe((type, value) -> second.add(type + ":" + value));
+
+        bus.publish(GameEvent.SHOT, 9);
+        bus.publish(GameEvent.KILL, 1);
+        bus.publish(GameEvent.DAMAGE, 2);
+
+        assertEquals(3, bus.drain());
+        assertEquals(List.of("SHOT:9", "KILL:1", "DAMAGE:2"), first);
+        assertEquals(first, second);
+        assertEquals(0, bus.drain(), "Drained events should not be delivered again");
+    }
+
+    @Test
+    void testFullRingDropsNewEvents() {
+        GameEventBus bus = new GameEventBus(4);
+        List<Integer> values = new ArrayList<>();
+        bus.subscribe((type, value) -> values.add(value));
+
+        for (int i = 0; i < 6; i++) bus.publish(GameEvent.KILL, i);
+
+        assertEquals(4, bus.size());
+        assertEquals(2, bus.getDropped());
+        bus.drain();
+        assertEquals(List.of(0, 1, 2, 3), values);
+        assertTrue(bus.publish(GameEvent.KILL, 4), "Draining should free the slots");
+    }
+
+    @Test
+    void testClearAndUnsubscribe() {
+        GameEventBus bus = new GameEventBus(4);
+        List<GameEvent> seen = new ArrayList<>();
+        GameEventBus.Listener listener = (type, value) -> seen.add(type);
+        bus.subscribe(listener);
+
+        bus.publish(GameEvent.DEATH, 1);
+        bus.clear();
+        assertEquals(0, bus.drain());
+
+        bus.unsubscribe(listener);
+        bus.publish(GameEvent.WIN, 0);
+        assertEquals(1, bus.drain());
+        assertTrue(seen.isEmpty());
+    }
+
+    @Test
+    void testProducerAndConsumerOnDifferentThreads() throws InterruptedException {
+        GameEventBus bus = new GameEventBus(16);
+        int count = 20_000;
+        int[] expected = { 0 };
+        boolean[] inOrder = { true };
+        bus.subscribe((type, value) -> {
+            if (value != expected[0]++) inOrder[0] = false;
+        });
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!bus.publish(GameEvent.KILL, i)) Thread.yield();
+            }
+        });
+        producer.start();
+        while (expected[0] < count) {
+            if (bus.drain() == 0) Thread.yield();
+        }
+        producer.join();
+
+        assertTrue(inOrder[0], "Events should arrive in publish order");
+        assertEquals(count, expected[0]);
+    }
+}
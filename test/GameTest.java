@@ -1,13 +1,12 @@
 import static org.junit.jupiter.api.Assertions.*;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.List;
 import static org.mockito.Mockito.*;
 
 public class GameTest {
@@ -19,27 +18,27 @@ public class GameTest {
         game = new Game();
 
         // Inject dummy assets so spawnEntities() works without loadImages().
-        Image img48 = new WritableImage(48, 48);
-        Image bulletImg = new WritableImage(10, 10);
+        Sprite sprite48 = new Sprite("test", 48, 48);
+        Sprite bulletSprite = new Sprite("bullet", 10, 10);
 
-        Image[] playerIdle = new Image[] { img48, img48, img48, img48 };
-        Image[] playerRun  = new Image[] { img48, img48, img48, img48, img48, img48 };
-        Image[] playerHurt = new Image[] { img48, img48 };
+        Sprite[] playerIdle = new Sprite[] { sprite48, sprite48, sprite48, sprite48 };
+        Sprite[] playerRun  = new Sprite[] { sprite48, sprite48, sprite48, sprite48, sprite48, sprite48 };
+        Sprite[] playerHurt = new Sprite[] { sprite48, sprite48 };
 
-        Image[] enemyIdle = new Image[] { img48, img48, img48, img48, img48, img48, img48, img48 };
-        Image[] enemyWalk = new Image[] { img48, img48, img48, img48, img48, img48, img48, img48 };
-        Image[] enemyRun  = new Image[] { img48, img48, img48, img48, img48, img48, img48 };
+        Sprite[] enemyIdle = new Sprite[] { sprite48, sprite48, sprite48, sprite48, sprite48, sprite48, sprite48, sprite48 };
+        Sprite[] enemyWalk = new Sprite[] { sprite48, sprite48, sprite48, sprite48, sprite48, sprite48, sprite48, sprite48 };
+        Sprite[] enemyRun  = new Sprite[] { sprite48, sprite48, sprite48, sprite48, sprite48, sprite48, sprite48 };
 
         setField(game, "playerIdleSprites", playerIdle);
         setField(game, "playerRunningSprites", playerRun);
         setField(game, "playerHurtSprites", playerHurt);
-        setField(game, "playerShootingSprite", img48);
-        setField(game, "bulletImage", bulletImg);
+        setField(game, "playerShootingSprite", sprite48);
+        setField(game, "bulletSprite", bulletSprite);
 
         setField(game, "enemyIdleSprites", enemyIdle);
         setField(game, "enemyWalkingSprites", enemyWalk);
         setField(game, "enemyRunningSprites", enemyRun);
-        setField(game, "enemyHurtSprite", img48);
+        setField(game, "enemyHurtSprite", sprite48);
 
         // Inject a minimal map with known width and empty blocks.
         MapBlocks map = new MapBlocks();
@@ -57,7 +56,7 @@ public class GameTest {
 
         // Trigger restart
         game.getInputHandler().onKeyPressed(KeyCode.R);
-        game.update();
+        game.update(Entity.BASE_DT);
 
         Player after = game.getPlayer();
         assertNotSame(before, after, "Restart should respawn a new Player instance");
@@ -73,7 +72,7 @@ public class GameTest {
     void testWinStopsUpdate() {
         // Force win this tick: player.x > 8000, then update() sets game.isWon true and returns early.
         game.getPlayer().x = 8001;
-        game.update();
+        game.update(Entity.BASE_DT);
         assertTrue(game.isWon(), "Game should set isWon when player hasWon()");
     }
 
@@ -84,12 +83,27 @@ public class GameTest {
 
         // Force death by health <= 0
         game.getPlayer().health = 0;
-        game.update();
+        game.update(Entity.BASE_DT);
 
         assertEquals(deathsBefore + 1, game.getDeathCounter(), "Death should increment deathCounter");
         assertNotSame(before, game.getPlayer(), "Death should respawn a new Player instance");
     }
 
+    @Test
+    void testWinAndDeathArePublishedOnce() {
+        List<GameEvent> seen = new ArrayList<>();
+        game.getEvents().subscribe((type, value) -> seen.add(type));
+
+        game.getPlayer().health = 0;
+        game.update(Entity.BASE_DT);
+        game.getPlayer().x = 8001;
+        game.update(Entity.BASE_DT);
+        game.update(Entity.BASE_DT);
+        game.getEvents().drain();
+
+        assertEquals(List.of(GameEvent.DEATH, GameEvent.WIN), seen);
+    }
+
     @Test
     void testCameraClamping() {
         MapBlocks map = game.getMap();
@@ -107,6 +121,86 @@ public class GameTest {
         assertEquals(max, game.getCameraOffset(), "Camera should clamp to mapWidth - viewWidth at right edge");
     }
 
+    @Test
+    void testUpdateKeepsPreviousPositions() {
+        Player p = game.getPlayer();
+        p.x = 2000;
+        p.speed = 5;
+        game.updateCamera(1280);
+        int camBefore = game.getCameraOffset();
+
+        game.update(Entity.BASE_DT);
+
+        assertEquals(2000, p.prevX, "prevX should hold the position from before the tick");
+        assertEquals(2005, p.x, "Player should have moved by its speed");
+        assertEquals(camBefore, game.getPrevCameraOffset(), "prevCameraOffset should hold the camera from before the tick");
+    }
+
+    @Test
+    void testRespawnSnapsCamera() {
+        game.getPlayer().x = 5000;
+        game.updateCamera(1280);
+
+        game.spawnEntities();
+
+        assertEquals(game.getCameraOffset(), game.getPrevCameraOffset(),
+                "Respawn should not leave the camera interpolating from the old position");
+    }
+
+    @Test
+    void testLowTickRateCloseTo60Hz() {
+        int[] at60 = runJump(60, 0.5);
+        game.spawnEntities();
+        int[] at30 = runJump(30, 0.5);
+
+        // 60Hz ticks drop the fractional pixel of each fall like the original
+        // per-frame update; 30Hz carries it, so falls run up to a pixel per step lower
+        assertEquals(at60[0], at30[0], 5, "30Hz x should be within 5px of 60Hz");
+        assertEquals(at60[1], at30[1], 15, "30Hz y should be within 15px of 60Hz");
+    }
+
+    @Test
+    void testStepsLongerThanMaxStepAreSplit() {
+        for (int i = 0; i < 10; i++) {
+            game.update(2 * Game.MAX_STEP);
+        }
+        int[] once = { game.getPlayer().x, game.getPlayer().y };
+
+        game.spawnEntities();
+        for (int i = 0; i < 20; i++) {
+            game.update(Game.MAX_STEP);
+        }
+
+        assertArrayEquals(new int[] { game.getPlayer().x, game.getPlayer().y }, once,
+                "A step twice MAX_STEP should run as two MAX_STEP steps");
+        assertTrue(once[1] > 300, "The player should have fallen");
+    }
+
+    @Test
+    void testElapsedTimeIsSimulated() {
+        for (int i = 0; i < 90; i++) {
+            game.update(Entity.BASE_DT);
+        }
+        assertEquals(1.5, game.getElapsedSeconds(), 1e-9);
+
+        game.resetRunStats();
+        assertEquals(0, game.getElapsedSeconds());
+    }
+
+    /** Jumps while holding right for the given time and returns the player's final position. */
+    private int[] runJump(int hz, double seconds) {
+        InputHandler input = game.getInputHandler();
+        input.clearAll();
+        input.onKeyPressed(KeyCode.D);
+        input.onKeyPressed(KeyCode.W);
+
+        int ticks = (int) Math.round(seconds * hz);
+        for (int i = 0; i < ticks; i++) {
+            game.update(1.0 / hz);
+        }
+        return new int[] { game.getPlayer().x, game.getPlayer().y };
+    }
+
     // ---- reflection helper ----
     private static void setField(Object target, String fieldName, Object value) {
         try {
@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class HeadlessRunnerTest {
+
+    @Test
+    void testSpriteLoadReadsPngHeader() {
+        Sprite bullet = Sprite.load("/Sprites/Player/shoot/bullet.png");
+        assertEquals(8, bullet.width());
+        assertEquals(5, bullet.height());
+
+        Sprite tile = Sprite.load("/Tiles/1_FrameTopLeftCorner.png");
+        assertEquals(48, tile.width());
+        assertEquals(48, tile.height());
+
+        assertSame(bullet, Sprite.load("/Sprites/Player/shoot/bullet.png"), "Sprites should be cached by path");
+    }
+
+    @Test
+    void testSpriteLoadRejectsMissingResource() {
+        assertThrows(IllegalArgumentException.class, () -> Sprite.load("/missing.png"));
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HeadlessRunner(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new HeadlessRunner(60, 0));
+    }
+
+    @Test
+    void testRunWithoutToolkit() {
+        HeadlessRunner runner = new HeadlessRunner(60, 600);
+
+        HeadlessRunner.Result result = runner.run(HeadlessRunner.runRight(30, 15));
+
+        assertTrue(result.ticks() <= 600);
+        assertEquals(result.ticks() / 60.0, result.seconds(), 1e-9);
+        assertTrue(result.finalX() > 20, "Holding right should move the player past its spawn point");
+    }
+
+    @Test
+    void testDefaultBatchClearsTheOpening() {
+        for (int tickRate : new int[] { 30, 60, 144 }) {
+            HeadlessRunner runner = new HeadlessRunner(tickRate, 5 * tickRate);
+
+            for (HeadlessRunner.InputScript script : HeadlessRunner.defaultScripts(40, tickRate)) {
+                HeadlessRunner.Result result = runner.run(script);
+
+                assertEquals(0, result.deaths(), tickRate + "Hz: the opening should not fall into the gap");
+                assertTrue(result.finalX() > 1008, tickRate + "Hz: should land past the gap, was at " + result.finalX());
+            }
+        }
+    }
+
+    @Test
+    void testIdleRunHitsTickLimit() {
+        HeadlessRunner runner = new HeadlessRunner(60, 120);
+
+        HeadlessRunner.Result result = runner.run((tick, input) -> { });
+
+        assertFalse(result.won());
+        assertEquals(120, result.ticks());
+        assertEquals(0, result.kills());
+    }
+}
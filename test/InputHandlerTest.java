@@ -79,4 +79,77 @@ public class InputHandlerTest {
         input.onKeyPressed(KeyCode.R);
         assertTrue(input.processRestart(), "Pressing ESC again should trigger restart request again");
     }
+
+    @Test
+    void testQueuedInputAppliedInOrder() {
+        boolean[] keys = input.getKeysPressed();
+
+        input.queueKeyPressed(KeyCode.A);
+        input.queueKeyReleased(KeyCode.A);
+        input.queueKeyPressed(KeyCode.D);
+        assertFalse(keys[1], "Queued input should not apply until applyQueuedInput()");
+
+        input.applyQueuedInput();
+        assertTrue(keys[0], "A tap within one tick should still hold move-left for that tick");
+        assertTrue(keys[1], "Queued D press should set move-right true");
+        assertTrue(input.isLastDirectionForwards(), "Last queued direction should win");
+
+        input.applyQueuedInput();
+        assertFalse(keys[0], "The tap's release should apply at the next tick boundary");
+        assertTrue(keys[1]);
+    }
+
+    @Test
+    void testReleaseInLaterTickIsNotDeferred() {
+        boolean[] keys = input.getKeysPressed();
+
+        input.queueKeyPressed(KeyCode.D);
+        input.applyQueuedInput();
+        input.queueKeyReleased(KeyCode.D);
+        input.applyQueuedInput();
+        assertFalse(keys[1]);
+
+        input.queueKeyPressed(KeyCode.A);
+        input.queueKeyReleased(KeyCode.A);
+        input.queueKeyPressed(KeyCode.A);
+        input.applyQueuedInput();
+        input.applyQueuedInput();
+        assertTrue(keys[0], "A press after the tap's release should cancel the deferred release");
+    }
+
+    @Test
+    void testAppliedInputTimestampIsOldestAndConsumed() {
+        assertEquals(0, input.takeAppliedInputNanos());
+
+        input.queueKeyPressed(KeyCode.D, 500);
+        input.queueKeyReleased(KeyCode.D, 700);
+        assertEquals(0, input.takeAppliedInputNanos(), "Queued input has not been applied yet");
+
+        input.applyQueuedInput();
+        input.queueKeyPressed(KeyCode.SPACE, 900);
+        input.applyQueuedInput();
+
+        assertEquals(500, input.takeAppliedInputNanos());
+        assertEquals(0, input.takeAppliedInputNanos());
+    }
+
+    @Test
+    void testTickMaskRoundTrip() {
+        input.onKeyPressed(KeyCode.A);
+        input.onKeyPressed(KeyCode.W);
+        input.onKeyPressed(KeyCode.SPACE);
+
+        int mask = input.getTickMask();
+        assertEquals(InputHandler.LEFT | InputHandler.JUMP_HELD | InputHandler.JUMP | InputHandler.SHOOT, mask);
+        assertEquals(mask, input.getTickMask(), "Reading the mask should not consume one-shot requests");
+
+        InputHandler other = new InputHandler();
+        other.applyTickMask(mask);
+        assertEquals(mask, other.getTickMask());
+        assertTrue(other.getKeysPressed()[0]);
+        assertFalse(other.isLastDirectionForwards());
+        assertTrue(other.processJump());
+        assertTrue(other.processShoot());
+        assertFalse(other.processRestart());
+    }
 }
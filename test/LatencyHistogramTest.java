@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class LatencyHistogramTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBucketsCoverEveryValueOnce() {
+        for (long units = 0; units < 100_000; units++) {
+            int bucket = LatencyHistogram.bucketOf(units);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= units, "Lower bound of " + units);
+            assertTrue(units < LatencyHistogram.upperBound(bucket), "Upper bound of " + units);
+        }
+    }
+
+    @Test
+    void testBucketsAreNarrow() {
+        for (long units : new long[] { 20, 1_000, 16_667, 250_000, 10_000_000 }) {
+            int bucket = LatencyHistogram.bucketOf(units);
+            long width = LatencyHistogram.upperBound(bucket) - LatencyHistogram.lowerBound(bucket);
+            assertTrue(width * 16 <= units, "Bucket for " + units + "us is " + width + "us wide");
+        }
+    }
+
+    @Test
+    void testPercentilesAndStats() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int ms = 1; ms <= 100; ms++) h.record(ms * 1_000_000L);
+
+        assertEquals(100, h.getCount());
+        assertEquals(50.5e6, h.getMeanNanos(), 1);
+        assertEquals(100_000_000L, h.getMaxNanos());
+        assertEquals(50e6, h.percentileNanos(50), 50e6 / 16);
+        assertEquals(99e6, h.percentileNanos(99), 99e6 / 16);
+        assertEquals(100_000_000L, h.percentileNanos(100), "Percentiles should be capped at the maximum");
+        assertThrows(IllegalArgumentException.class, () -> h.percentileNanos(101));
+    }
+
+    @Test
+    void testEmptyAndReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentileNanos(99));
+        assertEquals(0, h.getMeanNanos());
+
+        h.record(-5);
+        h.record(Long.MAX_VALUE / 2);
+        assertEquals(2, h.getCount());
+
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMaxNanos());
+        assertEquals("lower_us,upper_us,count\n", h.toCsv());
+    }
+
+    @Test
+    void testWriteCsv() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(5_000);
+        h.record(5_500);
+        h.record(40_000);
+
+        Path file = tempDir.resolve("out").resolve("latency.csv");
+        h.writeCsv(file);
+
+        assertEquals("lower_us,upper_us,count\n5,6,2\n40,42,1\n", Files.readString(file));
+    }
+}
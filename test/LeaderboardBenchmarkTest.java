@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times rank and page queries on a board of one million entries against
+ * sorting a copy of the board, which is what answering them used to take,
+ * and times loading a saved board of that size from its mapped snapshot.
+ * <p>
+ * Excluded from the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups=integration}.
+ */
+@Tag("benchmark")
+public class LeaderboardBenchmarkTest {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int QUERIES = 100_000;
+    private static final int SORTS = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rankQueriesVersusFullSort() {
+        LeaderboardService lb = new LeaderboardService(tempDir.resolve("leaderboard.dat").toString());
+        Random random = new Random(42);
+        List<ScoreEntry> plain = new ArrayList<>(ENTRIES);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++) {
+            int score = random.nextInt(10_000_000);
+            lb.addEntry("P" + i, score);
+            plain.add(new ScoreEntry("P" + i, score));
+        }
+        long addNanos = System.nanoTime() - start;
+
+        int[] scores = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) scores[i] = random.nextInt(10_000_000);
+
+        long sink = 0;
+        start = System.nanoTime();
+        for (int score : scores) sink += lb.getRank(score);
+        long rankNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) sink += lb.getPage(1 + (scores[i] % ENTRIES), 10).size();
+        long pageNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SORTS; i++) {
+            List<ScoreEntry> copy = new ArrayList<>(plain);
+            copy.sort((a, b) -> Integer.compare(b.score(), a.score()));
+            sink += copy.get(i).score();
+        }
+        long sortNanos = System.nanoTime() - start;
+
+        System.out.printf("%,d entries: add %.2f us/entry, rank %.2f us/query, page of 10 %.2f us/query, "
+                        + "sorted copy %.1f ms%n",
+                ENTRIES, addNanos / 1e3 / ENTRIES, rankNanos / 1e3 / QUERIES, pageNanos / 1e3 / QUERIES,
+                sortNanos / 1e6 / SORTS);
+
+        int probe = scores[0];
+        long higher = plain.stream().filter(e -> e.score() > probe).count();
+        assertEquals(higher + 1, lb.getRank(probe));
+        assertTrue(sink != 0);
+    }
+
+    @Test
+    void loadingMappedSnapshotDoesNotReadEntries() {
+        String path = tempDir.resolve("leaderboard.dat").toString();
+        LeaderboardService writer = new LeaderboardService(path, ENTRIES);
+        Random random = new Random(42);
+        for (int i = 0; i < ENTRIES; i++) writer.addEntry("P" + i, random.nextInt(10_000_000));
+        long start = System.nanoTime();
+        assertTrue(writer.save());
+        long compactNanos = System.nanoTime() - start;
+
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = rt.totalMemory() - rt.freeMemory();
+        start = System.nanoTime();
+        LeaderboardService lb = new LeaderboardService(path);
+        lb.load();
+        long loadNanos = System.nanoTime() - start;
+        long heapAfter = rt.totalMemory() - rt.freeMemory();
+
+        long sink = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) sink += lb.getRank(random.nextInt(10_000_000));
+        long rankNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) sink += lb.getPage(1 + random.nextInt(ENTRIES), 10).size();
+        long pageNanos = System.nanoTime() - start;
+
+        System.out.printf("%,d entries: compact %.1f ms, load %.2f ms (heap %+,d KB), "
+                        + "rank %.2f us/query, page of 10 %.2f us/query%n",
+                ENTRIES, compactNanos / 1e6, loadNanos / 1e6, (heapAfter - heapBefore) / 1024,
+                rankNanos / 1e3 / QUERIES, pageNanos / 1e3 / QUERIES);
+
+        assertEquals(ENTRIES, lb.size());
+        assertEquals(0, lb.getEntriesInMemory());
+        assertTrue(sink != 0);
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several JVMs saving to the same leaderboard at once and checks that
+ * no process's entries are lost or counted twice.
+ * <p>
+ * Excluded from the default test run; run with
+ * {@code mvn test -Dgroups=integration -Dtest.excludedGroups=benchmark}.
+ */
+@Tag("integration")
+public class LeaderboardMultiProcessTest {
+
+    private static final int PROCESSES = 8;
+    private static final int ENTRIES_PER_PROCESS = 100;
+    private static final int COMPACT_AFTER = 32;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Child process: adds and saves entries one at a time, reloading now and
+     * then as a lock-free reader.
+     */
+    public static class Writer {
+        public static void main(String[] args) {
+            String path = args[0];
+            int id = Integer.parseInt(args[1]);
+            int count = Integer.parseInt(args[2]);
+            LeaderboardService lb = new LeaderboardService(path, COMPACT_AFTER);
+            for (int i = 0; i < count; i++) {
+                lb.addEntry("P" + id + "-" + i, i);
+                if (!lb.save()) System.exit(1);
+                if (i % 10 == 0) lb.load();
+            }
+        }
+    }
+
+    @Test
+    void concurrentProcessesMergeTheirEntries() throws Exception {
+        String path = tempDir.resolve("leaderboard.dat").toString();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        long start = System.nanoTime();
+        List<Process> processes = new ArrayList<>();
+        for (int id = 0; id < PROCESSES; id++) {
+            processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    Writer.class.getName(), path, Integer.toString(id), Integer.toString(ENTRIES_PER_PROCESS))
+                    .redirectErrorStream(true)
+                    .redirectOutput(tempDir.resolve("writer-" + id + ".log").toFile())
+                    .start());
+        }
+        for (int id = 0; id < PROCESSES; id++) {
+            Process p = processes.get(id);
+            assertTrue(p.waitFor(60, TimeUnit.SECONDS), "Writer " + id + " timed out");
+            assertEquals(0, p.exitValue(),
+                    "Writer " + id + " failed: " + Files.readString(tempDir.resolve("writer-" + id + ".log")));
+        }
+        long nanos = System.nanoTime() - start;
+
+        LeaderboardService lb = new LeaderboardService(path);
+        lb.load();
+        Set<String> names = new HashSet<>();
+        for (ScoreEntry e : lb.getEntries()) assertTrue(names.add(e.name()), "Duplicate entry " + e.name());
+        for (int id = 0; id < PROCESSES; id++) {
+            for (int i = 0; i < ENTRIES_PER_PROCESS; i++) assertTrue(names.contains("P" + id + "-" + i));
+        }
+        assertEquals(PROCESSES * ENTRIES_PER_PROCESS, lb.size());
+
+        int saves = PROCESSES * ENTRIES_PER_PROCESS;
+        System.out.printf("%d processes, %,d saves in %.0f ms including JVM startup (%.0f saves/s)%n",
+                PROCESSES, saves, nanos / 1e6, saves / (nanos / 1e9));
+    }
+}
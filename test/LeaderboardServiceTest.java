@@ -1,8 +1,22 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,4 +97,493 @@ class LeaderboardServiceTest {
         lb2.load();
         assertTrue(lb2.getEntries().isEmpty(), "clear() should persist empty list to disk");
     }
+
+    @Test
+    void saveAppendsOnlyNewEntriesToJournal() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        Path journal = tempDir.resolve("leaderboard.dat.journal");
+        LeaderboardService lb = new LeaderboardService(file.toString());
+
+        lb.addEntry("A", 1);
+        assertTrue(lb.save());
+        byte[] snapshot = Files.readAllBytes(file);
+        long afterFirst = Files.size(journal);
+
+        lb.addEntry("B", 2);
+        assertTrue(lb.save());
+        long afterSecond = Files.size(journal);
+        assertTrue(lb.save(), "Saving with nothing new should succeed");
+
+        assertEquals(afterSecond, Files.size(journal), "Nothing new means nothing written");
+        assertTrue(afterSecond - afterFirst < 32, "One short entry should be one small record");
+        assertArrayEquals(snapshot, Files.readAllBytes(file), "Saving should not rewrite the snapshot");
+        assertEquals(2, lb.getJournalRecords());
+    }
+
+    @Test
+    void tornJournalRecordIsDroppedAndLaterSavesStillLoad() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        Path journal = tempDir.resolve("leaderboard.dat.journal");
+        LeaderboardService lb = new LeaderboardService(file.toString());
+        lb.addEntry("Kept", 10);
+        assertTrue(lb.save());
+        long good = Files.size(journal);
+
+        lb.addEntry("Torn", 20);
+        assertTrue(lb.save());
+        // Simulate a crash part-way through the second append
+        byte[] bytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(bytes, bytes.length - 3));
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of(new ScoreEntry("Kept", 10)), reloaded.getEntries());
+        assertTrue(reloaded.save());
+        assertEquals(good, Files.size(journal), "The next writer should cut off the torn tail");
+
+        reloaded.addEntry("After", 30);
+        assertTrue(reloaded.save());
+        LeaderboardService again = new LeaderboardService(file.toString());
+        again.load();
+        assertEquals(List.of("After", "Kept"), again.getEntries().stream().map(ScoreEntry::name).toList());
+    }
+
+    @Test
+    void corruptedJournalRecordIsRejectedByChecksum() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        Path journal = tempDir.resolve("leaderboard.dat.journal");
+        LeaderboardService lb = new LeaderboardService(file.toString());
+        lb.addEntry("First", 1);
+        assertTrue(lb.save());
+        lb.addEntry("Second", 2);
+        assertTrue(lb.save());
+
+        byte[] bytes = Files.readAllBytes(journal);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(journal, bytes);
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of(new ScoreEntry("First", 1)), reloaded.getEntries());
+    }
+
+    @Test
+    void journalIsCompactedIntoSnapshot() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        Path journal = tempDir.resolve("leaderboard.dat.journal");
+        LeaderboardService lb = new LeaderboardService(file.toString(), 3);
+
+        for (int i = 0; i < 3; i++) {
+            lb.addEntry("P" + i, i);
+            assertTrue(lb.save());
+        }
+        assertFalse(Files.exists(journal), "Compaction should start a fresh journal");
+        assertEquals(0, lb.getJournalRecords());
+
+        lb.addEntry("P3", 3);
+        assertTrue(lb.save());
+        assertEquals(1, lb.getJournalRecords());
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of(3, 2, 1, 0), reloaded.getEntries().stream().map(ScoreEntry::score).toList());
+    }
+
+    @Test
+    void journalLeftBehindByCrashedCompactionIsNotCountedTwice() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        Path journal = tempDir.resolve("leaderboard.dat.journal");
+        LeaderboardService lb = new LeaderboardService(file.toString(), 2);
+        lb.addEntry("A", 1);
+        assertTrue(lb.save());
+        byte[] oldJournal = Files.readAllBytes(journal);
+
+        lb.addEntry("B", 2);
+        assertTrue(lb.save());
+        // As if the process died after renaming the snapshot but before deleting the journal
+        Files.write(journal, oldJournal);
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of("B", "A"), reloaded.getEntries().stream().map(ScoreEntry::name).toList());
+        assertTrue(reloaded.save());
+        assertFalse(Files.exists(journal), "The next writer should delete the stale journal");
+    }
+
+    @Test
+    void saveWithoutLoadKeepsEntriesAlreadyOnDisk() {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService first = new LeaderboardService(file.toString());
+        first.addEntry("Old", 5);
+        assertTrue(first.save());
+
+        LeaderboardService second = new LeaderboardService(file.toString(), 1);
+        second.addEntry("New", 6);
+        assertTrue(second.save());
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of("New", "Old"), reloaded.getEntries().stream().map(ScoreEntry::name).toList());
+    }
+
+    @Test
+    void legacySerializedFileIsConverted() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+            out.writeObject(new ArrayList<>(List.of(new ScoreEntry("Legacy", 42))));
+        }
+
+        LeaderboardService lb = new LeaderboardService(file.toString());
+        lb.load();
+        assertEquals(List.of(new ScoreEntry("Legacy", 42)), lb.getEntries());
+        assertNotEquals((byte) 0xAC, Files.readAllBytes(file)[0], "The file should be rewritten as a snapshot");
+
+        lb.addEntry("New", 1);
+        assertTrue(lb.save());
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(2, reloaded.getEntries().size());
+    }
+
+    @Test
+    void corruptSnapshotFailsToLoad() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService lb = new LeaderboardService(file.toString(), 1);
+        lb.addEntry("A", 1);
+        assertTrue(lb.save());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(file, bytes);
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        assertThrows(RuntimeException.class, reloaded::load);
+    }
+
+    @Test
+    void topListIsCachedUntilEntriesChange() {
+        LeaderboardService lb = new LeaderboardService(tempDir.resolve("leaderboard.dat").toString());
+        lb.addEntry("A", 10);
+        lb.addEntry("B", 30);
+        lb.addEntry("C", 20);
+
+        long version = lb.getVersion();
+        List<ScoreEntry> top = lb.getTop(2);
+        assertEquals(List.of(new ScoreEntry("B", 30), new ScoreEntry("C", 20)), top);
+        assertSame(top, lb.getTop(2), "An unchanged board should return the cached list");
+        assertEquals(version, lb.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> top.add(new ScoreEntry("X", 1)));
+
+        lb.addEntry("D", 25);
+        assertNotEquals(version, lb.getVersion());
+        assertEquals(List.of("B", "D"), lb.getTop(2).stream().map(ScoreEntry::name).toList());
+        assertEquals(4, lb.getTop(10).size());
+
+        lb.clear();
+        assertTrue(lb.getTop(10).isEmpty());
+    }
+
+    @Test
+    void savingAndLoadingUnchangedFilesKeepsTheVersion() {
+        String path = tempDir.resolve("leaderboard.dat").toString();
+        LeaderboardService lb = new LeaderboardService(path, 3);
+        lb.addEntry("A", 10);
+        lb.addEntry("B", 30);
+        assertTrue(lb.save());
+
+        long version = lb.getVersion();
+        List<ScoreEntry> top = lb.getTop(10);
+        assertTrue(lb.save());
+        lb.load();
+        assertEquals(version, lb.getVersion(), "Nothing changed on disk");
+        assertSame(top, lb.getTop(10));
+
+        lb.addEntry("C", 20);
+        assertTrue(lb.save());
+        assertEquals(0, lb.getJournalRecords(), "The save should have compacted the journal");
+        version = lb.getVersion();
+        lb.load();
+        assertTrue(lb.save());
+        assertEquals(version, lb.getVersion(), "Compaction does not change the entries");
+
+        LeaderboardService other = new LeaderboardService(path);
+        other.load();
+        other.addEntry("D", 40);
+        assertTrue(other.save());
+        lb.load();
+        assertNotEquals(version, lb.getVersion(), "Another service saved an entry");
+        assertEquals(4, lb.size());
+
+        version = lb.getVersion();
+        other.clear();
+        lb.load();
+        assertNotEquals(version, lb.getVersion(), "Another service cleared the board");
+        assertEquals(0, lb.size());
+    }
+
+    @Test
+    void equalScoresKeepInsertionOrder() {
+        LeaderboardService lb = new LeaderboardService(tempDir.resolve("leaderboard.dat").toString());
+        lb.addEntry("First", 50);
+        lb.addEntry("Low", 10);
+        lb.addEntry("Second", 50);
+        lb.addEntry("High", 90);
+
+        List<String> expected = List.of("High", "First", "Second", "Low");
+        assertEquals(expected, lb.getTop(4).stream().map(ScoreEntry::name).toList());
+        assertEquals(expected, lb.getEntries().stream().map(ScoreEntry::name).toList());
+
+        assertTrue(lb.save());
+        LeaderboardService reloaded = new LeaderboardService(tempDir.resolve("leaderboard.dat").toString());
+        reloaded.load();
+        assertEquals(expected, reloaded.getTop(4).stream().map(ScoreEntry::name).toList());
+    }
+
+    @Test
+    void rankPercentileAndPageQueries() {
+        LeaderboardService lb = new LeaderboardService(tempDir.resolve("leaderboard.dat").toString());
+        for (int i = 1; i <= 200; i++) lb.addEntry("P" + i, i * 10);
+
+        assertEquals(200, lb.size());
+        assertEquals(1, lb.getRank(2000));
+        assertEquals(0.5, lb.getTopPercent(2000), 1e-9);
+        assertEquals(200, lb.getRank(10));
+        assertEquals(100.0, lb.getTopPercent(10), 1e-9);
+        assertEquals(151, lb.getRank(500));
+        assertEquals(100.0, lb.getTopPercent(5), 1e-9, "A score below the board counts as last");
+
+        assertEquals(List.of(1900, 1890, 1880), lb.getPage(11, 3).stream().map(ScoreEntry::score).toList());
+        assertTrue(lb.getPage(201, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> lb.getPage(0, 5));
+    }
+
+    @Test
+    void compactedEntriesAreMappedAndMergedWithNewOnes() {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService lb = new LeaderboardService(file.toString(), 500);
+        List<ScoreEntry> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            ScoreEntry e = new ScoreEntry("P" + i, random.nextInt(300));
+            lb.addEntry(e.name(), e.score());
+            expected.add(e);
+        }
+        assertTrue(lb.save());
+        assertEquals(0, lb.getEntriesInMemory(), "Saved entries should have been compacted");
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString(), 500);
+        reloaded.load();
+        assertEquals(0, reloaded.getEntriesInMemory(), "Loading should map the snapshot, not read it");
+        for (int i = 0; i < 50; i++) {
+            ScoreEntry e = new ScoreEntry("N" + i, random.nextInt(300));
+            reloaded.addEntry(e.name(), e.score());
+            expected.add(e);
+        }
+        // Stable sort, so equal scores stay in the order they were added
+        expected.sort(Comparator.comparingInt(ScoreEntry::score).reversed());
+
+        assertEquals(expected.size(), reloaded.size());
+        assertEquals(expected, reloaded.getEntries());
+        for (int from = 1; from <= expected.size(); from += 97) {
+            assertEquals(expected.subList(from - 1, Math.min(expected.size(), from + 9)), reloaded.getPage(from, 10));
+        }
+        for (int score = -1; score <= 300; score += 13) {
+            int s = score;
+            assertEquals(expected.stream().filter(e -> e.score() > s).count() + 1, reloaded.getRank(score));
+        }
+    }
+
+    @Test
+    void truncatedSnapshotFailsToLoad() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService lb = new LeaderboardService(file.toString(), 1);
+        lb.addEntry("A", 1);
+        assertTrue(lb.save());
+
+        Path snapshot = tempDir.resolve("leaderboard.dat.snapshot-1");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 1));
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        assertThrows(RuntimeException.class, reloaded::load);
+    }
+
+    @Test
+    void inlineSnapshotFromPreviousVersionIsConverted() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x43504C42);
+        out.writeInt(1);
+        out.writeLong(3);
+        out.writeInt(2);
+        writeVersion1Record(out, new ScoreEntry("Old", 5));
+        writeVersion1Record(out, new ScoreEntry("Older", 9));
+        Files.write(file, bytes.toByteArray());
+
+        LeaderboardService lb = new LeaderboardService(file.toString());
+        lb.load();
+        assertEquals(List.of(new ScoreEntry("Older", 9), new ScoreEntry("Old", 5)), lb.getEntries());
+        assertEquals(0, lb.getEntriesInMemory());
+
+        lb.addEntry("New", 7);
+        assertTrue(lb.save());
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of("Older", "New", "Old"), reloaded.getEntries().stream().map(ScoreEntry::name).toList());
+    }
+
+    @Test
+    void queuedSavesAreCoalesced() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        try (LeaderboardService lb = new LeaderboardService(file.toString())) {
+            CompletableFuture<Boolean> first;
+            CompletableFuture<Boolean> second;
+            // Holding the monitor keeps the writer from starting the first save
+            synchronized (lb) {
+                lb.addEntry("A", 1);
+                first = lb.saveAsync();
+                lb.addEntry("B", 2);
+                second = lb.saveAsync();
+            }
+            assertSame(first, second, "A save that has not started should be shared");
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertEquals(2, lb.getJournalRecords());
+
+            lb.addEntry("C", 3);
+            CompletableFuture<Boolean> third = lb.saveAsync();
+            assertNotSame(first, third, "A finished save should not be reused");
+            assertTrue(third.get(5, TimeUnit.SECONDS));
+        }
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(List.of("C", "B", "A"), reloaded.getEntries().stream().map(ScoreEntry::name).toList());
+    }
+
+    @Test
+    void asyncOperationsRunInOrderAndCloseFlushesThem() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService lb = new LeaderboardService(file.toString());
+        lb.setFsyncPolicy(LeaderboardService.FsyncPolicy.COMPACTION_ONLY);
+        lb.addEntry("Cleared", 1);
+        CompletableFuture<Boolean> saved = lb.saveAsync();
+        lb.clearAsync().get(5, TimeUnit.SECONDS);
+        assertTrue(saved.isDone(), "Operations should run in the order they were queued");
+        assertEquals(0, lb.size());
+
+        lb.addEntry("Kept", 2);
+        CompletableFuture<Boolean> savedAgain = lb.saveAsync();
+        lb.close();
+        assertTrue(savedAgain.isDone(), "close() should wait for queued writes");
+        assertTrue(savedAgain.get());
+        assertFalse(lb.saveAsync().get(), "A closed service should not accept writes");
+        ExecutionException e = assertThrows(ExecutionException.class, () -> lb.loadAsync().get());
+        assertNotNull(e.getCause());
+        assertTrue(lb.save(), "Synchronous saves still work after close()");
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.loadAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(new ScoreEntry("Kept", 2)), reloaded.getEntries());
+        reloaded.close();
+    }
+
+    @Test
+    void loadKeepsEntriesAddedSinceTheLastSave() {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService other = new LeaderboardService(file.toString());
+        other.addEntry("Saved", 5);
+        assertTrue(other.save());
+
+        LeaderboardService lb = new LeaderboardService(file.toString());
+        lb.addEntry("Unsaved", 7);
+        lb.load();
+        assertEquals(List.of("Unsaved", "Saved"), lb.getEntries().stream().map(ScoreEntry::name).toList());
+        assertTrue(lb.save());
+
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(2, reloaded.size());
+    }
+
+    @Test
+    void savesFromServicesSharingAFileAreMerged() {
+        Path file = tempDir.resolve("leaderboard.dat");
+        LeaderboardService a = new LeaderboardService(file.toString());
+        LeaderboardService b = new LeaderboardService(file.toString());
+        a.load();
+        b.load();
+
+        a.addEntry("A1", 10);
+        assertTrue(a.save());
+        b.addEntry("B1", 30);
+        assertTrue(b.save());
+        a.addEntry("A2", 20);
+        assertTrue(a.save());
+
+        List<String> expected = List.of("B1", "A2", "A1");
+        assertEquals(expected, a.getEntries().stream().map(ScoreEntry::name).toList(),
+                "Saving should pick up what the other service saved");
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(expected, reloaded.getEntries().stream().map(ScoreEntry::name).toList());
+    }
+
+    @Test
+    void concurrentWritersLoseNothingAndReadersSeeGrowingBoards() throws Exception {
+        Path file = tempDir.resolve("leaderboard.dat");
+        int writers = 4;
+        int perWriter = 60;
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            threads.add(new Thread(() -> {
+                LeaderboardService lb = new LeaderboardService(file.toString(), 16);
+                for (int i = 0; i < perWriter; i++) {
+                    lb.addEntry("W" + id + "-" + i, i);
+                    if (!lb.save()) failed.set(true);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            LeaderboardService lb = new LeaderboardService(file.toString());
+            int last = 0;
+            while (!done.get()) {
+                try {
+                    lb.load();
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                }
+                if (lb.size() < last) failed.set(true);
+                last = lb.size();
+            }
+        });
+        reader.start();
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join(30_000);
+        done.set(true);
+        reader.join(30_000);
+
+        assertFalse(failed.get(), "Every save and load should succeed and boards should only grow");
+        LeaderboardService reloaded = new LeaderboardService(file.toString());
+        reloaded.load();
+        assertEquals(writers * perWriter, reloaded.size());
+        assertEquals(writers * perWriter,
+                new HashSet<>(reloaded.getEntries().stream().map(ScoreEntry::name).toList()).size());
+    }
+
+    private static void writeVersion1Record(DataOutputStream out, ScoreEntry entry) throws Exception {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream p = new DataOutputStream(payload);
+        p.writeInt(entry.score());
+        p.writeUTF(entry.name());
+        CRC32 crc = new CRC32();
+        crc.update(payload.toByteArray());
+        out.writeInt(payload.size());
+        out.writeInt((int) crc.getValue());
+        out.write(payload.toByteArray());
+    }
 }
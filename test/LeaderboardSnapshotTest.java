@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writtenSnapshotMergesBaseWithAddedEntries() throws Exception {
+        Path first = tempDir.resolve("first");
+        LeaderboardSnapshot.write(first, LeaderboardSnapshot.EMPTY, List.of(
+                new LeaderboardSnapshot.Added(new ScoreEntry("A", 20), 100),
+                new LeaderboardSnapshot.Added(new ScoreEntry("B\u00e9", 40), 200)));
+        LeaderboardSnapshot base = LeaderboardSnapshot.open(first);
+
+        Path second = tempDir.resolve("second");
+        LeaderboardSnapshot.write(second, base, List.of(
+                new LeaderboardSnapshot.Added(new ScoreEntry("C", 20), 300),
+                new LeaderboardSnapshot.Added(new ScoreEntry("D", 50), 400)));
+        LeaderboardSnapshot merged = LeaderboardSnapshot.open(second);
+
+        assertEquals(4, merged.size());
+        assertEquals(new ScoreEntry("D", 50), merged.entryAt(0));
+        assertEquals(new ScoreEntry("B\u00e9", 40), merged.entryAt(1));
+        assertEquals(new ScoreEntry("A", 20), merged.entryAt(2), "Base entries come first on equal scores");
+        assertEquals(new ScoreEntry("C", 20), merged.entryAt(3));
+        assertEquals(400, merged.timestampAt(0));
+        assertEquals(100, merged.timestampAt(2));
+
+        assertEquals(0, merged.countHigher(60));
+        assertEquals(2, merged.countHigher(20));
+        assertEquals(4, merged.countHigher(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> merged.entryAt(4));
+        assertFalse(Files.exists(tempDir.resolve("second.tmp")));
+    }
+
+    @Test
+    void openRejectsFilesThatAreNotSnapshots() throws Exception {
+        Path empty = tempDir.resolve("empty");
+        LeaderboardSnapshot.write(empty, LeaderboardSnapshot.EMPTY, List.of());
+        assertEquals(0, LeaderboardSnapshot.open(empty).size());
+
+        Path other = tempDir.resolve("other");
+        Files.write(other, new byte[LeaderboardSnapshot.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> LeaderboardSnapshot.open(other));
+
+        byte[] bytes = Files.readAllBytes(empty);
+        Path longer = tempDir.resolve("longer");
+        Files.write(longer, Arrays.copyOf(bytes, bytes.length + 1));
+        assertThrows(IOException.class, () -> LeaderboardSnapshot.open(longer));
+    }
+}
@@ -0,0 +1,156 @@
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which map chunks are baked, kept and re-baked as the camera moves.
+ * <p>
+ * Needs the JavaFX toolkit, so it is excluded from the default test run; run with
+ * {@code mvn test -Dgroups=integration -Dtest.excludedGroups=benchmark}.
+ */
+@Tag("integration")
+public class MapChunkCacheTest extends ApplicationTest {
+
+    private static final int CHUNK = MapChunkCache.CHUNK_WIDTH;
+    private static final int HEIGHT = 672;
+
+    private Sprite[] tiles;
+    private SpriteAtlas atlas;
+    private MapBlocks map;
+    private Canvas canvas;
+
+    @Override
+    public void start(Stage stage) {
+        // Only the toolkit is needed
+    }
+
+    @BeforeEach
+    void loadMap() {
+        tiles = new Sprite[19];
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new Sprite("/tile" + i + ".png", 48, 48);
+            images.put(tiles[i].path(), new WritableImage(48, 48));
+        }
+        atlas = SpriteAtlas.pack(images);
+        map = new MapBlocks();
+        map.load(tiles);
+        canvas = new Canvas(1280, HEIGHT);
+        assertTrue(map.getMapWidth() > 8 * CHUNK, "Test map should span many chunks");
+    }
+
+    @Test
+    void onlyChunksInTheViewportAreBaked() {
+        MapChunkCache cache = new MapChunkCache(HEIGHT, 16);
+
+        draw(cache, 0, 1000);
+        assertEquals(List.of(0, 1), cache.cachedChunks());
+        assertEquals(2, cache.getBakes());
+
+        draw(cache, 0, 1000);
+        assertEquals(2, cache.getBakes(), "Cached chunks should be reused");
+
+        draw(cache, 600, 1000);
+        assertEquals(List.of(0, 1, 2, 3), cache.cachedChunks());
+        assertEquals(4, cache.getBakes(), "Only chunks 2 and 3 were new");
+
+        draw(cache, 4 * CHUNK, CHUNK);
+        assertEquals(5, cache.getBakes(), "A viewport on a chunk boundary covers one chunk");
+        assertTrue(cache.cachedChunks().contains(4));
+
+        int lastChunk = (map.getMapWidth() - 1) / CHUNK;
+        draw(cache, map.getMapWidth() - 100, 1000);
+        assertEquals(6, cache.getBakes(), "Nothing past the end of the map is baked");
+        assertEquals(lastChunk, (int) cache.cachedChunks().get(cache.size() - 1));
+
+        MapChunkCache left = new MapChunkCache(HEIGHT, 16);
+        draw(left, -100, 300);
+        assertEquals(List.of(0), left.cachedChunks(), "Nothing left of the map is baked");
+    }
+
+    @Test
+    void cacheIsBoundedAndEvictsLeastRecentlyUsed() {
+        MapChunkCache cache = new MapChunkCache(HEIGHT, 3);
+
+        for (int i = 0; i < 3; i++) {
+            draw(cache, i * CHUNK, CHUNK);
+        }
+        assertEquals(List.of(0, 1, 2), cache.cachedChunks());
+
+        draw(cache, 0, CHUNK);
+        assertEquals(List.of(1, 2, 0), cache.cachedChunks(), "Drawing a chunk makes it most recent");
+        assertEquals(3, cache.getBakes());
+
+        draw(cache, 3 * CHUNK, CHUNK);
+        assertEquals(List.of(2, 0, 3), cache.cachedChunks(), "Chunk 1 was least recently used");
+        assertEquals(4, cache.getBakes());
+
+        draw(cache, CHUNK, CHUNK);
+        assertEquals(List.of(0, 3, 1), cache.cachedChunks(), "An evicted chunk is baked again");
+        assertEquals(5, cache.getBakes());
+
+        for (int i = 0; i < 12; i++) {
+            draw(cache, i * 300, 900);
+            assertTrue(cache.size() <= 3, "Cache grew to " + cache.size());
+        }
+    }
+
+    @Test
+    void newLayoutVersionRebakesVisibleChunks() {
+        MapChunkCache cache = new MapChunkCache(HEIGHT, 16);
+        draw(cache, 4 * CHUNK, 1000);
+        draw(cache, 0, 1000);
+        assertEquals(List.of(4, 5, 0, 1), cache.cachedChunks());
+        assertEquals(4, cache.getBakes());
+
+        map.load(tiles);
+        draw(cache, 0, 1000);
+        assertEquals(List.of(0, 1), cache.cachedChunks(), "Chunks of the old layout are dropped");
+        assertEquals(6, cache.getBakes());
+
+        MapBlocks other = new MapBlocks();
+        other.load(tiles);
+        draw(cache, 0, 1000, other);
+        assertEquals(List.of(0, 1), cache.cachedChunks());
+        assertEquals(8, cache.getBakes(), "A different map is baked afresh");
+    }
+
+    @Test
+    void invalidateRebakesOnlyTheAffectedChunks() {
+        MapChunkCache cache = new MapChunkCache(HEIGHT, 16);
+        draw(cache, 0, 4 * CHUNK);
+        assertEquals(4, cache.getBakes());
+
+        cache.invalidate(600, 1100);
+        assertEquals(List.of(0, 3), cache.cachedChunks());
+        draw(cache, 0, 4 * CHUNK);
+        assertEquals(6, cache.getBakes());
+
+        cache.invalidate(CHUNK, 2 * CHUNK);
+        assertEquals(List.of(0, 2, 3), cache.cachedChunks(), "The end of the range is exclusive");
+
+        cache.invalidate(2 * CHUNK + 10, 2 * CHUNK + 11);
+        assertEquals(List.of(0, 3), cache.cachedChunks());
+        draw(cache, 0, 4 * CHUNK);
+        assertEquals(8, cache.getBakes());
+    }
+
+    private void draw(MapChunkCache cache, int cameraX, int viewWidth) {
+        draw(cache, cameraX, viewWidth, map);
+    }
+
+    private void draw(MapChunkCache cache, int cameraX, int viewWidth, MapBlocks blocks) {
+        interact(() -> cache.draw(canvas.getGraphicsContext2D(), blocks, atlas, cameraX, viewWidth));
+    }
+}
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+
+public class PixelCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testKeyDependsOnPathAndContent() {
+        byte[] png = { 1, 2, 3 };
+        String key = PixelCache.key("/a.png", png);
+
+        assertEquals(key, PixelCache.key("/a.png", new byte[] { 1, 2, 3 }));
+        assertNotEquals(key, PixelCache.key("/b.png", png));
+        assertNotEquals(key, PixelCache.key("/a.png", new byte[] { 1, 2, 4 }), "An edited image needs a new entry");
+        assertTrue(key.matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    void testVersionOfAFileIsItsSizeAndModificationTime() throws Exception {
+        Path png = tempDir.resolve("a.png");
+        Files.write(png, new byte[] { 1, 2, 3 });
+        Files.setLastModifiedTime(png, FileTime.fromMillis(1_000_000));
+        URL url = png.toUri().toURL();
+        byte[] version = PixelCache.version(url);
+
+        assertArrayEquals("file:3:1000000".getBytes(StandardCharsets.UTF_8), version, "Only metadata, not the pixels");
+        assertArrayEquals(version, PixelCache.version(url));
+
+        Files.write(png, new byte[] { 1, 2, 4 });
+        Files.setLastModifiedTime(png, FileTime.fromMillis(2_000_000));
+        assertFalse(Arrays.equals(version, PixelCache.version(url)), "An edited image needs a new entry");
+    }
+
+    @Test
+    void testVersionOfAJarEntryIsItsSizeAndCrc() throws Exception {
+        URL first = jarEntry("first.jar", new byte[] { 1, 2, 3 });
+        URL same = jarEntry("same.jar", new byte[] { 1, 2, 3 });
+        URL edited = jarEntry("edited.jar", new byte[] { 1, 2, 4 });
+
+        CRC32 crc = new CRC32();
+        crc.update(new byte[] { 1, 2, 3 });
+        assertArrayEquals(("jar:3:" + crc.getValue()).getBytes(StandardCharsets.UTF_8), PixelCache.version(first));
+        assertArrayEquals(PixelCache.version(first), PixelCache.version(same), "Rebuilding the jar keeps the entry");
+        assertFalse(Arrays.equals(PixelCache.version(first), PixelCache.version(edited)));
+    }
+
+    @Test
+    void testWrittenPixelsAreReadBack() {
+        PixelCache cache = new PixelCache(tempDir.resolve("pixels"));
+        int[] argb = { 0xFF000000, 0x80402010, 0x00000000, 0xFFFFFFFF, 0x7F7F0000, 0x01010101 };
+        cache.write("k", 3, 2, argb);
+
+        PixelCache.Pixels px = cache.read("k");
+        assertNotNull(px);
+        assertEquals(3, px.width());
+        assertEquals(2, px.height());
+        int[] back = new int[argb.length];
+        px.argbPre().get(back);
+        assertArrayEquals(argb, back);
+        assertFalse(Files.exists(tempDir.resolve("pixels").resolve("k.px.tmp")));
+    }
+
+    @Test
+    void testMissingTruncatedOrOutdatedFilesAreMisses() throws Exception {
+        Path dir = tempDir.resolve("pixels");
+        PixelCache cache = new PixelCache(dir);
+        assertNull(cache.read("missing"));
+
+        cache.write("k", 2, 2, new int[] { 1, 2, 3, 4 });
+        Path file = dir.resolve("k.px");
+        byte[] good = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(good, good.length - 1));
+        assertNull(cache.read("k"), "Truncated file");
+
+        byte[] outdated = good.clone();
+        ByteBuffer.wrap(outdated).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 999);
+        Files.write(file, outdated);
+        assertNull(cache.read("k"), "Unknown format version");
+
+        Files.write(file, new byte[] { 1, 2, 3 });
+        assertNull(cache.read("k"), "Shorter than the header");
+    }
+
+    private URL jarEntry(String jarName, byte[] content) throws Exception {
+        Path jar = tempDir.resolve(jarName);
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("a.png"));
+            out.write(content);
+            out.closeEntry();
+        }
+        return new URL("jar:" + jar.toUri() + "!/a.png");
+    }
+
+    @Test
+    void testWriteFailureIsIgnored() throws Exception {
+        Path blocker = tempDir.resolve("file");
+        Files.writeString(blocker, "not a directory");
+        PixelCache cache = new PixelCache(blocker.resolve("pixels"));
+
+        assertDoesNotThrow(() -> cache.write("k", 1, 1, new int[] { 1 }));
+        assertNull(cache.read("k"));
+    }
+}
@@ -1,7 +1,5 @@
 import static org.junit.jupiter.api.Assertions.*;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -10,22 +8,22 @@ import java.util.Collections;
 public class PlayerTest {
 
     private Player player;
-    private Image[] idle;
-    private Image[] running;
-    private Image[] hurt;
-    private Image shooting;
-    private Image bulletImg;
+    private Sprite[] idle;
+    private Sprite[] running;
+    private Sprite[] hurt;
+    private Sprite shooting;
+    private Sprite bulletSprite;
 
     @BeforeEach
     void setUp() {
-        idle = new Image[] { new WritableImage(48, 48), new WritableImage(48, 48), new WritableImage(48, 48), new WritableImage(48, 48) };
-        running = new Image[] {
-                new WritableImage(48, 48), new WritableImage(48, 48), new WritableImage(48, 48),
-                new WritableImage(48, 48), new WritableImage(48, 48), new WritableImage(48, 48)
+        idle = new Sprite[] { new Sprite("test", 48, 48), new Sprite("test", 48, 48), new Sprite("test", 48, 48), new Sprite("test", 48, 48) };
+        running = new Sprite[] {
+                new Sprite("test", 48, 48), new Sprite("test", 48, 48), new Sprite("test", 48, 48),
+                new Sprite("test", 48, 48), new Sprite("test", 48, 48), new Sprite("test", 48, 48)
         };
-        hurt = new Image[] { new WritableImage(48, 48), new WritableImage(48, 48) };
-        shooting = new WritableImage(48, 48);
-        bulletImg = new WritableImage(10, 10);
+        hurt = new Sprite[] { new Sprite("test", 48, 48), new Sprite("test", 48, 48) };
+        shooting = new Sprite("test", 48, 48);
+        bulletSprite = new Sprite("bullet", 10, 10);
 
         player = new Player(100, 200, 3, idle, running, hurt, shooting);
     }
@@ -72,7 +70,7 @@ public class PlayerTest {
     void testTryShootSuccess() {
         player.ammo = 2;
 
-        Bullet b = player.tryShoot(true, bulletImg);
+        Bullet b = player.tryShoot(true, bulletSprite);
         assertNotNull(b, "Bullet should spawn when ammo > 0 and not on cooldown");
         assertEquals(1, player.ammo, "Ammo should decrement after shooting");
         assertEquals(10, b.speed, "Facing right should set bullet speed positive");
@@ -83,17 +81,65 @@ public class PlayerTest {
     void testTryShootBlocked() {
         // Blocked by no ammo
         player.ammo = 0;
-        assertNull(player.tryShoot(true, bulletImg), "Should not shoot when ammo == 0");
+        assertNull(player.tryShoot(true, bulletSprite), "Should not shoot when ammo == 0");
 
         // Blocked by cooldown (justShot)
         player.ammo = 2;
-        Bullet first = player.tryShoot(true, bulletImg);
+        Bullet first = player.tryShoot(true, bulletSprite);
         assertNotNull(first);
 
-        Bullet second = player.tryShoot(true, bulletImg);
+        Bullet second = player.tryShoot(true, bulletSprite);
         assertNull(second, "Second shot immediately should be blocked by cooldown (justShot)");
     }
 
+    @Test
+    void testShotCooldownUsesSimulatedTime() {
+        player.ammo = 2;
+        assertNotNull(player.tryShoot(true, bulletSprite));
+
+        // 29 ticks is about 483ms of simulated time: still cooling down
+        boolean[] keys = new boolean[4];
+        for (int i = 0; i < 29; i++) {
+            player.update(keys, true, false, Collections.emptyList(), Entity.BASE_DT);
+        }
+        assertNull(player.tryShoot(true, bulletSprite), "Cooldown should last 500ms of simulated time");
+
+        player.update(keys, true, false, Collections.emptyList(), Entity.BASE_DT);
+        player.update(keys, true, false, Collections.emptyList(), Entity.BASE_DT);
+        assertNotNull(player.tryShoot(true, bulletSprite), "Cooldown should end after 500ms of simulated time");
+    }
+
+    @Test
+    void testFallAt60HzMatchesPerFrameUpdate() {
+        boolean[] keys = new boolean[4];
+        for (int i = 0; i < 30; i++) {
+            player.update(keys, true, false, Collections.emptyList(), Entity.BASE_DT);
+        }
+
+        // 0 + 0 + 1 + 1 + ... + 14 + 14 whole pixels, as the per-frame update fell
+        assertEquals(100, player.x);
+        assertEquals(410, player.y);
+    }
+
+    @Test
+    void testJumpAt60HzMatchesPerFrameUpdate() {
+        boolean[] keys = new boolean[4];
+        keys[1] = true;
+        keys[2] = true;
+
+        // Positions every 10 ticks of a held jump to the right, from the per-frame update
+        int[][] expected = { { 135, 139 }, { 185, 101 }, { 235, 89 }, { 285, 115 } };
+        int apex = player.y;
+        for (int i = 0; i < 40; i++) {
+            player.update(keys, true, i == 0, Collections.emptyList(), Entity.BASE_DT);
+            apex = Math.min(apex, player.y);
+            if (i % 10 == 9) {
+                assertArrayEquals(expected[i / 10], new int[] { player.x, player.y }, "Tick " + (i + 1));
+            }
+        }
+        assertEquals(89, apex);
+    }
+
     @Test
     void testPlayerDeath() {
         player.y = 901;
@@ -110,7 +156,7 @@ public class PlayerTest {
         player.x = 8001;
 
         boolean[] keys = new boolean[4];
-        player.update(keys, true, false, Collections.emptyList());
+        player.update(keys, true, false, Collections.emptyList(), Entity.BASE_DT);
 
         assertTrue(player.hasWon(), "Player should win when x > 8000");
     }
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class RankIndexTest {
+
+    @Test
+    void testMatchesSortedListOnRandomEntries() {
+        RankIndex index = new RankIndex();
+        List<ScoreEntry> added = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            // A small score range so there are plenty of ties
+            ScoreEntry e = new ScoreEntry("P" + i, random.nextInt(300));
+            index.add(e);
+            added.add(e);
+        }
+
+        List<ScoreEntry> expected = new ArrayList<>(added);
+        expected.sort(Comparator.comparingInt(ScoreEntry::score).reversed());
+
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected, index.page(0, expected.size()));
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertSame(expected.get(i), index.get(i));
+            assertEquals(expected.subList(i, Math.min(i + 10, expected.size())), index.page(i, 10));
+        }
+        for (int score = -1; score <= 300; score++) {
+            int s = score;
+            long higher = added.stream().filter(e -> e.score() > s).count();
+            assertEquals(higher + 1, index.rankOf(score), "rank of " + score);
+        }
+    }
+
+    @Test
+    void testEqualScoresKeepInsertionOrderAndShareRank() {
+        RankIndex index = new RankIndex();
+        ScoreEntry first = new ScoreEntry("First", 50);
+        ScoreEntry second = new ScoreEntry("Second", 50);
+        index.add(new ScoreEntry("Top", 90));
+        index.add(first);
+        index.add(new ScoreEntry("Low", 10));
+        index.add(second);
+
+        assertSame(first, index.get(1));
+        assertSame(second, index.get(2));
+        assertEquals(2, index.rankOf(50));
+        assertEquals(4, index.rankOf(10));
+        assertEquals(5, index.rankOf(0));
+        assertEquals(1, index.rankOf(100));
+    }
+
+    @Test
+    void testPageBoundsAndClear() {
+        RankIndex index = new RankIndex();
+        for (int i = 0; i < 5; i++) index.add(new ScoreEntry("P" + i, i));
+
+        assertEquals(List.of(1, 0), index.page(3, 10).stream().map(ScoreEntry::score).toList());
+        assertTrue(index.page(5, 3).isEmpty());
+        assertTrue(index.page(0, 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.page(-1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.get(5));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(1, index.rankOf(0));
+        assertTrue(index.page(0, 10).isEmpty());
+    }
+}
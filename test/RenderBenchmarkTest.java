@@ -0,0 +1,104 @@
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares negative-width mirrored draws against pre-flipped atlas blits.
+ * <p>
+ * Excluded from the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups=integration}.
+ */
+@Tag("benchmark")
+public class RenderBenchmarkTest extends ApplicationTest {
+
+    private static final int ENEMIES = 5_000;
+    private static final int WARMUP_FRAMES = 20;
+    private static final int FRAMES = 100;
+
+    private Canvas canvas;
+    private SpriteAtlas atlas;
+    private String[] frames;
+    private WritableImage frameBuffer;
+
+    @Override
+    public void start(Stage stage) {
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (String path : Game.SPRITE_PATHS) {
+            if (path.startsWith("/Sprites/Enemy/")) {
+                images.put(path, new Image(getClass().getResource(path).toExternalForm()));
+            }
+        }
+        atlas = SpriteAtlas.pack(images);
+        frames = images.keySet().toArray(new String[0]);
+
+        canvas = new Canvas(1280, 720);
+        frameBuffer = new WritableImage(1280, 720);
+        stage.setScene(new Scene(new StackPane(canvas), 1280, 720));
+        stage.show();
+    }
+
+    @Test
+    void preFlippedBlitVersusNegativeWidth() {
+        long[] result = new long[2];
+
+        interact(() -> {
+            result[0] = time(true);
+            result[1] = time(false);
+        });
+
+        System.out.printf("%d mirrored enemies x %d frames: negative-width %.2f ms/frame, pre-flipped %.2f ms/frame%n",
+                ENEMIES, FRAMES, result[0] / 1e6 / FRAMES, result[1] / 1e6 / FRAMES);
+        assertTrue(result[0] > 0 && result[1] > 0);
+    }
+
+    /**
+     * Renders warm-up frames then times {@link #FRAMES} frames, forcing each to
+     * be rasterised with a snapshot.
+     *
+     * @param negativeWidth true to mirror with a scaled draw, false to use the pre-flipped region
+     * @return total nanoseconds for the timed frames
+     */
+    private long time(boolean negativeWidth) {
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            renderFrame(negativeWidth, i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            renderFrame(negativeWidth, i);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void renderFrame(boolean negativeWidth, int frame) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        Image texture = atlas.getTexture();
+
+        for (int i = 0; i < ENEMIES; i++) {
+            String path = frames[(i + frame) % frames.length];
+            double x = (i * 37) % 1250;
+            double y = (i * 53) % 656;
+
+            if (negativeWidth) {
+                SpriteAtlas.Region r = atlas.regionOf(path);
+                gc.drawImage(texture, r.x(), r.y(), r.w(), r.h(), x + r.w(), y, -r.w(), r.h());
+            } else {
+                atlas.drawMirrored(gc, path, x, y);
+            }
+        }
+        canvas.snapshot(new SnapshotParameters(), frameBuffer);
+    }
+}
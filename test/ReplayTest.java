@@ -0,0 +1,152 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class ReplayTest {
+
+    @Test
+    void testRunLengthEncoding() {
+        Replay replay = new Replay(60);
+        for (int i = 0; i < 500; i++) replay.record(InputHandler.RIGHT);
+        replay.record(InputHandler.RIGHT | InputHandler.JUMP);
+        for (int i = 0; i < 500; i++) replay.record(InputHandler.RIGHT);
+
+        assertEquals(1001, replay.getTickCount());
+        assertEquals(3, replay.getRunCount());
+        assertThrows(IllegalArgumentException.class, () -> replay.record(0x100));
+    }
+
+    @Test
+    void testWriteReadRoundTrip() throws IOException {
+        Replay replay = new Replay(120);
+        int[] masks = { 0, 0, InputHandler.LEFT, InputHandler.LEFT, InputHandler.SHOOT, 0xFF };
+        for (int m : masks) replay.record(m);
+        for (int i = 0; i < 100_000; i++) replay.record(InputHandler.RIGHT);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.writeTo(out);
+        assertTrue(out.size() < 64, "Long runs should collapse to a few bytes, was " + out.size());
+
+        Replay back = Replay.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(120, back.getTickRate());
+        assertEquals(replay.getTickCount(), back.getTickCount());
+        assertEquals(replay.getRunCount(), back.getRunCount());
+
+        InputHandler input = new InputHandler();
+        HeadlessRunner.InputScript script = back.script();
+        for (int i = 0; i < masks.length; i++) {
+            script.apply(i, input);
+            assertEquals(masks[i], input.getTickMask(), "Mask of tick " + i);
+        }
+    }
+
+    @Test
+    void testRejectsInvalidData() {
+        byte[] junk = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17 };
+        assertThrows(IOException.class, () -> Replay.readFrom(new ByteArrayInputStream(junk)));
+    }
+
+    @Test
+    void testReplayReproducesRun() {
+        HeadlessRunner runner = new HeadlessRunner(60, 600);
+        HeadlessRunner.InputScript live = HeadlessRunner.runRight(25, 10);
+        Replay recording = new Replay(60);
+
+        HeadlessRunner.Result original = runner.run((tick, input) -> {
+            live.apply(tick, input);
+            recording.record(input.getTickMask());
+        });
+
+        assertEquals(original, ReplayPlayer.play(recording));
+    }
+
+    @Test
+    void testEmptyReplayCannotBePlayed() {
+        assertThrows(IllegalArgumentException.class, () -> ReplayPlayer.play(new Replay(60)));
+    }
+
+    @Test
+    void testMaskAtRandomAccess() {
+        Replay replay = new Replay(60);
+        replay.record(1);
+        replay.record(1);
+        replay.record(2);
+        replay.record(3);
+        replay.record(3);
+
+        int[] expected = { 1, 1, 2, 3, 3 };
+        for (int i = expected.length - 1; i >= 0; i--) {
+            assertEquals(expected[i], replay.maskAt(i), "Mask of tick " + i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> replay.maskAt(5));
+    }
+
+    @Test
+    void testSeekMatchesSequentialPlay() throws IOException {
+        Replay recording = record(1500);
+
+        // Play to the end once so keyframes are taken every 10 seconds
+        ReplayPlayer seeking = new ReplayPlayer(recording);
+        seeking.seek(recording.getTickCount());
+        assertEquals(3, recording.getKeyframeCount());
+
+        ReplayPlayer sequential = new ReplayPlayer(copyWithoutKeyframes(recording));
+        for (int target : new int[] { 250, 700, 1300 }) {
+            sequential.seek(target);
+        }
+
+        seeking.seek(700);
+        seeking.seek(1300);
+        assertEquals(1300, seeking.getTick());
+        assertArrayEquals(state(sequential), state(seeking), "Seeking should land on the same state as playing forward");
+        assertEquals(sequential.result(), seeking.result());
+    }
+
+    @Test
+    void testKeyframesSurviveRoundTrip() throws IOException {
+        Replay recording = record(1300);
+        new ReplayPlayer(recording).seek(recording.getTickCount());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        Replay back = Replay.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(recording.getKeyframeCount(), back.getKeyframeCount());
+        assertEquals(1200, back.keyframeAtOrBefore(1250));
+
+        ReplayPlayer fromFile = new ReplayPlayer(back);
+        fromFile.seek(1250);
+        ReplayPlayer fromStart = new ReplayPlayer(copyWithoutKeyframes(recording));
+        fromStart.seek(1250);
+        assertArrayEquals(state(fromStart), state(fromFile));
+    }
+
+    /** Records a scripted headless run of the given length. */
+    private static Replay record(int ticks) {
+        HeadlessRunner.InputScript live = HeadlessRunner.runRight(25, 10);
+        Replay recording = new Replay(60);
+        new HeadlessRunner(60, ticks).run((tick, input) -> {
+            live.apply(tick, input);
+            recording.record(input.getTickMask());
+        });
+        return recording;
+    }
+
+    private static Replay copyWithoutKeyframes(Replay replay) {
+        Replay copy = new Replay(replay.getTickRate());
+        for (int i = 0; i < replay.getTickCount(); i++) copy.record(replay.maskAt(i));
+        return copy;
+    }
+
+    private static byte[] state(ReplayPlayer player) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        player.getGame().writeState(out);
+        player.getScores().writeState(out);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,222 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ScoreVerifierTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRejectsInvalidArguments() {
+        LeaderboardService lb = leaderboard();
+        assertThrows(IllegalArgumentException.class, () -> new ScoreVerifier(lb, 0, 1, 60));
+        assertThrows(IllegalArgumentException.class, () -> new ScoreVerifier(lb, 1, 0, 60));
+        assertThrows(IllegalArgumentException.class, () -> new ScoreVerifier(lb, 1, 1, 0));
+    }
+
+    @Test
+    void testRejectsMissingOrEmptyReplay() {
+        try (ScoreVerifier verifier = new ScoreVerifier(leaderboard(), 1, 1, 600)) {
+            assertEquals("Rejected: no replay", verifier.verify(claim(100, 0, 0, 1.0, null)).message());
+            assertEquals("Rejected: no replay", verifier.verify(claim(100, 0, 0, 1.0, new Replay(60))).message());
+        }
+    }
+
+    @Test
+    void testRejectsReplayLongerThanLimit() {
+        try (ScoreVerifier verifier = new ScoreVerifier(leaderboard(), 1, 1, 60)) {
+            ScoreVerifier.Verdict v = verifier.verify(claim(100, 0, 0, 2.0, idle(61, 60)));
+            assertFalse(v.accepted());
+            assertEquals("Rejected: replay too long", v.message());
+        }
+    }
+
+    @Test
+    void testRejectsUnsupportedTickRate() {
+        try (ScoreVerifier verifier = new ScoreVerifier(leaderboard(), 1, 1, 600)) {
+            assertEquals("Rejected: unsupported tick rate",
+                    verifier.verify(claim(100, 0, 0, 1.0, idle(10, 7))).message());
+        }
+    }
+
+    @Test
+    void testRejectsRunThatWasNotWon() {
+        LeaderboardService lb = leaderboard();
+        Replay replay = new Replay(60);
+        HeadlessRunner.InputScript live = HeadlessRunner.runRight(25, 10);
+        new HeadlessRunner(60, 300).run((tick, input) -> {
+            live.apply(tick, input);
+            replay.record(input.getTickMask());
+        });
+
+        try (ScoreVerifier verifier = new ScoreVerifier(lb, 1, 1, 600)) {
+            ScoreVerifier.Verdict v = verifier.verify(claim(100000, 0, 0, 5.0, replay));
+            assertFalse(v.accepted());
+            assertEquals("Rejected: run was not completed", v.message());
+            assertEquals(300, v.result().ticks());
+        }
+        assertTrue(lb.getEntries().isEmpty());
+    }
+
+    @Test
+    void testAcceptsMatchingClaimAndSavesEntry() {
+        LeaderboardService lb = leaderboard();
+        HeadlessRunner.Result won = new HeadlessRunner.Result(true, 120, 2.0, 800, 3, 1, 8001);
+
+        try (ScoreVerifier verifier = new ScoreVerifier(lb, 1, 1, 600, r -> won)) {
+            ScoreVerifier.Verdict v = verifier.verify(claim(800, 3, 1, 2.0, idle(120, 60)));
+            assertTrue(v.accepted());
+            assertEquals("Saved!", v.message());
+        }
+        assertEquals(1, lb.getEntries().size());
+        assertEquals(800, lb.getEntries().get(0).score());
+    }
+
+    @Test
+    void testRejectsClaimsThatDoNotMatchReplay() {
+        LeaderboardService lb = leaderboard();
+        HeadlessRunner.Result won = new HeadlessRunner.Result(true, 120, 2.0, 800, 3, 1, 8001);
+
+        try (ScoreVerifier verifier = new ScoreVerifier(lb, 1, 1, 600, r -> won)) {
+            assertEquals("Rejected: score does not match replay",
+                    verifier.verify(claim(900, 3, 1, 2.0, idle(120, 60))).message());
+            assertEquals("Rejected: kills do not match replay",
+                    verifier.verify(claim(800, 4, 1, 2.0, idle(120, 60))).message());
+            assertEquals("Rejected: deaths do not match replay",
+                    verifier.verify(claim(800, 3, 0, 2.0, idle(120, 60))).message());
+            assertEquals("Rejected: time does not match replay",
+                    verifier.verify(claim(800, 3, 1, 1.5, idle(120, 60))).message());
+            assertEquals("Rejected: input continues after the win",
+                    verifier.verify(claim(800, 3, 1, 2.0, idle(180, 60))).message());
+        }
+        assertTrue(lb.getEntries().isEmpty());
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HeadlessRunner.Result lost = new HeadlessRunner.Result(false, 10, 10 / 60.0, 0, 0, 0, 20);
+
+        try (ScoreVerifier verifier = new ScoreVerifier(leaderboard(), 1, 1, 600, r -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return lost;
+        })) {
+            CompletableFuture<ScoreVerifier.Verdict> running = verifier.submit(claim(0, 0, 0, 0, idle(10, 60)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<ScoreVerifier.Verdict> queued = verifier.submit(claim(0, 0, 0, 0, idle(10, 60)));
+            assertEquals(1, verifier.getQueuedCount());
+
+            ScoreVerifier.Verdict busy = verifier.submit(claim(0, 0, 0, 0, idle(10, 60))).getNow(null);
+            assertNotNull(busy, "A full queue should be answered immediately");
+            assertEquals("Rejected: verifier is busy, try again", busy.message());
+
+            release.countDown();
+            assertEquals("Rejected: run was not completed", running.get(5, TimeUnit.SECONDS).message());
+            assertEquals("Rejected: run was not completed", queued.get(5, TimeUnit.SECONDS).message());
+        }
+    }
+
+    @Test
+    void testFailedReplayIsReportedAsRejection() throws Exception {
+        try (ScoreVerifier verifier = new ScoreVerifier(leaderboard(), 1, 1, 600, r -> {
+            throw new IllegalStateException("corrupt");
+        })) {
+            ScoreVerifier.Verdict v = verifier.submit(claim(0, 0, 0, 0, idle(10, 60))).get(5, TimeUnit.SECONDS);
+            assertFalse(v.accepted());
+            assertEquals("Rejected: replay could not be played", v.message());
+        }
+    }
+
+    @Test
+    void testRecordingOfPausedAndRestartedRunReplaysToSameStats() {
+        Game game = new Game();
+        game.loadSprites();
+        game.init();
+        ScoreManager scores = new ScoreManager();
+        GameController controller = new GameController(game, scores, leaderboard());
+        HeadlessRunner.InputScript script = HeadlessRunner.clearOpening(60, HeadlessRunner.runRight(25, 10));
+
+        controller.startNewGame();
+        drive(controller, script, 0, 300);
+        controller.restart();
+
+        drive(controller, script, 0, 400);
+        pauseFor(controller, 30, true);
+        drive(controller, script, 400, 1200);
+        pauseFor(controller, 5, false);
+        drive(controller, script, 1200, 1500);
+
+        Replay recording = controller.getRecording();
+        assertEquals(1501, recording.getTickCount(), "Only the tick that resumed by key should be recorded");
+        assertTrue(scores.getDeaths() > 0, "The run should include deaths");
+
+        HeadlessRunner.Result r = ReplayPlayer.play(recording);
+        assertEquals(recording.getTickCount(), r.ticks());
+        assertEquals(scores.getElapsedSeconds(), r.seconds(), 1e-9);
+        assertEquals(scores.getKills(), r.kills());
+        assertEquals(scores.getDeaths(), r.deaths());
+        assertEquals(scores.getScore(), r.score());
+        assertEquals(game.getPlayer().x, r.finalX());
+    }
+
+    /**
+     * Runs the controller one tick per script tick, as the simulation thread does.
+     */
+    private static void drive(GameController controller, HeadlessRunner.InputScript script, int from, int to) {
+        InputHandler input = controller.getGame().getInputHandler();
+        for (int tick = from; tick < to; tick++) {
+            script.apply(tick, input);
+            controller.update(1.0 / 60);
+        }
+    }
+
+    /**
+     * Pauses, keeps updating with input held for the given number of ticks, then
+     * resumes either with the pause key, which runs a tick, or from the pause menu.
+     */
+    private static void pauseFor(GameController controller, int ticks, boolean resumeByKey) {
+        InputHandler input = controller.getGame().getInputHandler();
+        input.applyTickMask(InputHandler.PAUSE);
+        controller.update(1.0 / 60);
+        assertEquals(GameState.PAUSED, controller.getState());
+
+        for (int i = 0; i < ticks; i++) {
+            input.applyTickMask(InputHandler.RIGHT | InputHandler.SHOOT);
+            controller.update(1.0 / 60);
+        }
+        if (resumeByKey) {
+            input.applyTickMask(InputHandler.PAUSE);
+            controller.update(1.0 / 60);
+        } else {
+            controller.resume();
+        }
+        assertEquals(GameState.RUNNING, controller.getState());
+    }
+
+    private LeaderboardService leaderboard() {
+        return new LeaderboardService(tempDir.resolve("leaderboard.dat").toString());
+    }
+
+    private static ScoreVerifier.Submission claim(int score, int kills, int deaths, double seconds, Replay replay) {
+        return new ScoreVerifier.Submission("Tester", score, kills, deaths, seconds, replay);
+    }
+
+    private static Replay idle(int ticks, int tickRate) {
+        Replay replay = new Replay(tickRate);
+        for (int i = 0; i < ticks; i++) replay.record(InputHandler.FACING_FORWARDS);
+        return replay;
+    }
+}
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimulationFarmTest {
+
+    @Test
+    void testRejectsInvalidThreadCount() {
+        HeadlessRunner runner = new HeadlessRunner(60, 10);
+        assertThrows(IllegalArgumentException.class, () -> new SimulationFarm(runner, 0));
+    }
+
+    @Test
+    void testParallelRunsMatchSequentialRuns() {
+        HeadlessRunner runner = new HeadlessRunner(60, 300);
+        List<HeadlessRunner.InputScript> scripts = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            scripts.add(HeadlessRunner.runRight(20 + i * 7, 15));
+        }
+
+        List<HeadlessRunner.Result> parallel;
+        try (SimulationFarm farm = new SimulationFarm(runner, 3)) {
+            parallel = farm.runAll(scripts);
+        }
+
+        assertEquals(scripts.size(), parallel.size());
+        for (int i = 0; i < scripts.size(); i++) {
+            assertEquals(runner.run(scripts.get(i)), parallel.get(i), "World " + i + " should not be affected by the others");
+        }
+    }
+
+    @Test
+    void testFailedRunIsReported() {
+        HeadlessRunner runner = new HeadlessRunner(60, 10);
+        HeadlessRunner.InputScript broken = (tick, input) -> { throw new IllegalArgumentException("bad script"); };
+
+        try (SimulationFarm farm = new SimulationFarm(runner, 2)) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> farm.runAll(List.of(broken)));
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void testSummariseAggregatesResults() {
+        List<HeadlessRunner.Result> results = List.of(
+                new HeadlessRunner.Result(true, 600, 10.0, 900, 4, 1, 8001),
+                new HeadlessRunner.Result(true, 1200, 20.0, 500, 2, 3, 8002),
+                new HeadlessRunner.Result(false, 1800, 30.0, 100, 0, 5, 300));
+
+        SimulationFarm.Summary s = SimulationFarm.summarise(results, 2.0);
+
+        assertEquals(3, s.runs());
+        assertEquals(2, s.wins());
+        assertEquals(15.0, s.meanWinSeconds(), 1e-9);
+        assertEquals(3.0, s.meanDeaths(), 1e-9);
+        assertEquals(2.0, s.meanKills(), 1e-9);
+        assertEquals(500.0, s.meanScore(), 1e-9);
+        assertEquals(900, s.bestScore());
+        assertEquals(3600, s.ticks());
+        assertEquals(90.0, s.runsPerMinute(), 1e-9);
+    }
+
+    @Test
+    void testSummariseWithoutWins() {
+        SimulationFarm.Summary s = SimulationFarm.summarise(
+                List.of(new HeadlessRunner.Result(false, 60, 1.0, 0, 0, 0, 20)), 1.0);
+
+        assertEquals(0, s.wins());
+        assertTrue(Double.isNaN(s.meanWinSeconds()));
+    }
+}
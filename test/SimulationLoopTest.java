@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SimulationLoopTest {
+
+    @Test
+    void testStepFollowsTickRate() {
+        assertEquals(1_000_000_000L / 60, new SimulationLoop(null, null).getStepNanos());
+        assertEquals(1_000_000_000L / 240, new SimulationLoop(null, null, 240).getStepNanos());
+        assertThrows(IllegalArgumentException.class, () -> new SimulationLoop(null, null, 0));
+    }
+
+    @Test
+    void testBacklogDropsWholeTicksOnly() {
+        SimulationLoop loop = new SimulationLoop(null, null, 60);
+        long step = loop.getStepNanos();
+
+        assertEquals(5, loop.dropBacklog(5), "Less than one tick owed should be kept");
+        assertEquals(0, loop.getDropCount());
+
+        long left = loop.dropBacklog(step * 40 + 123);
+        assertEquals(123, left, "Fractional remainder should be kept for interpolation");
+        assertEquals(step * 40, loop.getDroppedNanos(), "Dropped time should be reported");
+        assertEquals(1, loop.getDropCount());
+    }
+
+    @Test
+    void testStopRunsCommandsStillQueued() throws InterruptedException {
+        Game game = new Game();
+        game.loadSprites();
+        game.init();
+        ScoreManager scores = new ScoreManager();
+        GameController controller = spy(new GameController(game, scores, mock(LeaderboardService.class)));
+        SimulationLoop loop = new SimulationLoop(controller, scores, 60);
+
+        // Every tick posts a command, so the last one is always still queued when the loop exits
+        AtomicInteger posted = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        doAnswer(inv -> {
+            posted.incrementAndGet();
+            loop.post(ran::incrementAndGet);
+            return null;
+        }).when(controller).update(anyDouble());
+
+        loop.start();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (posted.get() < 3 && System.nanoTime() < deadline) Thread.sleep(5);
+        loop.stop();
+
+        assertTrue(posted.get() >= 3);
+        assertEquals(posted.get(), ran.get(), "A command posted before stop should not be dropped");
+    }
+
+    @Test
+    void testInputTimestampSurvivesSkippedSnapshot() {
+        Game game = new Game();
+        game.loadSprites();
+        game.init();
+        ScoreManager scores = new ScoreManager();
+        GameController controller = new GameController(game, scores, mock(LeaderboardService.class));
+        SimulationLoop loop = new SimulationLoop(controller, scores, 60);
+        TripleBuffer<RenderSnapshot> snapshots = loop.getSnapshots();
+
+        game.getInputHandler().queueKeyPressed(KeyCode.D, 1_000);
+        game.getInputHandler().applyQueuedInput();
+        loop.publish(0);
+        loop.publish(0); // replaces the first snapshot before the renderer saw it
+
+        assertTrue(snapshots.update());
+        assertEquals(1_000, snapshots.front().inputNanos, "Input of a skipped snapshot should be carried over");
+
+        loop.publish(0);
+        assertTrue(snapshots.update());
+        assertEquals(0, snapshots.front().inputNanos, "Input already shown should not be reported again");
+    }
+}
@@ -0,0 +1,264 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks atlas packing, the binary cache round trip and mirrored draws.
+ * <p>
+ * Needs the JavaFX toolkit, so it is excluded from the default test run; run with
+ * {@code mvn test -Dgroups=integration -Dtest.excludedGroups=benchmark}.
+ */
+@Tag("integration")
+public class SpriteAtlasTest extends ApplicationTest {
+
+    private static final int LEFT = 0xFFFF0000;
+    private static final int REST = 0xFF0000FF;
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    public void start(Stage stage) {
+        // Only the toolkit is needed
+    }
+
+    @Test
+    void packedRegionsDoNotOverlap() {
+        // Enough wide sprites to need several shelves
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (int i = 0; i < 12; i++) {
+            images.put("/s" + i + ".png", sprite(100 + i * 7, 10 + (i % 4) * 9, i));
+        }
+        SpriteAtlas atlas = SpriteAtlas.pack(images);
+        Image texture = atlas.getTexture();
+
+        List<SpriteAtlas.Region> all = new ArrayList<>();
+        for (Map.Entry<String, Image> e : images.entrySet()) {
+            Image img = e.getValue();
+            SpriteAtlas.Region r = atlas.regionOf(e.getKey());
+            SpriteAtlas.Region m = atlas.mirroredRegionOf(e.getKey());
+            assertEquals((int) img.getWidth(), r.w());
+            assertEquals((int) img.getHeight(), r.h());
+            assertEquals(r.w(), m.w());
+            assertEquals(r.h(), m.h());
+            all.add(r);
+            all.add(m);
+        }
+        for (SpriteAtlas.Region r : all) {
+            assertTrue(r.x() >= 0 && r.y() >= 0, r + " starts outside the texture");
+            assertTrue(r.x() + r.w() <= texture.getWidth() && r.y() + r.h() <= texture.getHeight(),
+                    r + " ends outside the texture");
+        }
+        for (int i = 0; i < all.size(); i++) {
+            for (int j = i + 1; j < all.size(); j++) {
+                assertFalse(overlap(all.get(i), all.get(j)), all.get(i) + " overlaps " + all.get(j));
+            }
+        }
+    }
+
+    @Test
+    void packedPixelsMatchTheSpriteAndItsMirror() {
+        Image img = sprite(5, 3, 1);
+        SpriteAtlas atlas = SpriteAtlas.pack(Map.of("/a.png", img));
+        SpriteAtlas.Region r = atlas.regionOf("/a.png");
+        SpriteAtlas.Region m = atlas.mirroredRegionOf("/a.png");
+
+        int[] original = pixels(img, 0, 0, 5, 3);
+        assertArrayEquals(original, pixels(atlas.getTexture(), r.x(), r.y(), r.w(), r.h()));
+        int[] mirrored = pixels(atlas.getTexture(), m.x(), m.y(), m.w(), m.h());
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 5; x++) {
+                assertEquals(original[y * 5 + x], mirrored[y * 5 + (4 - x)]);
+            }
+        }
+    }
+
+    @Test
+    void cacheRoundTripKeepsRegionsAndPixels() {
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            images.put("/s" + i + ".png", sprite(20 + i, 15 - i, i));
+        }
+        List<String> paths = new ArrayList<>(images.keySet());
+        SpriteAtlas built = SpriteAtlas.pack(images);
+        File file = tempDir.resolve("atlas.bin").toFile();
+        built.write(file, 42L);
+
+        SpriteAtlas read = SpriteAtlas.read(file, paths, 42L);
+        assertNotNull(read);
+        for (String path : paths) {
+            Image original = images.get(path);
+            SpriteAtlas.Region r = read.regionOf(path);
+            assertEquals(built.regionOf(path), r);
+            assertEquals(built.mirroredRegionOf(path), read.mirroredRegionOf(path));
+            assertArrayEquals(pixels(original, 0, 0, (int) original.getWidth(), (int) original.getHeight()),
+                    pixels(read.getTexture(), r.x(), r.y(), r.w(), r.h()));
+        }
+
+        Image a = built.getTexture();
+        Image b = read.getTexture();
+        assertEquals(a.getWidth(), b.getWidth());
+        assertEquals(a.getHeight(), b.getHeight());
+        assertArrayEquals(pixels(a, 0, 0, (int) a.getWidth(), (int) a.getHeight()),
+                pixels(b, 0, 0, (int) b.getWidth(), (int) b.getHeight()));
+    }
+
+    @Test
+    void staleCacheIsRejected() throws Exception {
+        Map<String, Image> images = new LinkedHashMap<>();
+        images.put("/a.png", sprite(4, 4, 0));
+        images.put("/b.png", sprite(6, 2, 1));
+        List<String> paths = List.of("/a.png", "/b.png");
+        File file = tempDir.resolve("atlas.bin").toFile();
+        SpriteAtlas.pack(images).write(file, 42L);
+        assertNotNull(SpriteAtlas.read(file, paths, 42L));
+
+        assertNull(SpriteAtlas.read(file, paths, 43L), "Fingerprint mismatch");
+        assertNull(SpriteAtlas.read(file, List.of("/a.png", "/c.png"), 42L), "Different sprite");
+        assertNull(SpriteAtlas.read(file, List.of("/a.png"), 42L), "Fewer sprites");
+        assertNull(SpriteAtlas.read(file, List.of("/a.png", "/b.png", "/c.png"), 42L), "More sprites");
+
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer.wrap(bytes).putInt(4, SpriteAtlas.FORMAT_VERSION + 1);
+        Files.write(file.toPath(), bytes);
+        assertNull(SpriteAtlas.read(file, paths, 42L), "Unknown format version");
+
+        assertNull(SpriteAtlas.read(tempDir.resolve("missing.bin").toFile(), paths, 42L));
+    }
+
+    @Test
+    void staleCacheIsRebuilt() throws Exception {
+        List<String> paths = Game.SPRITE_PATHS.subList(0, 4);
+        File file = tempDir.resolve("atlas.bin").toFile();
+        SpriteAtlas.loadOrBuild(paths, file);
+        byte[] good = Files.readAllBytes(file.toPath());
+        assertNotNull(SpriteAtlas.read(file, paths, SpriteAtlas.fingerprint(paths)));
+
+        byte[] outdated = good.clone();
+        ByteBuffer.wrap(outdated).putInt(4, SpriteAtlas.FORMAT_VERSION + 1);
+        Files.write(file.toPath(), outdated);
+        SpriteAtlas rebuilt = SpriteAtlas.loadOrBuild(paths, file);
+        assertNotNull(rebuilt.regionOf(paths.get(0)));
+        assertArrayEquals(good, Files.readAllBytes(file.toPath()), "Rebuild should rewrite the cache");
+
+        byte[] wrongFingerprint = good.clone();
+        ByteBuffer.wrap(wrongFingerprint).putLong(8, SpriteAtlas.fingerprint(paths) + 1);
+        Files.write(file.toPath(), wrongFingerprint);
+        SpriteAtlas.loadOrBuild(paths, file);
+        assertArrayEquals(good, Files.readAllBytes(file.toPath()), "Rebuild should rewrite the cache");
+
+        List<String> fewer = paths.subList(0, 2);
+        SpriteAtlas smaller = SpriteAtlas.loadOrBuild(fewer, file);
+        assertNull(smaller.regionOf(paths.get(3)));
+        assertNotNull(SpriteAtlas.read(file, fewer, SpriteAtlas.fingerprint(fewer)));
+        assertNull(SpriteAtlas.read(file, paths, SpriteAtlas.fingerprint(paths)));
+    }
+
+    @Test
+    void drawMirroredUsesTheMirroredRegion() {
+        Image img = sprite(4, 2, 0);
+        SpriteAtlas atlas = SpriteAtlas.pack(Map.of("/a.png", img));
+        int[][] drawn = new int[2][];
+
+        interact(() -> {
+            Canvas canvas = new Canvas(4, 2);
+            SnapshotParameters params = new SnapshotParameters();
+            params.setFill(Color.TRANSPARENT);
+
+            atlas.draw(canvas.getGraphicsContext2D(), "/a.png", 0, 0);
+            drawn[0] = pixels(canvas.snapshot(params, null), 0, 0, 4, 2);
+
+            canvas.getGraphicsContext2D().clearRect(0, 0, 4, 2);
+            atlas.drawMirrored(canvas.getGraphicsContext2D(), "/a.png", 0, 0);
+            drawn[1] = pixels(canvas.snapshot(params, null), 0, 0, 4, 2);
+        });
+
+        int[] original = pixels(img, 0, 0, 4, 2);
+        assertArrayEquals(original, drawn[0]);
+        for (int y = 0; y < 2; y++) {
+            assertEquals(LEFT, drawn[1][y * 4 + 3], "Left column should come out on the right");
+            for (int x = 0; x < 4; x++) {
+                assertEquals(original[y * 4 + x], drawn[1][y * 4 + (3 - x)]);
+            }
+        }
+    }
+
+    @Test
+    void drawingASpriteNotInTheAtlasFails() {
+        SpriteAtlas atlas = SpriteAtlas.pack(Map.of("/a.png", sprite(4, 2, 0)));
+        Canvas canvas = new Canvas(4, 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> atlas.draw(canvas.getGraphicsContext2D(), "/b.png", 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> atlas.drawMirrored(canvas.getGraphicsContext2D(), "/b.png", 0, 0));
+    }
+
+    @Test
+    void cachedAtlasProvidesSpriteSizes() {
+        Map<String, Image> images = new LinkedHashMap<>();
+        images.put("/not-a-resource-1.png", sprite(7, 3, 0));
+        images.put("/not-a-resource-2.png", sprite(5, 9, 1));
+        List<String> paths = new ArrayList<>(images.keySet());
+        File file = tempDir.resolve("atlas.bin").toFile();
+        SpriteAtlas.pack(images).write(file, 42L);
+        assertNotNull(SpriteAtlas.read(file, paths, 42L));
+
+        // Neither resource exists, so these sizes can only have come from the atlas index
+        assertEquals(new Sprite("/not-a-resource-1.png", 7, 3), Sprite.load("/not-a-resource-1.png"));
+        assertEquals(new Sprite("/not-a-resource-2.png", 5, 9), Sprite.load("/not-a-resource-2.png"));
+    }
+
+    @Test
+    void fingerprintDependsOnThePathList() {
+        List<String> paths = Game.SPRITE_PATHS.subList(0, 4);
+        assertEquals(SpriteAtlas.fingerprint(paths), SpriteAtlas.fingerprint(List.copyOf(paths)));
+        assertNotEquals(SpriteAtlas.fingerprint(paths), SpriteAtlas.fingerprint(paths.subList(0, 3)));
+    }
+
+    /**
+     * Builds an opaque sprite whose left column is red and the rest blue, with
+     * a per-sprite shade so sprites can be told apart.
+     */
+    private static WritableImage sprite(int w, int h, int shade) {
+        WritableImage img = new WritableImage(w, h);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int argb = x == 0 ? LEFT : REST;
+                if (x > 1) argb = (argb & 0xFFFF00FF) | ((shade * 20 + y) & 0xFF) << 8;
+                img.getPixelWriter().setArgb(x, y, argb);
+            }
+        }
+        return img;
+    }
+
+    private static int[] pixels(Image img, int x, int y, int w, int h) {
+        int[] argb = new int[w * h];
+        img.getPixelReader().getPixels(x, y, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+        return argb;
+    }
+
+    private static boolean overlap(SpriteAtlas.Region a, SpriteAtlas.Region b) {
+        return a.x() < b.x() + b.w() && b.x() < a.x() + a.w()
+                && a.y() < b.y() + b.h() && b.y() < a.y() + a.h();
+    }
+}
@@ -0,0 +1,127 @@
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares decoding the game's images from PNG against loading them from a
+ * warm {@link PixelCache}, as happens on a cold start and on every later one,
+ * and times the whole gameplay asset load with its caches cold and warm.
+ * <p>
+ * Excluded from the default test run; run with
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups=integration}.
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTest extends ApplicationTest {
+
+    private static final int ROUNDS = 10;
+
+    /** How many times faster a warm cache must be than decoding the PNGs. */
+    private static final double MIN_SPEEDUP = 1.5;
+
+    private static final List<String> BACKGROUNDS = List.of(
+            "/Background/1_Background.png",
+            "/Background/2_Background.png",
+            "/Background/3_Background.png",
+            "/Background/4_Background.png"
+    );
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    public void start(Stage stage) {
+        // Only the toolkit is needed
+    }
+
+    @Test
+    void pixelCacheVersusPngDecode() {
+        List<String> paths = new ArrayList<>(BACKGROUNDS);
+        paths.addAll(Game.SPRITE_PATHS);
+
+        // First run fills the cache
+        PixelCache cold = new PixelCache(tempDir);
+        long coldNanos = time(() -> paths.forEach(cold::load));
+        assertEquals(paths.size(), cold.getMisses());
+
+        long[] decode = new long[1];
+        long[] cached = new long[1];
+        for (int i = 0; i < ROUNDS; i++) {
+            decode[0] += time(() -> paths.forEach(p -> new Image(getClass().getResource(p).toExternalForm())));
+            PixelCache warm = new PixelCache(tempDir);
+            cached[0] += time(() -> paths.forEach(warm::load));
+            assertEquals(paths.size(), warm.getHits());
+        }
+
+        System.out.printf("%d images: first run %.1f ms, PNG decode %.1f ms, pixel cache %.1f ms%n",
+                paths.size(), coldNanos / 1e6, decode[0] / 1e6 / ROUNDS, cached[0] / 1e6 / ROUNDS);
+
+        for (String path : BACKGROUNDS) {
+            assertSamePixels(new Image(getClass().getResource(path).toExternalForm()), new PixelCache(tempDir).load(path));
+        }
+        assertTrue(cached[0] * MIN_SPEEDUP < decode[0],
+                String.format("Pixel cache (%.1f ms) should be at least %.1fx faster than PNG decode (%.1f ms)",
+                        cached[0] / 1e6 / ROUNDS, MIN_SPEEDUP, decode[0] / 1e6 / ROUNDS));
+    }
+
+    @Test
+    void assetLoadPhaseColdVersusWarm() throws Exception {
+        Path pixels = tempDir.resolve("pixels");
+        File atlas = tempDir.resolve("sprites.atlas").toFile();
+
+        long cold = assetLoadNanos(pixels, atlas);
+        long warm = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            warm = Math.min(warm, assetLoadNanos(pixels, atlas));
+        }
+
+        System.out.printf("asset_load: cold caches %.1f ms, warm caches %.1f ms%n", cold / 1e6, warm / 1e6);
+        assertTrue(warm * MIN_SPEEDUP < cold,
+                String.format("Warm asset_load (%.1f ms) should be at least %.1fx faster than cold (%.1f ms)",
+                        warm / 1e6, MIN_SPEEDUP, cold / 1e6));
+    }
+
+    /**
+     * Loads the gameplay assets the way {@link App} does, with the caches in
+     * the given places, and times it as the {@code asset_load} phase.
+     */
+    private static long assetLoadNanos(Path pixelDir, File atlasFile) throws Exception {
+        try (AssetLoader loader = new AssetLoader(new AssetRegistry(),
+                Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())))) {
+            List<AssetLoader.Task<?>> tasks = Game.gameAssets(new PixelCache(pixelDir), atlasFile);
+            StartupTimer timer = new StartupTimer(System::nanoTime, System.nanoTime());
+            loader.load(tasks, null).get(60, TimeUnit.SECONDS);
+            timer.mark("asset_load");
+            return timer.getPhases().get(0).durationNanos();
+        }
+    }
+
+    private static long time(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void assertSamePixels(Image expected, Image actual) {
+        int w = (int) expected.getWidth();
+        int h = (int) expected.getHeight();
+        assertEquals(w, (int) actual.getWidth());
+        assertEquals(h, (int) actual.getHeight());
+        int[] a = new int[w * h];
+        int[] b = new int[w * h];
+        expected.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), a, 0, w);
+        actual.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), b, 0, w);
+        assertArrayEquals(a, b);
+    }
+}
@@ -0,0 +1,64 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class StartupTimerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private long now;
+
+    @Test
+    void testPhasesAreConsecutive() {
+        StartupTimer timer = new StartupTimer(() -> now, 1_000_000_000L);
+
+        now = 1_150_000_000L;
+        assertTrue(timer.mark("jvm_to_init"));
+        now = 1_400_000_000L;
+        assertTrue(timer.mark("asset_load"));
+        now = 1_420_000_000L;
+        assertTrue(timer.mark("first_pulse"));
+
+        List<StartupTimer.Phase> phases = timer.getPhases();
+        assertEquals(3, phases.size());
+        assertEquals(new StartupTimer.Phase("jvm_to_init", 0, 150_000_000L), phases.get(0));
+        assertEquals(new StartupTimer.Phase("asset_load", 150_000_000L, 250_000_000L), phases.get(1));
+        assertEquals(new StartupTimer.Phase("first_pulse", 400_000_000L, 20_000_000L), phases.get(2));
+        assertEquals(420_000_000L, timer.getTotalNanos());
+    }
+
+    @Test
+    void testRepeatedPhaseIsIgnored() {
+        StartupTimer timer = new StartupTimer(() -> now, 0);
+        now = 10;
+        timer.mark("menu_construction");
+        now = 50;
+
+        assertFalse(timer.mark("menu_construction"));
+        assertEquals(1, timer.getPhases().size());
+        assertEquals(10, timer.getTotalNanos());
+    }
+
+    @Test
+    void testCsvExport() throws Exception {
+        StartupTimer timer = new StartupTimer(() -> now, 0);
+        now = 1_500_000;
+        timer.mark("jvm_to_init");
+        now = 4_000_000;
+        timer.mark("asset_load");
+
+        Path file = tempDir.resolve("out").resolve("startup.csv");
+        timer.writeCsv(file);
+
+        assertEquals("phase,start_ms,duration_ms\n"
+                + "jvm_to_init,0.000,1.500\n"
+                + "asset_load,1.500,2.500\n", Files.readString(file));
+        assertTrue(timer.summary().endsWith("total=4.0ms"));
+    }
+}
@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TripleBufferTest {
+
+    /** Mutable holder used as a buffer slot. */
+    private static final class Box {
+        long a;
+        long b;
+    }
+
+    @Test
+    void testUpdateOnlyAfterPublish() {
+        TripleBuffer<Box> buffer = new TripleBuffer<>(Box::new);
+        assertFalse(buffer.update(), "Nothing published yet");
+
+        buffer.back().a = 7;
+        buffer.publish();
+
+        assertTrue(buffer.update(), "Consumer should see the published slot");
+        assertEquals(7, buffer.front().a);
+        assertFalse(buffer.update(), "Same slot should not be reported twice");
+    }
+
+    @Test
+    void testHasUnreadUntilConsumed() {
+        TripleBuffer<Box> buffer = new TripleBuffer<>(Box::new);
+        assertFalse(buffer.hasUnread());
+
+        buffer.publish();
+        buffer.publish();
+        assertTrue(buffer.hasUnread());
+
+        buffer.update();
+        assertFalse(buffer.hasUnread(), "The consumer took the newest value");
+    }
+
+    @Test
+    void testConsumerSeesNewestValue() {
+        TripleBuffer<Box> buffer = new TripleBuffer<>(Box::new);
+        for (int i = 1; i <= 5; i++) {
+            buffer.back().a = i;
+            buffer.publish();
+        }
+        assertTrue(buffer.update());
+        assertEquals(5, buffer.front().a, "Intermediate publishes should be skipped");
+    }
+
+    @Test
+    void testSlotsNeverShared() throws Exception {
+        TripleBuffer<Box> buffer = new TripleBuffer<>(Box::new);
+        AtomicBoolean torn = new AtomicBoolean(false);
+
+        Thread producer = new Thread(() -> {
+            for (long i = 1; i <= 200_000; i++) {
+                Box box = buffer.back();
+                box.a = i;
+                box.b = i;
+                buffer.publish();
+            }
+        });
+        producer.start();
+
+        long last = 0;
+        boolean done = false;
+        while (!done) {
+            done = !producer.isAlive();
+            if (buffer.update()) {
+                Box box = buffer.front();
+                if (box.a != box.b || box.a < last) torn.set(true);
+                last = box.a;
+            }
+        }
+        producer.join();
+
+        assertEquals(200_000, last, "Consumer should end on the final published value");
+
+        assertFalse(torn.get(), "Consumer should never observe a half-written or older slot");
+    }
+}